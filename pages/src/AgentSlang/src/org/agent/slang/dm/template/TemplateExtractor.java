@@ -97,6 +97,12 @@ public class TemplateExtractor extends MixedComponent {
 
         loadCommandMatcher(config.getFileProperty(PROP_COMMANDS, true), matcherCommand);
         loadDialogueMatcher(config.getFileProperty(PROP_DIALOGUE, true), matcherDialogue);
+
+        try {
+            Dictionary.getInstance().saveSynonymSnapshot();
+        } catch (DictionaryException e) {
+            Logger.log(this, Logger.CRITICAL, "Unable to save the synonym snapshot", e);
+        }
     }
 
     /**
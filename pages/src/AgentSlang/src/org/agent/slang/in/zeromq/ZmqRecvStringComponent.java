@@ -96,6 +96,9 @@ public class ZmqRecvStringComponent extends LivingComponent
 
             Logger.log(this, Logger.INFORM, String.format("From topic %s : %s", topic, message));
             sendMessage(message);
+
+            // there may be more messages waiting, read them without waiting for the next tick
+            wakeUp();
         }
 
         return true;
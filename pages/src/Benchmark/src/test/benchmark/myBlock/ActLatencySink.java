@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock;
+
+import org.ib.component.annotations.ConfigureParams;
+import org.ib.component.base.SinkComponent;
+import org.ib.component.model.ComponentConfig;
+import org.ib.data.GenericData;
+import org.ib.data.StringData;
+
+import java.util.Arrays;
+
+/**
+ * Reports the end-to-end latency (event time at the source to handling time at the sink).
+ *
+ * @version 1, 10/18/26
+ */
+@ConfigureParams(inputDataTypes = StringData.class)
+public class ActLatencySink extends SinkComponent {
+    private long[] latencies;
+    private int size;
+    private String label;
+
+    public ActLatencySink(String outboundPort, ComponentConfig config) {
+        super(outboundPort, config);
+    }
+
+    protected void setupComponent(ComponentConfig config) {
+        latencies = new long[ActLatencySource.MSG_ITERATIONS];
+        size = 0;
+        label = config.getProperty(ComponentConfig.PROPERTY_PROFILE);
+    }
+
+    protected void handleData(GenericData data) {
+        if (size < latencies.length) {
+            latencies[size++] = System.nanoTime() - data.getId();
+
+            if (size == latencies.length) {
+                long[] sorted = Arrays.copyOf(latencies, size);
+                Arrays.sort(sorted);
+
+                double avg = 0;
+                for (long latency : sorted) {
+                    avg += latency;
+                }
+                avg /= size;
+
+                System.out.printf("[%s] Avg=%f p50=%f p99=%f Max=%f (ms)%n", label, avg / 1000000,
+                        sorted[size / 2] / 1000000.0, sorted[size * 99 / 100] / 1000000.0, sorted[size - 1] / 1000000.0);
+            }
+        }
+    }
+
+    public void defineReceivedData() {
+        addInboundTypeChecker(StringData.class);
+    }
+}
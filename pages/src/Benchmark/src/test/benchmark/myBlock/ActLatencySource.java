@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock;
+
+import org.ib.component.annotations.ConfigureParams;
+import org.ib.component.base.SourceComponent;
+import org.ib.component.model.ComponentConfig;
+import org.ib.data.LanguageUtils;
+import org.ib.data.StringData;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Simulates an external device: events arrive at random moments and are published from act().
+ * With wakeOnData, each event requests an immediate act() instead of waiting for the next tick.
+ *
+ * @version 1, 10/18/26
+ */
+@ConfigureParams(optionalConfigurationParams = "wakeOnData",
+        outputChannels = "data", outputDataTypes = StringData.class)
+public class ActLatencySource extends SourceComponent {
+    private static final String PROP_WAKE_ON_DATA = "wakeOnData";
+    static final int MSG_ITERATIONS = 200;
+
+    private final Queue<Long> events = new ConcurrentLinkedQueue<Long>();
+    private boolean wakeOnData;
+
+    public ActLatencySource(String outboundPort, ComponentConfig config) {
+        super(outboundPort, config);
+    }
+
+    protected void setupComponent(ComponentConfig config) {
+        wakeOnData = Boolean.parseBoolean(config.getProperty(PROP_WAKE_ON_DATA, "false"));
+
+        Thread thread = new Thread() {
+            public void run() {
+                Random random = new Random();
+                try {
+                    Thread.sleep(2000);
+                    for (int pass = 0; pass < MSG_ITERATIONS; pass++) {
+                        Thread.sleep(5 + random.nextInt(20));
+                        events.add(System.nanoTime());
+                        if (wakeOnData) {
+                            wakeUp();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    //-- ignore
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean act() {
+        Long timestamp;
+        while ((timestamp = events.poll()) != null) {
+            publishData("data", new StringData(timestamp, "event", LanguageUtils.IDX_NONE));
+        }
+        return true;
+    }
+
+    public void definePublishedData() {
+        addOutboundTypeChecker("data", StringData.class);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock;
+
+import org.ib.component.consistency.ConsistencyManager;
+import org.ib.component.consistency.DataChecker;
+import org.ib.data.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures ConsistencyManager.check() on a typical component setup, under several concurrent threads.
+ *
+ * @version 1, 10/18/26
+ */
+public class ConsistencyCheckBenchmark {
+    private static final Collection<Integer> THREADS = Arrays.asList(1, 4, 16);
+    private static final int MSG_WARMUP = 1000000;
+    private static final int MSG_ITERATIONS = 10000000;
+
+    private static final String INBOUND_GROUP = "__INBOUND_";
+    private static final String[] GROUPS = new String[]{INBOUND_GROUP, "heartbeat", "debug", "data"};
+    private static final GenericData[] DATA = new GenericData[]{
+            new StringData(1, "data", LanguageUtils.IDX_NONE),
+            new ComponentHeartbeat("machine1:1234", 1),
+            new DebugData(DebugData.DEBUG, "source", "message", null),
+            new SystemHeartbeat(1)
+    };
+
+    // the accepted checks of a run, reported with the results so the checks are not optimized away
+    private static final AtomicLong validChecks = new AtomicLong();
+
+    public static void main(String[] args) throws InterruptedException {
+        final ConsistencyManager manager = new ConsistencyManager();
+        manager.addChecker(INBOUND_GROUP, new DataChecker(SystemHeartbeat.class));
+        manager.addChecker(INBOUND_GROUP, new DataChecker(SystemEvent.class));
+        manager.addChecker(INBOUND_GROUP, new DataChecker(StringData.class));
+        manager.addChecker("heartbeat", new DataChecker(ComponentHeartbeat.class));
+        manager.addChecker("debug", new DataChecker(DebugData.class));
+        manager.addChecker("data", new DataChecker(StringData.class));
+        manager.freeze();
+
+        runChecks(manager, 1, MSG_WARMUP);
+        validChecks.set(0);
+
+        System.out.println("threads\tns/check\tchecks/s\tvalid");
+        for (int threads : THREADS) {
+            long elapsed = runChecks(manager, threads, MSG_ITERATIONS);
+            long checks = (long) threads * MSG_ITERATIONS;
+            System.out.printf("%d\t%.2f\t%.0f\t%d%n", threads, (double) elapsed * threads / checks,
+                    checks / (elapsed / 1000000000.0), validChecks.getAndSet(0));
+        }
+    }
+
+    private static long runChecks(final ConsistencyManager manager, int threads, final int iterations) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        //-- ignore
+                    }
+                    int valid = 0;
+                    for (int pass = 0; pass < iterations; pass++) {
+                        if (manager.check(GROUPS[pass & 3], DATA[(pass >> 2) & 3], true)) {
+                            valid++;
+                        }
+                    }
+                    validChecks.addAndGet(valid);
+                    done.countDown();
+                }
+            };
+            thread.start();
+        }
+
+        long timestamp = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - timestamp;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock;
+
+import org.ib.component.ComponentRunner;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Measures the platform startup of a generated model: pairs of ActLatencySource and ActLatencySink components,
+ * each sink subscribed to its source. The model size is the first argument (200 components by default),
+ * the second one is the number of startup threads (one per processor by default).
+ *
+ * @version 1, 10/18/26
+ */
+public class StartupBenchmark {
+    private static final int COMPONENT_COUNT = 200;
+    private static final int TOPIC_PORT = 1280;
+    private static final int CN_PORT = 1281;
+    private static final int SCHEDULER_PORT = 1282;
+    private static final int FIRST_COMPONENT_PORT = 1300;
+
+    public static void main(String[] args) throws IOException {
+        int componentCount = args.length > 0 ? Integer.parseInt(args[0]) : COMPONENT_COUNT;
+        String startupThreads = args.length > 1 ? args[1] : "0";
+
+        File modelFile = createModel(componentCount);
+
+        long timestamp = System.nanoTime();
+        ComponentRunner.main(new String[]{"-config", modelFile.getAbsolutePath(), "-profile", "startup", "-noExitOnWarnings",
+                "-startupThreads", startupThreads});
+        long elapsed = System.nanoTime() - timestamp;
+
+        System.out.printf("components=%d threads=%s startup=%.1f ms%n", componentCount, startupThreads, elapsed / 1000000.0);
+        System.exit(0);
+    }
+
+    /*
+     * Writes the model and its name service configuration in a new temporary directory.
+     */
+    public static File createModel(int componentCount) throws IOException {
+        File directory = File.createTempFile("startup", "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Unable to create the model directory: " + directory);
+        }
+        File modelFile = new File(directory, "startup.xml");
+        writeNameService(new File(directory, "cnsService.xml"));
+        writeModel(modelFile, componentCount);
+        return modelFile;
+    }
+
+    private static void writeNameService(File file) throws IOException {
+        PrintWriter writer = new PrintWriter(new FileWriter(file));
+        try {
+            writer.println("<dns>");
+            writer.println("    <machine>machine1@localhost</machine>");
+            writer.println("</dns>");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeModel(File file, int componentCount) throws IOException {
+        PrintWriter writer = new PrintWriter(new FileWriter(file));
+        try {
+            writer.println("<project>");
+            writer.println("    <profile name=\"startup\" hostname=\"machine1\">");
+            writer.println("        <scheduler>");
+            writer.println("            <port>" + SCHEDULER_PORT + "</port>");
+            writer.println("            <timeout>100</timeout>");
+            writer.println("        </scheduler>");
+            writer.println("        <services>");
+            writer.println("            <service name=\"org.ib.service.cns.CNService\">");
+            writer.println("                <port>" + CN_PORT + "</port>");
+            writer.println("                <config>cnsService.xml</config>");
+            writer.println("            </service>");
+            writer.println("            <service name=\"org.ib.service.topic.TopicService\">");
+            writer.println("                <port>" + TOPIC_PORT + "</port>");
+            writer.println("            </service>");
+            writer.println("        </services>");
+            writer.println("        <clients>");
+            writer.println("            <client name=\"org.ib.service.cns.CNClient\">");
+            writer.println("                <host>127.0.0.1</host>");
+            writer.println("                <port>" + CN_PORT + "</port>");
+            writer.println("            </client>");
+            writer.println("            <client name=\"org.ib.service.topic.TopicClient\">");
+            writer.println("                <host>machine1</host>");
+            writer.println("                <port>" + TOPIC_PORT + "</port>");
+            writer.println("            </client>");
+            writer.println("        </clients>");
+            writer.println("        <components>");
+            for (int i = 0; i + 1 < componentCount; i += 2) {
+                int sourcePort = FIRST_COMPONENT_PORT + i;
+                writer.println("            <component name=\"test.benchmark.myBlock.ActLatencySource\">");
+                writer.println("                <port>" + sourcePort + "</port>");
+                writer.println("                <scheduler>machine1:" + SCHEDULER_PORT + "</scheduler>");
+                writer.println("                <publish>StringData.data@data</publish>");
+                writer.println("            </component>");
+                writer.println("            <component name=\"test.benchmark.myBlock.ActLatencySink\">");
+                writer.println("                <port>" + (sourcePort + 1) + "</port>");
+                writer.println("                <scheduler>machine1:" + SCHEDULER_PORT + "</scheduler>");
+                writer.println("                <subscribe>StringData.data@machine1:" + sourcePort + "</subscribe>");
+                writer.println("            </component>");
+            }
+            writer.println("        </components>");
+            writer.println("    </profile>");
+            writer.println("</project>");
+        } finally {
+            writer.close();
+        }
+    }
+}
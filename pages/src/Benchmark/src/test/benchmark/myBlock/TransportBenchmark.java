@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock;
+
+import org.ib.communication.ContextRegistry;
+import org.ib.data.DataFactory;
+import org.ib.data.GenericData;
+import org.ib.data.LanguageUtils;
+import org.ib.data.StringData;
+import org.msgpack.MessagePack;
+import org.zeromq.ZMQ;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Compares the loopback tcp transport with the inproc transport, over the shared process context.
+ *
+ * @version 1, 10/18/26
+ */
+public class TransportBenchmark {
+    private static final Collection<Integer> MSG_SIZE = Arrays.asList(10, 100, 1000, 10000, 100000, 1000000);
+    private static final int MSG_WARMUP = 100;
+    private static final int MSG_ITERATIONS = 1000;
+    private static final int TCP_PORT = 1240;
+
+    private static final DataFactory factory = new DataFactory(new MessagePack());
+
+    public static void main(String[] args) throws Exception {
+        factory.registerType(StringData.class);
+
+        ZMQ.Context context = ContextRegistry.acquireContext();
+        try {
+            System.out.println("transport\tsize\tlatency(us)\tthroughput(msg/s)");
+            for (int msgSize : MSG_SIZE) {
+                runTransport(context, "tcp", "tcp://*:" + TCP_PORT, "tcp://127.0.0.1:" + TCP_PORT, msgSize);
+                runTransport(context, "inproc", "inproc://benchmark", "inproc://benchmark", msgSize);
+            }
+        } finally {
+            ContextRegistry.releaseContext();
+        }
+    }
+
+    private static void runTransport(ZMQ.Context context, String label, String bindPattern, String connectPattern, int msgSize)
+            throws IOException, InterruptedException {
+        ZMQ.Socket sender = context.socket(ZMQ.PUB);
+        ZMQ.Socket receiver = context.socket(ZMQ.SUB);
+        sender.setHWM(MSG_ITERATIONS * 2);
+        receiver.setHWM(MSG_ITERATIONS * 2);
+
+        sender.bind(bindPattern);
+        receiver.connect(connectPattern);
+        receiver.subscribe(new byte[0]);
+
+        //-- slow joiner
+        Thread.sleep(500);
+
+        String message = buildMessage(msgSize);
+        int iterations = msgSize >= 100000 ? MSG_ITERATIONS / 10 : MSG_ITERATIONS;
+
+        for (int pass = 0; pass < MSG_WARMUP; pass++) {
+            roundTrip(sender, receiver, message);
+        }
+
+        long latency = 0;
+        for (int pass = 0; pass < iterations; pass++) {
+            latency += roundTrip(sender, receiver, message);
+        }
+
+        long start = System.nanoTime();
+        for (int pass = 0; pass < iterations; pass++) {
+            sender.send(factory.writeObject(new StringData(pass, message, LanguageUtils.IDX_NONE)), 0);
+        }
+        for (int pass = 0; pass < iterations; pass++) {
+            factory.readObject(receiver.recv(0));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%s\t%d\t%.2f\t%.0f%n", label, msgSize,
+                latency / (iterations * 1000.0), iterations / (elapsed / 1000000000.0));
+
+        receiver.close();
+        sender.close();
+    }
+
+    private static long roundTrip(ZMQ.Socket sender, ZMQ.Socket receiver, String message) throws IOException {
+        long timestamp = System.nanoTime();
+        sender.send(factory.writeObject(new StringData(timestamp, message, LanguageUtils.IDX_NONE)), 0);
+        GenericData data = factory.readObject(receiver.recv(0));
+        return System.nanoTime() - data.getId();
+    }
+
+    private static String buildMessage(int size) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            sb.append("a");
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock;
+
+import org.ib.data.DataHelper;
+import org.ib.data.GenericData;
+
+import java.util.Set;
+
+/**
+ * Measures the data type discovery at startup: the build time type index against the full classpath scan.
+ * The first pass is the cold startup cost, so run each mode in a fresh JVM (args: index | scan).
+ *
+ * @version 1, 10/18/26
+ */
+public class TypeRegistrationBenchmark {
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) {
+        boolean scan = args.length > 0 && "scan".equals(args[0]);
+
+        long timestamp = System.nanoTime();
+        Set<Class<? extends GenericData>> types = discover(scan);
+        long cold = System.nanoTime() - timestamp;
+
+        timestamp = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            discover(scan);
+        }
+        long warm = (System.nanoTime() - timestamp) / ITERATIONS;
+
+        timestamp = System.nanoTime();
+        boolean registered = DataHelper.registerAllGenericDataClasses(scan);
+        long register = System.nanoTime() - timestamp;
+
+        System.out.println("mode\ttypes\tcold ms\twarm ms\tregister ms\tregistered");
+        System.out.printf("%s\t%d\t%.2f\t%.2f\t%.2f\t%b%n", scan ? "scan" : "index", types == null ? 0 : types.size(),
+                cold / 1000000.0, warm / 1000000.0, register / 1000000.0, registered);
+    }
+
+    private static Set<Class<? extends GenericData>> discover(boolean scan) {
+        return scan ? DataHelper.scanGenericDataClasses() : DataHelper.loadTypeIndex();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.service.cns.CNClient;
+import org.ib.service.cns.CNService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CNClient name resolution: the ip check, a cached name, and a name resolved by the service on each call.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CNClientBenchmark {
+    private static final String CN_PORT = "1265";
+    private static final String MACHINE = "benchmark-machine";
+
+    private CNService service;
+    private CNClient client;
+    private CNClient uncachedClient;
+
+    @Setup
+    public void setup() {
+        service = new CNService(CN_PORT);
+        service.setDaemon(true);
+        service.start();
+
+        client = new CNClient(MessagingServices.HOST, CN_PORT);
+        client.addComputerName(MACHINE, MessagingServices.HOST);
+        client.prefetch(Collections.singleton(MACHINE + ":1234"));
+
+        uncachedClient = new CNClient(MessagingServices.HOST, CN_PORT);
+        uncachedClient.setCacheTTL(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        uncachedClient.close();
+        service.close();
+    }
+
+    @Benchmark
+    public boolean isIPAddress() {
+        return CNClient.isIP(MessagingServices.HOST);
+    }
+
+    @Benchmark
+    public boolean isIPName() {
+        return CNClient.isIP(MACHINE);
+    }
+
+    @Benchmark
+    public String resolveAddress() {
+        return client.resolveHost(MessagingServices.HOST + ":1234");
+    }
+
+    @Benchmark
+    public String resolveCached() {
+        return client.resolveHost(MACHINE + ":1234");
+    }
+
+    @Benchmark
+    public String resolveUncached() {
+        return uncachedClient.resolveHost(MACHINE + ":1234");
+    }
+}
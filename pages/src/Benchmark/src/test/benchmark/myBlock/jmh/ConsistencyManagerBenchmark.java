@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.component.consistency.ConsistencyManager;
+import org.ib.component.consistency.DataChecker;
+import org.ib.data.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConsistencyManager.check() on a typical frozen component setup, for a matching and a rejected type.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsistencyManagerBenchmark {
+    private static final String INBOUND_GROUP = "__INBOUND_";
+
+    private final ConsistencyManager manager = new ConsistencyManager();
+    private final GenericData accepted = new StringData(1, "data", LanguageUtils.IDX_NONE);
+    private final GenericData rejected = new DebugData(DebugData.DEBUG, "source", "message");
+
+    @Setup
+    public void setup() {
+        manager.addChecker(INBOUND_GROUP, new DataChecker(SystemHeartbeat.class));
+        manager.addChecker(INBOUND_GROUP, new DataChecker(SystemEvent.class));
+        manager.addChecker(INBOUND_GROUP, new DataChecker(StringData.class));
+        manager.addChecker("heartbeat", new DataChecker(ComponentHeartbeat.class));
+        manager.addChecker("data", new DataChecker(StringData.class));
+        manager.freeze();
+    }
+
+    @Benchmark
+    public boolean checkAccepted() {
+        return manager.check(INBOUND_GROUP, accepted, true);
+    }
+
+    @Benchmark
+    public boolean checkRejected() {
+        return manager.check(INBOUND_GROUP, rejected, true);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.data.*;
+import org.msgpack.MessagePack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataFactory serialization of a StringData message, for several payload sizes.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataFactoryBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private DataFactory factory;
+    private GenericData data;
+    private byte[] buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        factory = new DataFactory(new MessagePack());
+        factory.registerType(StringData.class);
+
+        data = new StringData(1, MessagingServices.buildMessage(size), LanguageUtils.IDX_NONE);
+        buffer = factory.writeObject(data);
+    }
+
+    @Benchmark
+    public byte[] writeObject() throws IOException {
+        return factory.writeObject(data);
+    }
+
+    @Benchmark
+    public GenericData readObject() throws IOException {
+        return factory.readObject(buffer);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.data.DataHelper;
+import org.ib.data.GenericData;
+import org.ib.data.InvalidDataException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataHelper encoding and decoding, in both wire formats, for each data type registered by MyBlock.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataHelperBenchmark {
+    private static final String TOPIC = "benchmark.data";
+    private static final String HOST = MessagingServices.HOST + ":1262";
+
+    @Param({"StringData", "DebugData", "SystemEvent", "SystemHeartbeat", "ComponentHeartbeat"})
+    public String type;
+
+    private GenericData data;
+    private byte[] message;
+    private byte[] topic;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws InvalidDataException {
+        MessagingServices.start();
+
+        data = MessagingServices.createData(type, 100);
+        message = DataHelper.encodeData(TOPIC, HOST, data);
+        topic = DataHelper.encodeTopic(TOPIC, HOST);
+        payload = DataHelper.encodePayload(data);
+        // fills the topic client cache, the steady state of a running component
+        DataHelper.decodeData(message);
+    }
+
+    @Benchmark
+    public byte[] encodeData() throws InvalidDataException {
+        return DataHelper.encodeData(TOPIC, HOST, data);
+    }
+
+    @Benchmark
+    public DataHelper.DecodeResult decodeData() throws InvalidDataException {
+        return DataHelper.decodeData(message);
+    }
+
+    @Benchmark
+    public byte[] encodePayload() throws InvalidDataException {
+        return DataHelper.encodePayload(data);
+    }
+
+    @Benchmark
+    public DataHelper.DecodeResult decodeFrames() throws InvalidDataException {
+        return DataHelper.decodeData(topic, payload);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.communication.DispatchTable;
+import org.ib.component.base.ReactiveListener;
+import org.ib.data.GenericData;
+import org.ib.service.topic.EncodingKey;
+import org.ib.service.topic.TopicCache;
+import org.ib.service.topic.TopicClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbound dispatch cost per message: the listener lookup of a received frame, for a growing number of subscribed topics.
+ * The topic lookup resolves the encoding to topic@host, splits it and looks up the topic, as the InboundManager did
+ * before the dispatch table. The frames of the subscribed topics are received in turn.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchTableBenchmark {
+    private static final String HOST = "machine1:1234";
+
+    private static class CountingListener implements ReactiveListener {
+        private long count = 0;
+
+        public void react(GenericData data) {
+            count++;
+        }
+    }
+
+    @Param({"1", "10", "100"})
+    private int topics;
+
+    private final CountingListener listener = new CountingListener();
+    private final DispatchTable table = new DispatchTable();
+    private final TopicCache cache = new TopicCache();
+    private final Map<String, ReactiveListener> topicMapper = new HashMap<String, ReactiveListener>();
+    private byte[][] frames;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        frames = new byte[topics][];
+        for (int i = 0; i < topics; i++) {
+            String topic = "StringData.topic" + i;
+            // the keys assigned in sequence by the TopicService, starting with 1
+            byte[] encoding = new byte[TopicClient.ENCODING_SIZE];
+            for (int j = 0; j < encoding.length; j++) {
+                encoding[j] = (byte) ((i + 1) >> (8 * j));
+            }
+
+            table.add(encoding, topic, HOST, listener);
+            cache.cacheReply(0, topic + "@" + HOST, new EncodingKey(encoding));
+            topicMapper.put(topic, listener);
+
+            // a single frame message, with a small payload
+            frames[i] = new byte[encoding.length + 16];
+            System.arraycopy(encoding, 0, frames[i], 0, encoding.length);
+        }
+    }
+
+    private byte[] nextFrame() {
+        byte[] frame = frames[next];
+        next = next + 1 == frames.length ? 0 : next + 1;
+        return frame;
+    }
+
+    @Benchmark
+    public long dispatchTable() {
+        table.get(nextFrame()).getListener().react(null);
+        return listener.count;
+    }
+
+    @Benchmark
+    public long topicLookup() {
+        byte[] frame = nextFrame();
+        byte[] encoding = new byte[TopicClient.ENCODING_SIZE];
+        System.arraycopy(frame, 0, encoding, 0, encoding.length);
+        String topic = cache.getTopic(encoding).split("@")[0];
+        topicMapper.get(topic).react(null);
+        return listener.count;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.component.base.Publisher;
+import org.ib.data.DebugData;
+import org.ib.data.GenericData;
+import org.ib.logger.Logger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logger.log throughput. A subscribed source publishes its DEBUG messages, through the publisher thread,
+ * while the DEBUG messages of an unsubscribed source (minimum level INFORM) are dropped by the level gate.
+ * The synchronous case formats and publishes on the caller thread, as the Logger did before the publisher thread.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+    private static class StubPublisher implements Publisher {
+        public void addOutboundTypeChecker(String internalTopic, Class<? extends GenericData> type) {
+        }
+
+        public void publish(String externalTopic, String internalTopic) {
+        }
+
+        public void publishData(String internalTopic, GenericData data) {
+        }
+
+        public String getMachinePortPattern() {
+            return "localhost:0";
+        }
+    }
+
+    private StubPublisher subscribed;
+    private StubPublisher unsubscribed;
+    private int counter = 0;
+
+    @Setup
+    public void setup() {
+        subscribed = new StubPublisher();
+        unsubscribed = new StubPublisher();
+        Logger.setupDebug(subscribed);
+        Logger.setupDebug(unsubscribed);
+        Logger.setLevel(subscribed, Logger.DEBUG);
+        Logger.setLevel(unsubscribed, Logger.INFORM);
+    }
+
+    @Benchmark
+    public void debugUnsubscribed() {
+        Logger.log(unsubscribed, Logger.DEBUG, "message {} of {}", counter++, "benchmark");
+    }
+
+    @Benchmark
+    public void debugSubscribed() {
+        Logger.log(subscribed, Logger.DEBUG, "message {} of {}", counter++, "benchmark");
+    }
+
+    @Benchmark
+    public void debugSynchronous() {
+        String message = "message " + counter++ + " of " + "benchmark";
+        subscribed.publishData(Logger.generateTopic(subscribed), new DebugData(Logger.DEBUG, subscribed.getClass().getName(), message, null));
+    }
+}
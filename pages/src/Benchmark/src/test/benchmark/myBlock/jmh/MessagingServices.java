@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.data.*;
+import org.ib.service.cns.CNClient;
+import org.ib.service.generic.ClientManager;
+import org.ib.service.topic.TopicClient;
+import org.ib.service.topic.TopicService;
+
+/**
+ * Starts the topic service and registers the clients needed by the messaging path, on the loopback interface.
+ * The host names are plain ips, so the computer name service is never queried.
+ *
+ * @version 1, 10/18/26
+ */
+public class MessagingServices {
+    public static final String HOST = "127.0.0.1";
+    private static final String CN_PORT = "1260";
+    private static final String TOPIC_PORT = "1261";
+
+    private static TopicService topicService = null;
+
+    public static synchronized void start() {
+        if (topicService == null) {
+            DataHelper.registerAllGenericDataClasses();
+
+            topicService = new TopicService(TOPIC_PORT);
+            topicService.setDaemon(true);
+            topicService.start();
+
+            ClientManager.addClient(ClientManager.CN, new CNClient(HOST, CN_PORT));
+            ClientManager.addClient(ClientManager.TOPIC, new TopicClient(HOST, TOPIC_PORT));
+        }
+    }
+
+    public static GenericData createData(String type, int size) {
+        if ("StringData".equals(type)) {
+            return new StringData(1, buildMessage(size), LanguageUtils.IDX_NONE);
+        } else if ("DebugData".equals(type)) {
+            return new DebugData(DebugData.DEBUG, "source", buildMessage(size));
+        } else if ("SystemEvent".equals(type)) {
+            return new SystemEvent(1, SystemEvent.SYSTEM_WAKE, "source");
+        } else if ("SystemHeartbeat".equals(type)) {
+            return new SystemHeartbeat(1);
+        } else if ("ComponentHeartbeat".equals(type)) {
+            return new ComponentHeartbeat(HOST + ":1234", 1, 10);
+        } else {
+            throw new IllegalArgumentException("Unknown data type: " + type);
+        }
+    }
+
+    public static String buildMessage(int size) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            sb.append("a");
+        }
+
+        return sb.toString();
+    }
+}
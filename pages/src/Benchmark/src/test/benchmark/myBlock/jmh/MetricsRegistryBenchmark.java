@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.component.base.MetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per message cost of the component metrics: the received counter and the sampled handleData timer,
+ * as recorded by AbstractComponent.react(), with the metrics enabled and disabled.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsRegistryBenchmark {
+    private MetricsRegistry.Counter receivedCounter;
+    private MetricsRegistry.Timer handleDataTimer;
+    private MetricsRegistry.Counter disabledCounter = null;
+    private MetricsRegistry.Timer disabledTimer = null;
+    private long handled = 0;
+
+    @Setup
+    public void setup() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        receivedCounter = metrics.counter(MetricsRegistry.RECEIVED);
+        handleDataTimer = metrics.timer(MetricsRegistry.HANDLE_DATA, MetricsRegistry.HANDLE_DATA_SAMPLE_RATE);
+    }
+
+    private void handleData() {
+        handled++;
+    }
+
+    @Benchmark
+    public long baseline() {
+        handleData();
+        return handled;
+    }
+
+    @Benchmark
+    public long disabled() {
+        if (disabledCounter != null) {
+            disabledCounter.increment();
+        }
+        if (disabledTimer != null) {
+            long start = disabledTimer.start();
+            handleData();
+            disabledTimer.stop(start);
+        } else {
+            handleData();
+        }
+        return handled;
+    }
+
+    @Benchmark
+    public long counter() {
+        receivedCounter.increment();
+        handleData();
+        return handled;
+    }
+
+    @Benchmark
+    public long counterAndTimer() {
+        receivedCounter.increment();
+        long start = handleDataTimer.start();
+        handleData();
+        handleDataTimer.stop(start);
+        return handled;
+    }
+}
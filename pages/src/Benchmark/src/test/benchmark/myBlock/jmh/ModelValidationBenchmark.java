@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
+import org.ib.component.model.validation.*;
+import org.openjdk.jmh.annotations.*;
+import test.benchmark.myBlock.StartupBenchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model validation of the generated StartupBenchmark models, with all the validations used by ComponentRunner.
+ * The time per component should stay flat when the model grows.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelValidationBenchmark {
+    @Param({"50", "500", "5000"})
+    public int components;
+
+    private ComponentModel model;
+    private ModelValidationManager manager;
+    private ModelValidation[] validations;
+
+    @Setup
+    public void setup() throws IOException {
+        model = new ComponentModel(StartupBenchmark.createModel(components));
+        validations = new ModelValidation[]{new ComponentsValidation(), new HostnameValidation(), new LinkValidation(),
+                new DebugValidation(), new ComponentParametersValidation(), new ComponentDataTypeValidation()};
+
+        manager = new ModelValidationManager();
+        for (ModelValidation validation : validations) {
+            manager.addValidator(validation);
+        }
+    }
+
+    @Benchmark
+    public ModelSnapshot snapshot() {
+        return new ModelSnapshot(model);
+    }
+
+    @Benchmark
+    public ModelValidationResult concurrent() {
+        return manager.checkComponentModel(model, false);
+    }
+
+    @Benchmark
+    public int sequential() {
+        int messages = 0;
+        for (ModelValidation validation : validations) {
+            ModelValidationResult result = validation.checkModel(model);
+            messages += result.getErrorList().size() + result.getWarningList().size();
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.myBlock.jmh;
+
+import org.ib.communication.ContextRegistry;
+import org.ib.communication.InboundManager;
+import org.ib.communication.OutboundManager;
+import org.ib.component.base.Publisher;
+import org.ib.component.base.ReactiveListener;
+import org.ib.data.GenericData;
+import org.ib.data.LanguageUtils;
+import org.ib.data.StringData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full OutboundManager to InboundManager round trip, over the inproc and the loopback tcp transports.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+    private static final String TOPIC = "benchmark.roundTrip";
+
+    @Param({"inproc", "tcp"})
+    public String transport;
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private final BlockingQueue<GenericData> received = new LinkedBlockingQueue<GenericData>();
+
+    private OutboundManager outbound;
+    private InboundManager inbound;
+    private GenericData data;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        MessagingServices.start();
+
+        String port = "inproc".equals(transport) ? "1263" : "1264";
+        final String host = MessagingServices.HOST + ":" + port;
+        if ("inproc".equals(transport)) {
+            ContextRegistry.addLocalEndpoint(host);
+        }
+
+        Publisher publisher = new Publisher() {
+            public void addOutboundTypeChecker(String internalTopic, Class<? extends GenericData> type) {
+            }
+
+            public void publish(String externalTopic, String internalTopic) {
+            }
+
+            public void publishData(String topic, GenericData data) {
+                outbound.publishData(topic, data);
+            }
+
+            public String getMachinePortPattern() {
+                return host;
+            }
+        };
+
+        outbound = new OutboundManager(publisher, port);
+        inbound = new InboundManager(publisher);
+        inbound.setDaemon(true);
+        inbound.subscribe(TOPIC, new ReactiveListener() {
+            public void react(GenericData data) {
+                received.offer(data);
+            }
+        }, host);
+
+        data = new StringData(1, MessagingServices.buildMessage(size), LanguageUtils.IDX_NONE);
+
+        //-- slow joiner, publish until the subscription is active
+        do {
+            outbound.publishData(TOPIC, data);
+        } while (received.poll(100, TimeUnit.MILLISECONDS) == null);
+        Thread.sleep(200);
+        received.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        inbound.close();
+        outbound.close();
+    }
+
+    @Benchmark
+    public GenericData roundTrip() throws InterruptedException {
+        outbound.publishData(TOPIC, data);
+        return received.take();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.synnbad.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.syn.n.bad.dictionary.Dictionary;
+import org.syn.n.bad.dictionary.DictionaryException;
+import org.syn.n.bad.dictionary.POS;
+import org.syn.n.bad.dictionary.extensions.AbstractDictionaryExtension;
+import org.syn.n.bad.dictionary.extensions.JWNLDictionaryExtension;
+import org.syn.n.bad.dictionary.extensions.SnapshotBuilder;
+import org.syn.n.bad.dictionary.extensions.SnapshotDictionaryExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWNL extension against a SnapshotDictionaryExtension built for a few [word] patterns, without the Dictionary
+ * cache. The coldStart case opens the extension and resolves one word, once per forked JVM (the snapshot is built
+ * with JWNL in the same JVM, before); the lookup case resolves the words of an utterance, the forms of the patterns
+ * and the other words.
+ * <p/>
+ * The WordNet files are loaded from the dictionary_path of synMatcherProject.xml, relative to the working directory.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictionarySnapshotBenchmark {
+    private static final String[] WORDS = ("the dog goes wild in the park while my cat is sleeping near the door "
+            + "a big brown bear was seen eating fish by the river and people ran home quickly "
+            + "she feels good today because her friends are coming to watch a movie then they went away").split(" ");
+
+    private static final String[] PATTERNS = {"go", "run", "good", "see", "big|JJ*", "happy", "walk", "stop", "take", "make"};
+    private static final List<POS> ALL_POS = POS.getAllPOS();
+
+    @Param({"jwnl", "snapshot"})
+    private String backend;
+
+    private File configFile;
+
+    /*
+     * The extension of the lookup case, not opened for the coldStart one.
+     */
+    @State(Scope.Benchmark)
+    public static class OpenExtension {
+        private AbstractDictionaryExtension extension;
+        private int next = 0;
+
+        @Setup
+        public void setup(DictionarySnapshotBenchmark benchmark) throws DictionaryException {
+            extension = benchmark.open();
+        }
+
+        private String nextWord() {
+            String word = WORDS[next];
+            next = next + 1 == WORDS.length ? 0 : next + 1;
+            return word;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        File dictionaryConfig = new File(ClassLoader.getSystemClassLoader().getResource("dictionaryExtensions.xml").toURI());
+        if ("snapshot".equals(backend)) {
+            configFile = buildSnapshot(dictionaryConfig);
+        } else {
+            configFile = new File(dictionaryConfig.getParentFile(), "synMatcherProject.xml");
+        }
+    }
+
+    private static File buildSnapshot(File dictionaryConfig) throws IOException, DictionaryException {
+        Dictionary.setupDictionary(dictionaryConfig);
+        SnapshotBuilder builder = new SnapshotBuilder(Dictionary.getInstance(), Locale.ENGLISH);
+        for (String pattern : PATTERNS) {
+            builder.addPattern(pattern);
+        }
+        File result = File.createTempFile("dictionary", ".snapshot");
+        result.deleteOnExit();
+        builder.write(result);
+        return result;
+    }
+
+    private AbstractDictionaryExtension open() throws DictionaryException {
+        AbstractDictionaryExtension result;
+        if ("snapshot".equals(backend)) {
+            result = new SnapshotDictionaryExtension("jwnl", configFile);
+        } else {
+            result = new JWNLDictionaryExtension("jwnl", configFile);
+        }
+        result.open();
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(5)
+    public Set<String> coldStart() throws DictionaryException {
+        return open().getSynsetIDs(Locale.ENGLISH, "went", ALL_POS);
+    }
+
+    @Benchmark
+    public Set<String> lookup(OpenExtension state) throws DictionaryException {
+        return state.extension.getSynsetIDs(Locale.ENGLISH, state.nextWord(), ALL_POS);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.synnbad.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.pattern.MatchResult;
+import org.syn.n.bad.pattern.Matcher;
+import org.syn.n.bad.pattern.PatternMatcher;
+import org.syn.n.bad.pattern.TemplateMatchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matcher.match() of an utterance against a growing set of generated patterns: literal tokens, with some optional,
+ * repeated and consumer tokens. The sequential case tries every pattern at every position, as the Matcher did
+ * before the patterns were compiled. The backtracking case matches the same patterns with PatternEngine.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatcherBenchmark {
+    private static final String[] WORDS = ("i you we they he she it is are was be have do can will would should "
+            + "what where when why how who which the a an this that my your our some any no not very "
+            + "hello hi bye thanks please yes ok sorry want need like love hate know think see hear tell say "
+            + "go come play watch read eat drink sleep work help find give take make start stop open close "
+            + "music movie book game food water coffee tea weather today tomorrow night morning time name "
+            + "home room door light phone friend family story song news car city place day week year").split(" ");
+    private static final int UTTERANCES = 64;
+
+    @Param({"10", "1000", "10000"})
+    private int patterns;
+
+    private Matcher matcher;
+    private Matcher backtrackingMatcher;
+    private List<PatternMatcher> patternList;
+    private TextAnnotation[] utterances;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        matcher = new Matcher();
+        backtrackingMatcher = new Matcher(true);
+        patternList = new ArrayList<PatternMatcher>();
+        for (int i = 0; i < patterns; i++) {
+            PatternMatcher pattern = new PatternMatcher(String.valueOf(i), createPattern(random));
+            matcher.addMatcher(pattern);
+            backtrackingMatcher.addMatcher(pattern);
+            patternList.add(pattern);
+        }
+
+        utterances = new TextAnnotation[UTTERANCES];
+        for (int i = 0; i < utterances.length; i++) {
+            int length = 6 + random.nextInt(10);
+            utterances[i] = new TextAnnotation(length);
+            for (int j = 0; j < length; j++) {
+                utterances[i].addTextToken(new TextToken(WORDS[random.nextInt(WORDS.length)]));
+            }
+        }
+    }
+
+    private static String createPattern(Random random) {
+        StringBuilder result = new StringBuilder();
+        int length = 2 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                result.append(' ');
+            }
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                result.append("$var").append(i);
+            } else {
+                result.append(WORDS[random.nextInt(WORDS.length)]);
+                if (kind == 1 && i > 0) {
+                    result.append('?');
+                } else if (kind == 2 && i > 0) {
+                    result.append('*');
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    private TextAnnotation nextUtterance() {
+        TextAnnotation utterance = utterances[next];
+        next = next + 1 == utterances.length ? 0 : next + 1;
+        return utterance;
+    }
+
+    @Benchmark
+    public TemplateMatchResult compiled() {
+        return matcher.match(nextUtterance());
+    }
+
+    @Benchmark
+    public TemplateMatchResult backtracking() {
+        return backtrackingMatcher.match(nextUtterance());
+    }
+
+    @Benchmark
+    public TemplateMatchResult sequential() {
+        TextAnnotation tokens = nextUtterance();
+        TemplateMatchResult result = new TemplateMatchResult();
+        int i = -1;
+        int window = 1;
+        while (window > 0 && i < tokens.size()) {
+            i += window;
+            MatchResult res = matchSequential(tokens, i, tokens.size());
+            if (res.getTemplateID() != null) {
+                window = res.getMatchedTokens();
+                result.addTemplateId(res.getTemplateID());
+                result.updateVariables(res.getMatchedVars());
+            } else {
+                window = 1;
+            }
+        }
+        return result;
+    }
+
+    private MatchResult matchSequential(TextAnnotation tokens, int from, int to) {
+        MatchResult result = new MatchResult(null, -1, null, null);
+        int matchCount = 0;
+        for (PatternMatcher pattern : patternList) {
+            PatternMatcher.PatternMatch pm = pattern.match(tokens, from, to);
+            if ((pm.getMatchCount() > matchCount) || (pm.getMatchCount() == matchCount && pm.getMatchWindow() < result.getMatchedTokens())) {
+                result = new MatchResult(pattern.getId(), pm.getMatchWindow(), pattern.getMatchedVars(), null);
+                matchCount = pm.getMatchCount();
+            }
+        }
+        return result;
+    }
+}
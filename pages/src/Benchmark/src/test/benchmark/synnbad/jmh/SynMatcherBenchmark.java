@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package test.benchmark.synnbad.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.dictionary.Dictionary;
+import org.syn.n.bad.dictionary.DictionaryException;
+import org.syn.n.bad.pattern.token.SynMatcher;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SynMatcher.match() of the tokens of an utterance with a [word] pattern, against the dictionary extensions
+ * of the Synnbad dictionaryExtensions.xml. The match tests the token against the expanded forms of the pattern,
+ * the lookup case resolves the token synsets with the Dictionary, as the SynMatcher did before the expansion.
+ * The cold case clears the synset cache of the Dictionary before each invocation, the warm one keeps it.
+ * <p/>
+ * The WordNet files are loaded from the dictionary_path of synMatcherProject.xml, relative to the working directory.
+ *
+ * @version 1, 10/18/26
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SynMatcherBenchmark {
+    private static final String[] WORDS = ("the dog goes wild in the park while my cat is sleeping near the door "
+            + "a big brown bear was seen eating fish by the river and people ran home quickly "
+            + "she feels good today because her friends are coming to watch a movie then they went away").split(" ");
+
+    private static final String PATTERN = "go";
+
+    @Param({"cold", "warm"})
+    private String cache;
+
+    private Dictionary dictionary;
+    private SynMatcher matcher;
+    private Set<String> synsets;
+    private TextAnnotation tokens;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        Dictionary.setupDictionary(new File(ClassLoader.getSystemClassLoader().getResource("dictionaryExtensions.xml").toURI()));
+        dictionary = Dictionary.getInstance();
+        matcher = new SynMatcher(Locale.ENGLISH, PATTERN, true);
+        synsets = dictionary.getWord(Locale.ENGLISH, PATTERN).getSynsetIds();
+
+        tokens = new TextAnnotation(WORDS.length);
+        for (String word : WORDS) {
+            tokens.addTextToken(new TextToken(word));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        if ("cold".equals(cache)) {
+            dictionary.getCache().clear();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(dictionary.getCache());
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == tokens.size() ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public boolean match() {
+        return matcher.match(tokens, nextIndex());
+    }
+
+    @Benchmark
+    public boolean lookup() throws DictionaryException {
+        return dictionary.hasCommonSynset(Locale.ENGLISH, tokens.getToken(nextIndex()).getText(), synsets);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.data.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the META-INF/agentslang/types.idx index of all the TypeIdentification annotated classes of a module,
+ * one "typeID className" pair per line. The DataHelper loads these indexes instead of scanning the classpath.
+ *
+ * @version 1, 10/18/26
+ */
+@SupportedAnnotationTypes(TypeIndexProcessor.TYPE_IDENTIFICATION)
+public class TypeIndexProcessor extends AbstractProcessor {
+    public static final String TYPE_IDENTIFICATION = "org.ib.data.TypeIdentification";
+    public static final String TYPE_INDEX = "META-INF/agentslang/types.idx";
+
+    private final Map<String, String> types = new TreeMap<String, String>();
+
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement annotationType = elements.getTypeElement(TYPE_IDENTIFICATION);
+
+        if (annotationType != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotationType)) {
+                if (element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT)) {
+                    String typeID = getTypeID(element, annotationType);
+                    if (typeID != null) {
+                        types.put(elements.getBinaryName((TypeElement) element).toString(), typeID);
+                    }
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !types.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private String getTypeID(Element element, TypeElement annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotationType)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("typeID")) {
+                        return entry.getValue().getValue().toString();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", TYPE_INDEX);
+            PrintWriter writer = new PrintWriter(index.openWriter());
+            try {
+                for (Map.Entry<String, String> item : types.entrySet()) {
+                    writer.println(item.getValue() + " " + item.getKey());
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write the type index: " + e.getMessage());
+        }
+    }
+}
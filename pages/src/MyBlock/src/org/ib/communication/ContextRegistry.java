@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.zeromq.ZMQ;
+
+import java.util.*;
+
+/**
+ * Hands out a single ZMQ context per JVM and keeps track of the components that live in the same process,
+ * so that local links can be routed over inproc:// instead of the tcp loopback.
+ *
+ * @version 1, 10/18/26
+ */
+public class ContextRegistry {
+    private static final String INPROC_PROTOCOL = "inproc";
+
+    private static ZMQ.Context context = null;
+    private static int references = 0;
+
+    private static final Set<String> localEndpoints = new HashSet<String>();
+    private static final Set<String> boundEndpoints = new HashSet<String>();
+    private static final Map<String, List<InprocSubscriber>> pendingConnections = new HashMap<String, List<InprocSubscriber>>();
+
+    public static synchronized ZMQ.Context acquireContext() {
+        if (context == null) {
+            context = ZMQ.context(1);
+        }
+        references++;
+        return context;
+    }
+
+    public static synchronized void releaseContext() {
+        if (references > 0) {
+            references--;
+            if (references == 0) {
+                context.term();
+                context = null;
+            }
+        }
+    }
+
+    /*
+     * Declares a machine:port pattern as hosted in the current process.
+     */
+    public static synchronized void addLocalEndpoint(String machinePortPattern) {
+        localEndpoints.add(machinePortPattern);
+    }
+
+    public static synchronized boolean isLocalEndpoint(String machinePortPattern) {
+        return localEndpoints.contains(machinePortPattern);
+    }
+
+    public static String generateInprocPattern(String machinePortPattern) {
+        return String.format("%s://%s", INPROC_PROTOCOL, machinePortPattern);
+    }
+
+    public static boolean isInprocPattern(String connectionPattern) {
+        return connectionPattern.startsWith(INPROC_PROTOCOL + "://");
+    }
+
+    /*
+     * The ZMQ sockets are not thread safe: the subscriber that connected too early is notified when the endpoint
+     * is bound, and connects its socket from its own thread.
+     */
+    public interface InprocSubscriber {
+        /*
+         * Called on the thread binding the endpoint.
+         */
+        void endpointBound(String connectionPattern);
+    }
+
+    /*
+     * The inproc transport requires the bind to happen before any connect,
+     * so the subscribers that connected too early are notified here.
+     */
+    public static void bindInproc(ZMQ.Socket socket, String connectionPattern) {
+        List<InprocSubscriber> pending;
+        synchronized (ContextRegistry.class) {
+            socket.bind(connectionPattern);
+            boundEndpoints.add(connectionPattern);
+            pending = pendingConnections.remove(connectionPattern);
+        }
+
+        if (pending != null) {
+            for (InprocSubscriber item : pending) {
+                item.endpointBound(connectionPattern);
+            }
+        }
+    }
+
+    public static synchronized void unbindInproc(String connectionPattern) {
+        boundEndpoints.remove(connectionPattern);
+    }
+
+    /*
+     * Connects the socket if the endpoint is bound, otherwise the subscriber is notified once it is.
+     *
+     * @return true when the socket is connected
+     */
+    public static synchronized boolean connectInproc(ZMQ.Socket socket, String connectionPattern, InprocSubscriber subscriber) {
+        if (boundEndpoints.contains(connectionPattern)) {
+            socket.connect(connectionPattern);
+            return true;
+        } else {
+            List<InprocSubscriber> pending = pendingConnections.get(connectionPattern);
+            if (pending == null) {
+                pending = new LinkedList<InprocSubscriber>();
+                pendingConnections.put(connectionPattern, pending);
+            }
+            pending.add(subscriber);
+            return false;
+        }
+    }
+
+    public static synchronized void cancelPending(InprocSubscriber subscriber, String connectionPattern) {
+        List<InprocSubscriber> pending = pendingConnections.get(connectionPattern);
+        if (pending != null && pending.remove(subscriber) && pending.isEmpty()) {
+            pendingConnections.remove(connectionPattern);
+        }
+    }
+
+    public static synchronized void cancelPending(InprocSubscriber subscriber) {
+        Iterator<List<InprocSubscriber>> iterator = pendingConnections.values().iterator();
+        while (iterator.hasNext()) {
+            List<InprocSubscriber> pending = iterator.next();
+            pending.remove(subscriber);
+            if (pending.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.ib.component.base.Publisher;
+import org.ib.component.base.ReactiveListener;
+import org.ib.data.GenericData;
+import org.ib.logger.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches the received data on a fixed pool of worker lanes. Each topic is hashed to a single lane,
+ * so the data of a topic is handled in order, while a slow topic does not stall the others.
+ *
+ * @version 1, 10/18/26
+ */
+public class DispatchExecutor {
+    private static final long POLL_TIMEOUT = 100;
+
+    private static class DispatchTask {
+        private final String topic;
+        private final ReactiveListener listener;
+        private final GenericData data;
+        private final long timestamp;
+
+        private DispatchTask(String topic, ReactiveListener listener, GenericData data) {
+            this.topic = topic;
+            this.listener = listener;
+            this.data = data;
+            this.timestamp = System.nanoTime();
+        }
+    }
+
+    private class Lane extends Thread {
+        private final BlockingQueue<DispatchTask> queue;
+
+        private Lane(int index, int queueSize) {
+            queue = new ArrayBlockingQueue<DispatchTask>(queueSize);
+            setName(component.getMachinePortPattern() + " Dispatch " + index);
+            setDaemon(true);
+        }
+
+        public void run() {
+            while (running) {
+                try {
+                    DispatchTask task = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.timestamp);
+                        topicLag.put(task.topic, lag);
+                        if (lagWarning > 0 && lag > lagWarning) {
+                            Logger.log(component, Logger.INFORM, "(Inbound) Topic " + task.topic + " is lagging by " + lag + " ms");
+                        }
+
+                        task.listener.react(task.data);
+                    }
+                } catch (InterruptedException e) {
+                    //-- ignore
+                } catch (RuntimeException e) {
+                    Logger.log(component, Logger.INFORM, "Dispatch exception: " + e, e);
+                }
+            }
+        }
+    }
+
+    private final Lane[] lanes;
+    private final Map<String, Long> topicLag = new ConcurrentHashMap<String, Long>();
+    private final long lagWarning;
+    private final Publisher component;
+
+    private volatile boolean running = true;
+
+    public DispatchExecutor(Publisher component, int workers, int queueSize, long lagWarning) {
+        this.component = component;
+        this.lagWarning = lagWarning;
+
+        lanes = new Lane[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new Lane(i, queueSize);
+            lanes[i].start();
+        }
+    }
+
+    /*
+     * Blocks the receiver when the lane is full, the backlog stays bounded.
+     * Returns false when the executor is closed before the data is queued, the data is discarded.
+     */
+    public boolean dispatch(String topic, ReactiveListener listener, GenericData data) throws InterruptedException {
+        BlockingQueue<DispatchTask> queue = lanes[(topic.hashCode() & Integer.MAX_VALUE) % lanes.length].queue;
+        DispatchTask task = new DispatchTask(topic, listener, data);
+        while (running) {
+            if (queue.offer(task, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getQueueDepth() {
+        int result = 0;
+        for (Lane lane : lanes) {
+            result += lane.queue.size();
+        }
+        return result;
+    }
+
+    /*
+     * The time (in ms) the last handled message of the topic waited in its lane.
+     */
+    public long getTopicLag(String topic) {
+        Long lag = topicLag.get(topic);
+        return lag == null ? 0 : lag;
+    }
+
+    public Map<String, Long> getTopicLags() {
+        return Collections.unmodifiableMap(topicLag);
+    }
+
+    /*
+     * Stops the lanes, a receiver blocked on a full lane returns within the poll timeout.
+     */
+    public void close() {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.interrupt();
+        }
+    }
+}
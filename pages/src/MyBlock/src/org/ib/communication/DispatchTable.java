@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.ib.component.base.ReactiveListener;
+import org.ib.service.topic.EncodingKey;
+import org.ib.service.topic.TopicClient;
+
+/**
+ * The subscriptions of an inbound manager, indexed by the encoding key of their topic.
+ * The keys are assigned in sequence by the TopicService, so the table is an array indexed by the key value:
+ * a received frame is dispatched without decoding its topic. The table is copied on each change,
+ * the lookups are lock free.
+ *
+ * @version 1, 10/18/26
+ */
+public class DispatchTable {
+    private static final int INITIAL_SIZE = 16;
+
+    public static class Entry {
+        private final String topic;
+        private final String topicHost;
+        private final ReactiveListener listener;
+
+        private Entry(String topic, String topicHost, ReactiveListener listener) {
+            this.topic = topic;
+            this.topicHost = topicHost;
+            this.listener = listener;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        /*
+         * The topic and its publisher: topic@host.
+         */
+        public String getTopicHost() {
+            return topicHost;
+        }
+
+        public ReactiveListener getListener() {
+            return listener;
+        }
+    }
+
+    private volatile Entry[] entries = new Entry[INITIAL_SIZE];
+
+    /*
+     * A subscription to the same topic@host replaces the listener of the previous one.
+     */
+    public synchronized void add(byte[] encoding, String topic, String host, ReactiveListener listener) {
+        int index = EncodingKey.toIndex(encoding, TopicClient.ENCODING_SIZE);
+        Entry[] current = entries;
+        if (index >= current.length) {
+            current = copy(current, Math.max(current.length * 2, Integer.highestOneBit(index) << 1));
+        } else {
+            current = copy(current, current.length);
+        }
+        current[index] = new Entry(topic, topic + "@" + host, listener);
+        entries = current;
+    }
+
+    public synchronized void remove(byte[] encoding) {
+        int index = EncodingKey.toIndex(encoding, TopicClient.ENCODING_SIZE);
+        Entry[] current = entries;
+        if (index < current.length && current[index] != null) {
+            current = copy(current, current.length);
+            current[index] = null;
+            entries = current;
+        }
+    }
+
+    /*
+     * Looks up the topic of a frame starting with its encoding key.
+     */
+    public Entry get(byte[] frame) {
+        if (frame.length < TopicClient.ENCODING_SIZE) {
+            return null;
+        }
+        int index = EncodingKey.toIndex(frame, TopicClient.ENCODING_SIZE);
+        Entry[] current = entries;
+        return index < current.length ? current[index] : null;
+    }
+
+    private static Entry[] copy(Entry[] source, int size) {
+        Entry[] result = new Entry[size];
+        System.arraycopy(source, 0, result, 0, source.length);
+        return result;
+    }
+}
@@ -31,6 +31,7 @@ package org.ib.communication;
 import org.ib.component.base.Publisher;
 import org.ib.component.base.ReactiveListener;
 import org.ib.data.DataHelper;
+import org.ib.data.GenericData;
 import org.ib.data.InvalidDataException;
 import org.ib.logger.Logger;
 import org.ib.service.cns.CNClient;
@@ -38,8 +39,9 @@ import org.ib.service.generic.ClientManager;
 import org.ib.service.topic.TopicClient;
 import org.zeromq.ZMQ;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -53,47 +55,146 @@ public class InboundManager extends Thread {
 
         private TopicWrapper(ReactiveListener reactiveListener, String host) {
             this.reactiveListener = reactiveListener;
-            CNClient cnClient = ClientManager.getClient(ClientManager.CN);
-            this.connectionPattern = String.format("%s://%s", protocol, cnClient.resolveHost(host));
+            if (ContextRegistry.isLocalEndpoint(host)) {
+                this.connectionPattern = ContextRegistry.generateInprocPattern(host);
+            } else {
+                CNClient cnClient = ClientManager.getClient(ClientManager.CN);
+                this.connectionPattern = String.format("%s://%s", protocol, cnClient.resolveHost(host));
+            }
         }
     }
 
-    private Map<String, TopicWrapper> topicMapper = new HashMap<String, TopicWrapper>();
-    private boolean running = true;
+    // by topic@host, the same topic may be subscribed from several hosts
+    private final Map<String, TopicWrapper> topicMapper = new ConcurrentHashMap<String, TopicWrapper>();
+    private final DispatchTable dispatchTable = new DispatchTable();
+    private volatile boolean running = true;
 
     private static final String protocol = "tcp";
 
-    private Map<String, Integer> connectedHosts = new HashMap<String, Integer>();
+    private final Map<String, Integer> connectedHosts = new ConcurrentHashMap<String, Integer>();
+
+    // the socket is only used by the receiver thread, the other threads queue their socket operations
+    private static final int COMMAND_POLL_TIMEOUT = 50;
+    private final Queue<Runnable> socketCommands = new ConcurrentLinkedQueue<Runnable>();
+    // receiver thread only: the inproc endpoints connected once their publisher binds
+    private final Set<String> pendingInproc = new HashSet<String>();
+    private final ContextRegistry.InprocSubscriber inprocSubscriber = new ContextRegistry.InprocSubscriber() {
+        public void endpointBound(final String connectionPattern) {
+            socketCommands.add(new Runnable() {
+                public void run() {
+                    // not disconnected in the meantime
+                    if (pendingInproc.remove(connectionPattern)) {
+                        receiver.connect(connectionPattern);
+                    }
+                }
+            });
+        }
+    };
 
     private ZMQ.Context context;
     private ZMQ.Socket receiver;
 
     private Publisher component;
+    private DispatchExecutor dispatcher = null;
+    private volatile LatencyRecorder latencyRecorder = null;
 
     public InboundManager(Publisher component) {
         this.component = component;
 
-        context = ZMQ.context(1);
+        context = ContextRegistry.acquireContext();
         receiver = context.socket(ZMQ.SUB);
+        receiver.setReceiveTimeOut(COMMAND_POLL_TIMEOUT);
 
         setName(component.getMachinePortPattern() + " Thread");
     }
 
+    /*
+     * With no dispatch workers, the data is handled directly on the receiver thread.
+     */
+    public InboundManager(Publisher component, int dispatchWorkers, int dispatchQueueSize, long dispatchLagWarning) {
+        this(component);
+
+        if (dispatchWorkers > 0) {
+            dispatcher = new DispatchExecutor(component, dispatchWorkers, dispatchQueueSize, dispatchLagWarning);
+        }
+    }
+
     public void close() {
         running = false;
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    /*
+     * Records the latency of the messages carrying a trace header, sent by the publishers with tracing enabled.
+     */
+    public synchronized LatencyRecorder enableLatencyRecording() {
+        if (latencyRecorder == null) {
+            latencyRecorder = new LatencyRecorder();
+        }
+        return latencyRecorder;
+    }
+
+    public LatencyRecorder getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    public int getQueueDepth() {
+        return dispatcher == null ? 0 : dispatcher.getQueueDepth();
+    }
+
+    public long getTopicLag(String topic) {
+        return dispatcher == null ? 0 : dispatcher.getTopicLag(topic);
+    }
+
+    public Map<String, Long> getTopicLags() {
+        if (dispatcher == null) {
+            return Collections.emptyMap();
+        } else {
+            return dispatcher.getTopicLags();
+        }
     }
 
     public void run() {
         while (running) {
             try {
-                DataHelper.DecodeResult data = DataHelper.decodeData(receiver.recv());
-
-                String topic = data.getTopic().split("@")[0];
+                runSocketCommands();
+                byte[] frame = receiver.recv();
+                if (frame == null) {
+                    // receive timeout
+                    continue;
+                }
+                byte[] payload = null;
+                TraceHeader trace = null;
+                long receiveTime = 0;
+                if (receiver.hasReceiveMore()) {
+                    // multi frame format: topic key, payload, then the optional trace header
+                    payload = receiver.recv();
+                    if (receiver.hasReceiveMore()) {
+                        receiveTime = TraceHeader.now();
+                        trace = TraceHeader.decode(receiver.recv());
+                    }
+                    while (receiver.hasReceiveMore()) {
+                        receiver.recv();
+                    }
+                }
 
-                TopicWrapper topicWrapper = topicMapper.get(topic);
+                DispatchTable.Entry entry = dispatchTable.get(frame);
 
-                if (topicWrapper != null) {
-                    topicWrapper.reactiveListener.react(data.getData());
+                if (entry != null) {
+                    GenericData data = payload == null
+                            ? DataHelper.decodePayload(frame, TopicClient.ENCODING_SIZE)
+                            : DataHelper.decodePayload(payload);
+                    LatencyRecorder recorder = latencyRecorder;
+                    if (trace != null && recorder != null) {
+                        recorder.record(entry.getTopicHost(), trace, receiveTime);
+                    }
+                    if (dispatcher != null) {
+                        dispatcher.dispatch(entry.getTopic(), entry.getListener(), data);
+                    } else {
+                        entry.getListener().react(data);
+                    }
                 } else {
                     Logger.log(component, Logger.INFORM, "(Inbound) Received data for an invalid feed ...");
                 }
@@ -101,49 +202,109 @@ public class InboundManager extends Thread {
                 Logger.log(component, Logger.INFORM, "Invalid data exception: " + e, e);
             } catch (ClassCastException e) {
                 Logger.log(component, Logger.INFORM, "Class cast exception: " + e, e);
+            } catch (InterruptedException e) {
+                //-- ignore
             }
         }
         //shutdown 
+        ContextRegistry.cancelPending(inprocSubscriber);
         receiver.close();
-        context.term();
+        ContextRegistry.releaseContext();
     }
 
-    public void subscribe(String topic, ReactiveListener listener, String host) {
-        TopicWrapper topicWrapper = new TopicWrapper(listener, host);
+    public synchronized void subscribe(String topic, ReactiveListener listener, String host) {
+        String topicHost = topic + "@" + host;
+        TopicWrapper previous = topicMapper.get(topicHost);
+        if (previous != null) {
+            // already connected, only the listener is replaced
+            previous.reactiveListener = listener;
+            TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
+            dispatchTable.add(tc.getEncoding(topic, host), topic, host, listener);
+            return;
+        }
+
+        final TopicWrapper topicWrapper = new TopicWrapper(listener, host);
 
-        if (!connectedHosts.containsKey(topicWrapper.connectionPattern)) {
-            receiver.connect(topicWrapper.connectionPattern);
+        final boolean newConnection = !connectedHosts.containsKey(topicWrapper.connectionPattern);
+        if (newConnection) {
             connectedHosts.put(topicWrapper.connectionPattern, 1);
         } else {
             Integer count = connectedHosts.get(topicWrapper.connectionPattern);
             connectedHosts.put(topicWrapper.connectionPattern, count + 1);
         }
         TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
-        receiver.subscribe(tc.getEncoding(topic, host));
+        final byte[] encoding = tc.getEncoding(topic, host);
+        socketCommands.add(new Runnable() {
+            public void run() {
+                if (newConnection) {
+                    connect(topicWrapper.connectionPattern);
+                }
+                receiver.subscribe(encoding);
+            }
+        });
 
-        topicMapper.put(topic, topicWrapper);
+        topicMapper.put(topicHost, topicWrapper);
+        dispatchTable.add(encoding, topic, host, listener);
 
         if (!isAlive()) {
             start();
         }
     }
 
-    public void unsubscribe(String topic, String host) {
-        TopicWrapper topicWrapper = topicMapper.get(topic);
+    public synchronized void unsubscribe(String topic, String host) {
+        String topicHost = topic + "@" + host;
+        final TopicWrapper topicWrapper = topicMapper.get(topicHost);
 
         if (topicWrapper != null) {
             TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
-            receiver.unsubscribe(tc.getEncoding(topic, host));
+            final byte[] encoding = tc.getEncoding(topic, host);
+            dispatchTable.remove(encoding);
 
             Integer count = connectedHosts.get(topicWrapper.connectionPattern);
-            if (count != null && count > 1) {
-                connectedHosts.put(topicWrapper.connectionPattern, count - 1);
-            } else {
+            final boolean lastConnection = count == null || count <= 1;
+            if (lastConnection) {
                 connectedHosts.remove(topicWrapper.connectionPattern);
-                receiver.disconnect(topicWrapper.connectionPattern);
+            } else {
+                connectedHosts.put(topicWrapper.connectionPattern, count - 1);
+            }
+            socketCommands.add(new Runnable() {
+                public void run() {
+                    receiver.unsubscribe(encoding);
+                    if (lastConnection) {
+                        disconnect(topicWrapper.connectionPattern);
+                    }
+                }
+            });
+
+            topicMapper.remove(topicHost);
+        }
+    }
+
+    private void runSocketCommands() {
+        Runnable command;
+        while ((command = socketCommands.poll()) != null) {
+            command.run();
+        }
+    }
+
+    /*
+     * Receiver thread only, as disconnect().
+     */
+    private void connect(String connectionPattern) {
+        if (ContextRegistry.isInprocPattern(connectionPattern)) {
+            if (!ContextRegistry.connectInproc(receiver, connectionPattern, inprocSubscriber)) {
+                pendingInproc.add(connectionPattern);
             }
+        } else {
+            receiver.connect(connectionPattern);
+        }
+    }
 
-            topicMapper.remove(topic);
+    private void disconnect(String connectionPattern) {
+        if (pendingInproc.remove(connectionPattern)) {
+            ContextRegistry.cancelPending(inprocSubscriber, connectionPattern);
+        } else {
+            receiver.disconnect(connectionPattern);
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.ib.data.LatencyMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the end to end latency of the traced messages, into one HdrHistogram per link (topic@host).
+ * The recording is done on the receiver thread, the snapshots are taken by the metrics publisher.
+ *
+ * @version 1, 10/18/26
+ */
+public class LatencyRecorder {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static class LinkRecorder {
+        private final String origin;
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private Histogram interval = null;
+
+        private LinkRecorder(String origin) {
+            this.origin = origin;
+        }
+    }
+
+    private final Map<String, LinkRecorder> links = new ConcurrentHashMap<String, LinkRecorder>();
+
+    public void record(String link, TraceHeader header, long receiveTime) {
+        LinkRecorder linkRecorder = links.get(link);
+        if (linkRecorder == null) {
+            linkRecorder = new LinkRecorder(header.getOrigin());
+            links.put(link, linkRecorder);
+        }
+        // the clocks of different hosts may be skewed, a negative delta is counted as 0
+        long delta = TimeUnit.NANOSECONDS.toMicros(receiveTime - header.getSendTime());
+        linkRecorder.recorder.recordValue(delta < 0 ? 0 : delta);
+    }
+
+    /*
+     * Returns the metrics of all the links with traffic since the previous call.
+     */
+    public List<LatencyMetrics> drainMetrics(String sourceID, long timestamp) {
+        List<LatencyMetrics> result = new ArrayList<LatencyMetrics>();
+        for (Map.Entry<String, LinkRecorder> entry : links.entrySet()) {
+            LinkRecorder linkRecorder = entry.getValue();
+            synchronized (linkRecorder) {
+                linkRecorder.interval = linkRecorder.recorder.getIntervalHistogram(linkRecorder.interval);
+                Histogram histogram = linkRecorder.interval;
+                if (histogram.getTotalCount() > 0) {
+                    result.add(new LatencyMetrics(timestamp, sourceID, entry.getKey(), linkRecorder.origin,
+                            histogram.getTotalCount(),
+                            histogram.getValueAtPercentile(50),
+                            histogram.getValueAtPercentile(99),
+                            histogram.getValueAtPercentile(99.9),
+                            histogram.getMaxValue()));
+                }
+            }
+        }
+        return result;
+    }
+}
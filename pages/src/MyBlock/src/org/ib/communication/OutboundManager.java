@@ -36,6 +36,9 @@ import org.ib.data.SystemEvent;
 import org.ib.logger.Logger;
 import org.zeromq.ZMQ;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 11/20/12
@@ -44,39 +47,156 @@ public class OutboundManager {
     private static final String protocol = "tcp";
     private String port = null;
     private String connectPattern = null;
+    private String inprocPattern = null;
 
     private ZMQ.Context context;
     private ZMQ.Socket sender;
+    // guarded by sender, the socket is closed while a dispatch worker may still publish
+    private boolean closed = false;
 
     private Publisher component;
+    private volatile boolean traceEnabled = false;
+    private volatile OutboundQueue queue = null;
 
     public OutboundManager(Publisher component, String port) {
         this.component = component;
 
-        context = ZMQ.context(1);
+        context = ContextRegistry.acquireContext();
         sender = context.socket(ZMQ.PUB);
 
         setPort(port);
     }
 
+    /*
+     * The data is sent on the caller thread, unless the outbound queue is enabled.
+     */
     public void publishData(String topic, GenericData data) {
+        publishData(topic, data, false);
+    }
+
+    /*
+     * The system data (heartbeats, events, logs) bypasses the queue, so it is never dropped by the overflow policy.
+     */
+    public void publishData(String topic, GenericData data, boolean bypassQueue) {
+        OutboundQueue currentQueue = queue;
+        if (currentQueue != null && !bypassQueue) {
+            currentQueue.publishData(topic, data);
+        } else {
+            send(topic, data);
+        }
+    }
+
+    private boolean send(String topic, GenericData data) {
         try {
-            if (!sender.send(DataHelper.encodeData(topic, component.getMachinePortPattern(), data))) {
+            boolean sent;
+            if (DataHelper.isSingleFrameFormat()) {
+                byte[] message = DataHelper.encodeData(topic, component.getMachinePortPattern(), data);
+                synchronized (sender) {
+                    sent = !closed && sender.send(message);
+                }
+            } else {
+                byte[] payload = DataHelper.encodePayload(data);
+                byte[] encoding = DataHelper.encodeTopic(topic, component.getMachinePortPattern());
+                // the sockets are not thread safe, the dispatch workers may publish concurrently
+                synchronized (sender) {
+                    if (closed) {
+                        sent = false;
+                    } else if (traceEnabled) {
+                        sent = sender.sendMore(encoding) && sender.sendMore(payload)
+                                && sender.send(TraceHeader.encode(component.getMachinePortPattern()));
+                    } else {
+                        sent = sender.sendMore(encoding) && sender.send(payload);
+                    }
+                }
+            }
+            if (!sent) {
                 System.err.println("Failed to send message: " + data.toString());
             }
+            return sent;
         } catch (InvalidDataException e) {
             Logger.log(component, Logger.CRITICAL, "Invalid data: " + e);
+            return false;
+        } catch (IllegalStateException e) {
+            // the topic encoding could not be resolved, not logged through the component to avoid a loop
+            System.err.println("Failed to send message: " + data.toString() + ", " + e.getMessage());
+            return false;
+        }
+    }
+
+    /*
+     * Queues the outbound data, sent afterwards by a dedicated thread. A full queue is handled by the overflow policy.
+     */
+    public synchronized OutboundQueue enableQueue(int capacity, OutboundQueue.OverflowPolicy policy, int sampleRate) {
+        if (queue == null) {
+            queue = new OutboundQueue(component.getMachinePortPattern(), capacity, policy, sampleRate, new OutboundQueue.Sender() {
+                public boolean send(String topic, GenericData data) {
+                    return OutboundManager.this.send(topic, data);
+                }
+            });
+        }
+        return queue;
+    }
+
+    public OutboundQueue getQueue() {
+        return queue;
+    }
+
+    public int getQueueDepth() {
+        OutboundQueue currentQueue = queue;
+        return currentQueue == null ? 0 : currentQueue.getQueueDepth();
+    }
+
+    public Map<String, Long> getQueuedCounts() {
+        OutboundQueue currentQueue = queue;
+        if (currentQueue == null) {
+            return Collections.emptyMap();
+        } else {
+            return currentQueue.getQueuedCounts();
+        }
+    }
+
+    public Map<String, Long> getDroppedCounts() {
+        OutboundQueue currentQueue = queue;
+        if (currentQueue == null) {
+            return Collections.emptyMap();
+        } else {
+            return currentQueue.getDroppedCounts();
         }
     }
 
     public void open() {
         connectPattern = String.format("%s://*:%s", protocol, port);
         sender.bind(connectPattern);
+
+        if (inprocPattern == null && ContextRegistry.isLocalEndpoint(component.getMachinePortPattern())) {
+            inprocPattern = ContextRegistry.generateInprocPattern(component.getMachinePortPattern());
+            ContextRegistry.bindInproc(sender, inprocPattern);
+        }
     }
 
     public void close() {
-        sender.close();
-        context.term();
+        if (queue != null) {
+            queue.close();
+        }
+        if (inprocPattern != null) {
+            ContextRegistry.unbindInproc(inprocPattern);
+        }
+        synchronized (sender) {
+            closed = true;
+            sender.close();
+        }
+        ContextRegistry.releaseContext();
+    }
+
+    /*
+     * Stamps each message with a trace header (send time and origin), only in the multi frame format.
+     */
+    public void setTraceEnabled(boolean traceEnabled) {
+        this.traceEnabled = traceEnabled;
+    }
+
+    public boolean isTraceEnabled() {
+        return traceEnabled;
     }
 
     public String getPort() {
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.ib.data.GenericData;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of the outbound data, sent by a dedicated thread. When the queue is full,
+ * the overflow policy decides which message is discarded. The queued and dropped messages are counted per topic.
+ *
+ * @version 1, 10/18/26
+ */
+public class OutboundQueue {
+    private static final long POLL_TIMEOUT = 100;
+    private static final long CLOSE_TIMEOUT = 1000;
+
+    public enum OverflowPolicy {
+        // the producer waits for a free slot
+        BLOCK,
+        // the oldest queued message is discarded
+        DROP_OLDEST,
+        // the new message is discarded
+        DROP_NEWEST,
+        // one of every sampleRate overflowing messages of a topic replaces the oldest one, the others are discarded
+        SAMPLE;
+
+        /*
+         * Accepts both the constant names and their camel case form (dropOldest).
+         */
+        public static OverflowPolicy parse(String policy) {
+            return valueOf(policy.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase());
+        }
+    }
+
+    public interface Sender {
+        /*
+         * Returns false when the data could not be sent.
+         */
+        boolean send(String topic, GenericData data);
+    }
+
+    private static class OutboundEntry {
+        private final String topic;
+        private final TopicCounters counters;
+        private final GenericData data;
+
+        private OutboundEntry(String topic, TopicCounters counters, GenericData data) {
+            this.topic = topic;
+            this.counters = counters;
+            this.data = data;
+        }
+    }
+
+    private static class TopicCounters {
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong overflow = new AtomicLong();
+    }
+
+    private final BlockingQueue<OutboundEntry> queue;
+    private final OverflowPolicy policy;
+    private final int sampleRate;
+    private final Sender sender;
+    private final ConcurrentMap<String, TopicCounters> counters = new ConcurrentHashMap<String, TopicCounters>();
+    private final Thread senderThread;
+
+    private volatile boolean running = true;
+    // set when the close timeout expires, the queued data is no longer sent
+    private volatile boolean stopped = false;
+
+    public OutboundQueue(String name, int capacity, OverflowPolicy policy, int sampleRate, Sender sender) {
+        this.queue = new ArrayBlockingQueue<OutboundEntry>(capacity);
+        this.policy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sender = sender;
+
+        senderThread = new Thread(name + " Sender") {
+            public void run() {
+                sendQueued();
+            }
+        };
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    public void publishData(String topic, GenericData data) {
+        TopicCounters topicCounters = getCounters(topic);
+        if (!running) {
+            topicCounters.dropped.incrementAndGet();
+            return;
+        }
+        OutboundEntry entry = new OutboundEntry(topic, topicCounters, data);
+
+        topicCounters.queued.incrementAndGet();
+        if (!queue.offer(entry) && !handleOverflow(entry)) {
+            topicCounters.queued.decrementAndGet();
+            topicCounters.dropped.incrementAndGet();
+        }
+    }
+
+    private boolean handleOverflow(OutboundEntry entry) {
+        switch (policy) {
+            case BLOCK:
+                try {
+                    while (!queue.offer(entry, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                        if (!running) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case DROP_NEWEST:
+                return false;
+            case SAMPLE:
+                if (entry.counters.overflow.incrementAndGet() % sampleRate != 0) {
+                    return false;
+                }
+                return replaceOldest(entry);
+            case DROP_OLDEST:
+            default:
+                return replaceOldest(entry);
+        }
+    }
+
+    private boolean replaceOldest(OutboundEntry entry) {
+        do {
+            OutboundEntry oldest = queue.poll();
+            if (oldest != null) {
+                oldest.counters.queued.decrementAndGet();
+                oldest.counters.dropped.incrementAndGet();
+            }
+        } while (!queue.offer(entry));
+        return true;
+    }
+
+    private void sendQueued() {
+        // once closed, the remaining data is still sent
+        while ((running || !queue.isEmpty()) && !stopped) {
+            try {
+                OutboundEntry entry = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    entry.counters.queued.decrementAndGet();
+                    if (!sender.send(entry.topic, entry.data)) {
+                        entry.counters.dropped.incrementAndGet();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private TopicCounters getCounters(String topic) {
+        TopicCounters result = counters.get(topic);
+        if (result == null) {
+            result = new TopicCounters();
+            TopicCounters previous = counters.putIfAbsent(topic, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+        return result;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /*
+     * The number of messages of each topic waiting to be sent.
+     */
+    public Map<String, Long> getQueuedCounts() {
+        Map<String, Long> result = new HashMap<String, Long>();
+        for (Map.Entry<String, TopicCounters> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().queued.get());
+        }
+        return result;
+    }
+
+    /*
+     * The number of messages of each topic discarded by the overflow policy or not accepted by the socket.
+     */
+    public Map<String, Long> getDroppedCounts() {
+        Map<String, Long> result = new HashMap<String, Long>();
+        for (Map.Entry<String, TopicCounters> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().dropped.get());
+        }
+        return result;
+    }
+
+    /*
+     * Stops accepting data, and waits (for a limited time) for the queued data to be sent.
+     * The sender thread is stopped when this method returns, the data still queued is discarded.
+     */
+    public void close() {
+        running = false;
+        boolean interrupted = false;
+        try {
+            senderThread.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        stopped = true;
+        while (senderThread.isAlive()) {
+            senderThread.interrupt();
+            try {
+                senderThread.join(POLL_TIMEOUT);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * The optional trace frame sent after the payload: the send time (8 bytes) followed by the origin component ID.
+ * Receivers that do not trace simply skip the extra frame.
+ *
+ * The clock is System.nanoTime() anchored once on the wall clock, so it is monotonic inside a process and
+ * comparable between processes of the same host. Across hosts, the deltas are only as good as the clock sync.
+ *
+ * @version 1, 10/18/26
+ */
+public class TraceHeader {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final long CLOCK_OFFSET = System.currentTimeMillis() * 1000000L - System.nanoTime();
+
+    private final long sendTime;
+    private final String origin;
+
+    private TraceHeader(long sendTime, String origin) {
+        this.sendTime = sendTime;
+        this.origin = origin;
+    }
+
+    public static long now() {
+        return System.nanoTime() + CLOCK_OFFSET;
+    }
+
+    public static byte[] encode(String origin) {
+        byte[] originBytes = origin.getBytes(UTF8);
+        return ByteBuffer.allocate(8 + originBytes.length).putLong(now()).put(originBytes).array();
+    }
+
+    public static TraceHeader decode(byte[] frame) {
+        if (frame == null || frame.length < 8) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        return new TraceHeader(buffer.getLong(), new String(frame, 8, frame.length - 8, UTF8));
+    }
+
+    public long getSendTime() {
+        return sendTime;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+}
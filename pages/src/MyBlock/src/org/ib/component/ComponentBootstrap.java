@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component;
+
+import org.ib.component.base.AbstractComponent;
+import org.ib.component.model.ComponentConfig;
+import org.ib.component.model.ComponentInfo;
+import org.ib.component.model.ComponentModel;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the components of a profile on a bounded thread pool. Each component waits for the local components it
+ * subscribes to, the independent ones are started in parallel. The links of a subscription cycle are ignored.
+ *
+ * @version 1, 10/18/26
+ */
+class ComponentBootstrap {
+    private class Node implements Runnable {
+        private final ComponentInfo info;
+        private final Set<Node> dependencies = new HashSet<Node>();
+        private final List<Node> dependents = new LinkedList<Node>();
+        private int pending;
+
+        private AbstractComponent component;
+        private Throwable error;
+        private long duration;
+        private String threadName;
+
+        private Node(ComponentInfo info) {
+            this.info = info;
+        }
+
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                component = ComponentRunner.setupComponent(info.getProperties());
+            } catch (Throwable e) {
+                error = e;
+            }
+            duration = System.nanoTime() - start;
+            threadName = Thread.currentThread().getName();
+            finished(this);
+        }
+
+        private String getHostPort() {
+            return info.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME) + ":" +
+                    info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<Node>();
+    private final int threads;
+    private ExecutorService executor;
+    private int completed = 0;
+    private long wallTime;
+
+    ComponentBootstrap(ComponentModel model, Set<String> profileNames, int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        Map<String, Node> nodeMap = new HashMap<String, Node>();
+        for (String id : model.getAllIds(ComponentModel.ComponentType.COMPONENT)) {
+            ComponentInfo info = model.getComponent(ComponentModel.ComponentType.COMPONENT, id);
+            if (profileNames.contains(info.getProperties().getProperty(ComponentConfig.PROPERTY_PROFILE))) {
+                Node node = new Node(info);
+                nodes.add(node);
+                nodeMap.put(id, node);
+            }
+        }
+
+        for (Node node : nodes) {
+            for (String subscription : node.info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
+                String[] topicHost = subscription.split("@");
+                if (topicHost.length > 1) {
+                    Node publisher = nodeMap.get(model.convertHostPortToUUID(topicHost[1]));
+                    if (publisher != null && publisher != node) {
+                        node.dependencies.add(publisher);
+                    }
+                }
+            }
+        }
+
+        breakCycles();
+        for (Node node : nodes) {
+            node.pending = node.dependencies.size();
+            for (Node dependency : node.dependencies) {
+                dependency.dependents.add(node);
+            }
+        }
+    }
+
+    /*
+     * Kahn's algorithm, the nodes left unsorted are part of a cycle or depend on one.
+     * They keep only the dependencies on sorted nodes.
+     */
+    private void breakCycles() {
+        Map<Node, Integer> inDegree = new HashMap<Node, Integer>();
+        Map<Node, List<Node>> dependents = new HashMap<Node, List<Node>>();
+        LinkedList<Node> ready = new LinkedList<Node>();
+        for (Node node : nodes) {
+            inDegree.put(node, node.dependencies.size());
+            for (Node dependency : node.dependencies) {
+                List<Node> items = dependents.get(dependency);
+                if (items == null) {
+                    items = new LinkedList<Node>();
+                    dependents.put(dependency, items);
+                }
+                items.add(node);
+            }
+            if (node.dependencies.isEmpty()) {
+                ready.add(node);
+            }
+        }
+
+        Set<Node> sorted = new HashSet<Node>();
+        while (!ready.isEmpty()) {
+            Node node = ready.removeFirst();
+            sorted.add(node);
+            List<Node> items = dependents.get(node);
+            if (items != null) {
+                for (Node dependent : items) {
+                    int degree = inDegree.get(dependent) - 1;
+                    inDegree.put(dependent, degree);
+                    if (degree == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        }
+
+        if (sorted.size() < nodes.size()) {
+            for (Node node : nodes) {
+                if (!sorted.contains(node)) {
+                    node.dependencies.retainAll(sorted);
+                }
+            }
+        }
+    }
+
+    /*
+     * Starts all the components and waits for them.
+     * Returns the components that failed to start with their errors, in the model order.
+     */
+    Map<ComponentInfo, Throwable> start() throws InterruptedException {
+        long start = System.nanoTime();
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Component Bootstrap-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        synchronized (this) {
+            for (Node node : nodes) {
+                if (node.pending == 0) {
+                    executor.execute(node);
+                }
+            }
+            while (completed < nodes.size()) {
+                wait();
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        wallTime = System.nanoTime() - start;
+
+        Map<ComponentInfo, Throwable> errors = new LinkedHashMap<ComponentInfo, Throwable>();
+        for (Node node : nodes) {
+            if (node.error != null) {
+                errors.put(node.info, node.error);
+            }
+        }
+        return errors;
+    }
+
+    private synchronized void finished(Node node) {
+        completed++;
+        for (Node dependent : node.dependents) {
+            if (--dependent.pending == 0) {
+                executor.execute(dependent);
+            }
+        }
+        if (completed == nodes.size()) {
+            notifyAll();
+        }
+    }
+
+    boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /*
+     * The components started, in the model order.
+     */
+    List<AbstractComponent> getComponents() {
+        List<AbstractComponent> result = new ArrayList<AbstractComponent>();
+        for (Node node : nodes) {
+            if (node.component != null) {
+                result.add(node.component);
+            }
+        }
+        return result;
+    }
+
+    void printReport(PrintStream out) {
+        List<Node> items = new ArrayList<Node>(nodes);
+        Collections.sort(items, new Comparator<Node>() {
+            public int compare(Node first, Node second) {
+                return Long.compare(second.duration, first.duration);
+            }
+        });
+
+        long total = 0;
+        for (Node node : items) {
+            total += node.duration;
+        }
+        out.println(String.format("Component startup: %d components, %d threads, wall=%.1f ms, sum=%.1f ms",
+                nodes.size(), threads, wallTime / 1e6, total / 1e6));
+        for (Node node : items) {
+            out.println(String.format("  %10.1f ms  %s (%s) on %s%s", node.duration / 1e6, node.info.getName(),
+                    node.getHostPort(), node.threadName, node.error == null ? "" : " FAILED"));
+        }
+    }
+}
@@ -29,19 +29,25 @@
 package org.ib.component;
 
 import com.beust.jcommander.JCommander;
+import org.ib.communication.ContextRegistry;
 import org.ib.component.base.AbstractComponent;
 import org.ib.component.base.Closeable;
 import org.ib.component.model.ComponentConfig;
 import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelCache;
 import org.ib.component.model.validation.*;
 import org.ib.data.DataHelper;
+import org.ib.service.cns.CNClient;
 import org.ib.service.generic.AbstractClient;
 import org.ib.service.generic.AbstractService;
 import org.ib.service.generic.ClientManager;
+import org.ib.service.topic.TopicClient;
+import org.ib.utils.FileUtils;
 import org.zeromq.ZMQException;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
@@ -51,7 +57,7 @@ import java.util.*;
  * @version 1, 11/23/12
  */
 public class ComponentRunner {
-    private static final Collection<Closeable> closable = new LinkedList<Closeable>();
+    private static final List<Closeable> closable = Collections.synchronizedList(new LinkedList<Closeable>());
     private static final ModelValidationManager modelValidationManager = new ModelValidationManager();
 
     static {
@@ -98,18 +104,38 @@ public class ComponentRunner {
             System.exit(1);
         }
 
-        if (!DataHelper.registerAllGenericDataClasses()) {
+        DataHelper.setSingleFrameFormat(params.singleFrame);
+
+        if (!DataHelper.registerAllGenericDataClasses(params.scanTypes)) {
             System.err.println("Error: Unable to register all the Data Types");
             System.exit(2);
         }
 
-        ComponentModel model = new ComponentModel(configFilename);
-        ModelValidationResult validationResult = modelValidationManager.checkComponentModel(model, false);
-        if (validationResult.hasErrors()) {
-            for (String line : validationResult.getErrorList()) {
-                System.err.println("Error: " + line);
+        ModelCache modelCache = params.noModelCache ? null : createModelCache(params.cacheDir);
+        ModelCache.Entry cachedModel = modelCache == null ? null : modelCache.load(configFilename);
+
+        ComponentModel model;
+        ModelValidationResult validationResult;
+        if (cachedModel != null) {
+            model = cachedModel.getModel();
+            validationResult = cachedModel.getValidationResult();
+        } else {
+            model = new ComponentModel(configFilename);
+            validationResult = modelValidationManager.checkComponentModel(model, false);
+            if (validationResult.hasErrors()) {
+                for (String line : validationResult.getErrorList()) {
+                    System.err.println("Error: " + line);
+                }
+                System.exit(2);
+            }
+
+            if (modelCache != null) {
+                try {
+                    modelCache.store(configFilename, model, validationResult);
+                } catch (IOException e) {
+                    System.err.println("Warning: Unable to cache the model: " + e.getMessage());
+                }
             }
-            System.exit(2);
         }
 
         if (!params.ignoreWarnings) {
@@ -123,10 +149,20 @@ public class ComponentRunner {
             }
         }
 
+        registerLocalEndpoints(model, profileNames);
+
         ScheduleManager scheduleManager = null;
         boolean validProfile = false;
         boolean schedulerExists = false;
         for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
+            if (type == ComponentModel.ComponentType.SCHEDULER) {
+                prefetchHosts(model, profileNames);
+            } else if (type == ComponentModel.ComponentType.COMPONENT) {
+                prefetchTopics(model, profileNames);
+                //-- the components are started in parallel, by the bootstrap
+                continue;
+            }
+
             for (String id : model.getAllIds(type)) {
                 ComponentInfo componentInfo = model.getComponent(type, id);
 
@@ -148,30 +184,36 @@ public class ComponentRunner {
                             case SCHEDULER:
                                 scheduleManager = setupScheduler(componentInfo.getProperties());
                                 break;
-                            case COMPONENT:
-                                setupComponent(componentInfo.getProperties());
-                                break;
                         }
-                    } catch (InvocationTargetException e) {
-                        e.printStackTrace();
-                        System.err.println("Got exception: " + e.getCause().getMessage());
-                        System.err.println("ComponentID: " + componentInfo.getId());
-                        System.err.println("Component Name: " + componentInfo.getName());
-                        System.err.println("Cannot start platform ... exiting the current instance !");
-                        System.exit(2);
-                    } catch (ZMQException e) {
-                        System.err.println("Got exception: " + e.getMessage());
-                        System.err.println("ComponentID: " + componentInfo.getId());
-                        System.err.println("Component Name: " + componentInfo.getName());
-                        System.err.println("Cannot start platform ... exiting the current instance !");
-                        System.exit(2);
                     } catch (Exception e) {
-                        e.printStackTrace();
+                        handleStartupError(componentInfo, e);
                     }
                 }
             }
         }
 
+        ComponentBootstrap bootstrap = new ComponentBootstrap(model, profileNames, params.startupThreads);
+        try {
+            for (Map.Entry<ComponentInfo, Throwable> error : bootstrap.start().entrySet()) {
+                handleStartupError(error.getKey(), error.getValue());
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Interrupted while starting the components ... exiting the current instance !");
+            System.exit(2);
+        }
+        if (params.startupReport) {
+            bootstrap.printReport(System.out);
+        }
+
+        if (!bootstrap.isEmpty()) {
+            //At least one component is loaded
+            validProfile = true;
+        }
+        //-- all the components are subscribed, none of the wake events are lost
+        for (AbstractComponent component : bootstrap.getComponents()) {
+            component.systemWake();
+        }
+
         if (validProfile) {
             if (scheduleManager != null) {
                 scheduleManager.start();
@@ -186,17 +228,137 @@ public class ComponentRunner {
 
         Runtime.getRuntime().addShutdownHook(new Thread() {
             public void run() {
-                for (Closeable closeable : closable) {
-                    try {
-                        closeable.close();
-                    } catch (Throwable e) {
-                        //-- ignore
+                synchronized (closable) {
+                    for (Closeable closeable : closable) {
+                        try {
+                            closeable.close();
+                        } catch (Throwable e) {
+                            //-- ignore
+                        }
                     }
                 }
             }
         });
     }
 
+    private static ModelCache createModelCache(String cacheDir) {
+        try {
+            return new ModelCache(FileUtils.createCacheDir(null, cacheDir));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: The model cache is disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void handleStartupError(ComponentInfo componentInfo, Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            e.printStackTrace();
+            System.err.println("Got exception: " + e.getCause().getMessage());
+        } else if (e instanceof ZMQException) {
+            System.err.println("Got exception: " + e.getMessage());
+        } else {
+            e.printStackTrace();
+            return;
+        }
+        System.err.println("ComponentID: " + componentInfo.getId());
+        System.err.println("Component Name: " + componentInfo.getName());
+        System.err.println("Cannot start platform ... exiting the current instance !");
+        System.exit(2);
+    }
+
+    /*
+     * All the components and schedulers started by this process can be reached over inproc,
+     * their tcp links are rewritten by the InboundManager at subscription time.
+     */
+    private static void registerLocalEndpoints(ComponentModel model, Set<String> profileNames) {
+        for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
+            if (type == ComponentModel.ComponentType.SCHEDULER || type == ComponentModel.ComponentType.COMPONENT) {
+                for (String id : model.getAllIds(type)) {
+                    ComponentConfig properties = model.getComponent(type, id).getProperties();
+                    if (profileNames.contains(properties.getProperty(ComponentConfig.PROPERTY_PROFILE))) {
+                        ContextRegistry.addLocalEndpoint(properties.getProperty(ComponentConfig.PROPERTY_MACHINE_NAME) + ":" +
+                                properties.getProperty(ComponentConfig.PROPERTY_PORT));
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Resolves every machine name used by the profile components in one batch, the components find them cached.
+     */
+    private static void prefetchHosts(ComponentModel model, Set<String> profileNames) {
+        CNClient cn;
+        try {
+            cn = ClientManager.getClient(ClientManager.CN);
+        } catch (IllegalArgumentException e) {
+            //-- no name client on this profile
+            return;
+        }
+
+        Set<String> hosts = new LinkedHashSet<String>(model.getHosts());
+        for (ComponentModel.ComponentType type : new ComponentModel.ComponentType[]{
+                ComponentModel.ComponentType.SCHEDULER, ComponentModel.ComponentType.COMPONENT}) {
+            for (String id : model.getAllIds(type)) {
+                ComponentConfig properties = model.getComponent(type, id).getProperties();
+                if (profileNames.contains(properties.getProperty(ComponentConfig.PROPERTY_PROFILE))) {
+                    if (properties.hasProperty(ComponentConfig.PROPERTY_SCHEDULER)) {
+                        hosts.add(properties.getProperty(ComponentConfig.PROPERTY_SCHEDULER));
+                    }
+                    for (String subscription : properties.getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
+                        String[] topicMap = subscription.split("@");
+                        if (topicMap.length > 1) {
+                            hosts.add(topicMap[1]);
+                        }
+                    }
+                }
+            }
+        }
+
+        cn.prefetch(hosts);
+    }
+
+    /*
+     * Resolves the encodings of all the topics used by the components in one request, instead of one per topic.
+     */
+    private static void prefetchTopics(ComponentModel model, Set<String> profileNames) {
+        TopicClient tc;
+        try {
+            tc = ClientManager.getClient(ClientManager.TOPIC);
+        } catch (IllegalArgumentException e) {
+            //-- no topic client on this profile
+            return;
+        }
+
+        Set<String> topicHosts = new LinkedHashSet<String>();
+        for (String id : model.getAllIds(ComponentModel.ComponentType.COMPONENT)) {
+            ComponentConfig properties = model.getComponent(ComponentModel.ComponentType.COMPONENT, id).getProperties();
+            if (profileNames.contains(properties.getProperty(ComponentConfig.PROPERTY_PROFILE))) {
+                String localMachinePattern = properties.getProperty(ComponentConfig.PROPERTY_MACHINE_NAME) + ":" +
+                        properties.getProperty(ComponentConfig.PROPERTY_PORT);
+
+                if (properties.hasProperty(ComponentConfig.PROPERTY_SCHEDULER)) {
+                    topicHosts.add(ScheduleManager.heartbeatTopic + "@" + properties.getProperty(ComponentConfig.PROPERTY_SCHEDULER));
+                }
+                for (String subscription : properties.getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
+                    if (subscription.contains("@")) {
+                        topicHosts.add(subscription);
+                    }
+                }
+                for (String publish : properties.getPropertyList(ComponentConfig.PROPERTY_PUBLISH)) {
+                    String[] topicMap = publish.split("@");
+                    if (topicMap.length > 1) {
+                        topicHosts.add(topicMap[0] + "@" + localMachinePattern);
+                    }
+                }
+            }
+        }
+
+        if (!topicHosts.isEmpty()) {
+            tc.getEncodings(topicHosts);
+        }
+    }
+
     private static ScheduleManager setupScheduler(ComponentConfig properties) throws Exception {
         ScheduleManager sm = new ScheduleManager(Integer.parseInt(properties.getProperty(ComponentConfig.PROPERTY_TIMEOUT)),
                 properties.getProperty(ComponentConfig.PROPERTY_PORT), properties.getProperty(ComponentConfig.PROPERTY_MACHINE_NAME));
@@ -222,7 +384,7 @@ public class ComponentRunner {
         closable.add(client);
     }
 
-    private static void setupComponent(ComponentConfig properties) throws Exception {
+    static AbstractComponent setupComponent(ComponentConfig properties) throws Exception {
         Constructor constructor = Class.forName(properties.getProperty(ComponentConfig.PROPERTY_NAME)).getDeclaredConstructor(String.class, ComponentConfig.class);
         constructor.setAccessible(true);
         AbstractComponent component = (AbstractComponent) constructor.newInstance(properties.getProperty(ComponentConfig.PROPERTY_PORT), properties);
@@ -243,5 +405,6 @@ public class ComponentRunner {
         }
 
         component.setupComponentConfig(properties);
+        return component;
     }
 }
@@ -53,4 +53,26 @@ public class RunParams {
 
     @Parameter(names = "-ignoreWarnings", description = "Do not display or exit on warnings.")
     public boolean ignoreWarnings = false;
+
+    @Parameter(names = "-singleFrame", description = "Publish the data in the old single frame format, " +
+            "for compatibility with older peers.")
+    public boolean singleFrame = false;
+
+    @Parameter(names = "-scanTypes", description = "Scan the classpath for the data types, " +
+            "instead of loading the build time type indexes.")
+    public boolean scanTypes = false;
+
+    @Parameter(names = "-noModelCache", description = "Parse and validate the project configuration file, " +
+            "without using or updating the model cache.")
+    public boolean noModelCache = false;
+
+    @Parameter(names = "-cacheDir", description = "The cache directory (tmpCache by default).", arity = 1)
+    public String cacheDir = null;
+
+    @Parameter(names = "-startupThreads", description = "The number of threads starting the components in parallel, " +
+            "0 for one per processor and 1 for a sequential startup.", arity = 1)
+    public int startupThreads = 0;
+
+    @Parameter(names = "-startupReport", description = "Print the startup time of each component.")
+    public boolean startupReport = false;
 }
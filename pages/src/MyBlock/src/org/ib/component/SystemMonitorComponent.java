@@ -31,6 +31,8 @@ package org.ib.component;
 import org.ib.component.annotations.ConfigureParams;
 import org.ib.component.base.MixedComponent;
 import org.ib.component.model.ComponentConfig;
+import org.ib.data.ComponentHeartbeat;
+import org.ib.data.ComponentMetrics;
 import org.ib.data.GenericData;
 import org.ib.data.SystemEvent;
 
@@ -42,19 +44,35 @@ import java.util.Map;
  * @version 1, 1/18/13
  */
 
-@ConfigureParams(outputChannels = "system.monitor.data", outputDataTypes = SystemEvent.class, inputDataTypes = SystemEvent.class)
+@ConfigureParams(outputChannels = {"system.monitor.data", "system.monitor.metrics"},
+        outputDataTypes = {SystemEvent.class, ComponentMetrics.class},
+        inputDataTypes = {SystemEvent.class, ComponentHeartbeat.class, ComponentMetrics.class})
 public class SystemMonitorComponent extends MixedComponent {
     private static final String outboundTopic = "system.monitor.data";
+    // the aggregated metrics are kept apart from the system events, most of the components subscribe to the latter
+    private static final String metricsTopic = "system.monitor.metrics";
+    private static final String SOURCE_NAME = "SystemMonitor";
+    private static final String MESSAGE_RATE = "messageRate";
 
     private final Map<String, Boolean> componentActivation = new HashMap<String, Boolean>();
     private int activatedComponents = 0;
 
+    // messages per second, per component (machine:port), computed from the heartbeats
+    private final Map<String, Double> messageRates = new HashMap<String, Double>();
+    private final Map<String, Long> lastBeats = new HashMap<String, Long>();
+
+    // the last metrics snapshot of each component (machine:port), received on the .metrics topics
+    private final Map<String, ComponentMetrics> componentMetrics = new HashMap<String, ComponentMetrics>();
+    private long aggregateInterval;
+    private long lastAggregate = 0;
+
     public SystemMonitorComponent(String outboundPort, ComponentConfig config) {
         super(outboundPort, config);
     }
 
     protected void setupComponent(ComponentConfig config) {
         activatedComponents = 0;
+        aggregateInterval = Long.parseLong(config.getProperty(ComponentConfig.PROPERTY_METRICS_INTERVAL, "1000"));
 
         for (String subscriptionItem : config.getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
             subscriptionItem = subscriptionItem.split("@")[0];
@@ -68,6 +86,68 @@ public class SystemMonitorComponent extends MixedComponent {
     }
 
     protected void handleData(GenericData data) {
+        if (data instanceof ComponentHeartbeat) {
+            ComponentHeartbeat heartbeat = (ComponentHeartbeat) data;
+            synchronized (messageRates) {
+                Long lastBeat = lastBeats.put(heartbeat.getSourceID(), heartbeat.getId());
+                if (lastBeat != null && heartbeat.getId() > lastBeat) {
+                    messageRates.put(heartbeat.getSourceID(), heartbeat.getMessageCount() * 1000.0 / (heartbeat.getId() - lastBeat));
+                }
+            }
+        } else if (data instanceof ComponentMetrics) {
+            ComponentMetrics metrics = (ComponentMetrics) data;
+            long timestamp = System.currentTimeMillis();
+            boolean publish;
+            synchronized (componentMetrics) {
+                componentMetrics.put(metrics.getSourceID(), metrics);
+                publish = timestamp - lastAggregate >= aggregateInterval;
+                if (publish) {
+                    lastAggregate = timestamp;
+                }
+            }
+            if (publish) {
+                publishData(metricsTopic, createAggregate(timestamp));
+            }
+        }
+    }
+
+    /*
+     * The metrics of all the components, from their last snapshots: the maximum of the timers .max entries,
+     * the sum of all the other values. The message rates (messages per second) are added to the gauges,
+     * per component and in total.
+     */
+    private ComponentMetrics createAggregate(long timestamp) {
+        ComponentMetrics result = new ComponentMetrics(timestamp, SOURCE_NAME);
+        synchronized (componentMetrics) {
+            for (ComponentMetrics metrics : componentMetrics.values()) {
+                aggregate(result.getCounters(), metrics.getCounters());
+                aggregate(result.getTimers(), metrics.getTimers());
+                aggregate(result.getGauges(), metrics.getGauges());
+            }
+        }
+
+        double total = 0;
+        synchronized (messageRates) {
+            for (Map.Entry<String, Double> rate : messageRates.entrySet()) {
+                result.getGauges().put(rate.getKey() + "." + MESSAGE_RATE, Math.round(rate.getValue()));
+                total += rate.getValue();
+            }
+        }
+        result.getGauges().put(MESSAGE_RATE, Math.round(total));
+        return result;
+    }
+
+    private static void aggregate(Map<String, Long> result, Map<String, Long> values) {
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            Long previous = result.get(entry.getKey());
+            if (previous == null) {
+                result.put(entry.getKey(), entry.getValue());
+            } else if (entry.getKey().endsWith(".max")) {
+                result.put(entry.getKey(), Math.max(previous, entry.getValue()));
+            } else {
+                result.put(entry.getKey(), previous + entry.getValue());
+            }
+        }
     }
 
     protected void handleSystemEvents(SystemEvent event) {
@@ -81,14 +161,14 @@ public class SystemMonitorComponent extends MixedComponent {
                     activatedComponents++;
                     if (activatedComponents == componentActivation.size()) {
                         System.err.println("System wake !");
-                        publishData(outboundTopic, new SystemEvent(1, SystemEvent.SYSTEM_WAKE, "SystemMonitor"));
+                        publishData(outboundTopic, new SystemEvent(1, SystemEvent.SYSTEM_WAKE, SOURCE_NAME));
                     }
                 }
             } else if (event.getEvent() == SystemEvent.SYSTEM_SHUTDOWN) {
                 componentActivation.remove(event.getSourceName());
                 activatedComponents--;
                 if (activatedComponents == 0) {
-                    publishData(outboundTopic, new SystemEvent(2, SystemEvent.SYSTEM_SHUTDOWN, "SystemMonitor"));
+                    publishData(outboundTopic, new SystemEvent(2, SystemEvent.SYSTEM_SHUTDOWN, SOURCE_NAME));
                 }
             }
         }
@@ -96,6 +176,9 @@ public class SystemMonitorComponent extends MixedComponent {
 
     public void defineReceivedData() {
         addOutboundTypeChecker(outboundTopic, SystemEvent.class);
+        addOutboundTypeChecker(metricsTopic, ComponentMetrics.class);
+        addInboundTypeChecker(ComponentHeartbeat.class);
+        addInboundTypeChecker(ComponentMetrics.class);
     }
 
     public void definePublishedData() {
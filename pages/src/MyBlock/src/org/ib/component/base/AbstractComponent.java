@@ -29,13 +29,18 @@
 package org.ib.component.base;
 
 import org.ib.communication.InboundManager;
+import org.ib.communication.LatencyRecorder;
 import org.ib.communication.OutboundManager;
+import org.ib.communication.OutboundQueue;
 import org.ib.component.ScheduleManager;
 import org.ib.component.consistency.ConsistencyManager;
 import org.ib.component.consistency.DataChecker;
 import org.ib.component.model.ComponentConfig;
 import org.ib.data.ComponentHeartbeat;
+import org.ib.data.ComponentMetrics;
 import org.ib.data.GenericData;
+import org.ib.data.LatencyMetrics;
+import org.ib.data.LogLevel;
 import org.ib.data.SystemEvent;
 import org.ib.data.SystemHeartbeat;
 import org.ib.logger.Logger;
@@ -46,6 +51,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -63,19 +74,53 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
     private String localMachinePattern;
     protected String heartbeatTopic;
     protected String systemEventTopic;
+    protected String metricsTopic;
 
     protected static final String INBOUND_GROUP = "__INBOUND_";
 
     private ConsistencyManager consistencyManager;
 
+    private final long actInterval;
+    private final Object actLock = new Object();
+    private final AtomicBoolean wakePending = new AtomicBoolean(false);
+    private ScheduledExecutorService localScheduler = null;
+
+    private final HeartbeatCoalescer heartbeatCoalescer;
+
+    // null when the metrics are disabled
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Counter receivedCounter;
+    private final MetricsRegistry.Counter publishedCounter;
+    private final MetricsRegistry.Counter droppedCounter;
+    private final MetricsRegistry.Timer handleDataTimer;
+    private final MetricsRegistry.Timer actTimer;
+
+    private final Runnable actTask = new Runnable() {
+        public void run() {
+            wakePending.set(false);
+            invokeAct();
+        }
+    };
+
     public AbstractComponent(String outboundPort, ComponentConfig config) {
         this.config = config;
+        actInterval = Long.parseLong(config.getProperty(ComponentConfig.PROPERTY_ACT_INTERVAL, "0"));
+        heartbeatCoalescer = new HeartbeatCoalescer(Long.parseLong(config.getProperty(ComponentConfig.PROPERTY_HEARTBEAT_INTERVAL, "100")));
 
         consistencyManager = new ConsistencyManager();
         localMachinePattern = config.getProperty(ComponentConfig.PROPERTY_MACHINE_NAME) + ":" + outboundPort;
 
         outboundManager = new OutboundManager(this, outboundPort);
-        inboundManager = new InboundManager(this);
+        int outboundQueueSize = Integer.parseInt(config.getProperty(ComponentConfig.PROPERTY_OUTBOUND_QUEUE_SIZE, "0"));
+        if (outboundQueueSize > 0) {
+            outboundManager.enableQueue(outboundQueueSize,
+                    OutboundQueue.OverflowPolicy.parse(config.getProperty(ComponentConfig.PROPERTY_OUTBOUND_OVERFLOW, "block")),
+                    Integer.parseInt(config.getProperty(ComponentConfig.PROPERTY_OUTBOUND_SAMPLE_RATE, "10")));
+        }
+        inboundManager = new InboundManager(this,
+                Integer.parseInt(config.getProperty(ComponentConfig.PROPERTY_DISPATCH_WORKERS, "0")),
+                Integer.parseInt(config.getProperty(ComponentConfig.PROPERTY_DISPATCH_QUEUE_SIZE, "1000")),
+                Long.parseLong(config.getProperty(ComponentConfig.PROPERTY_DISPATCH_LAG_WARNING, "0")));
 
         inboundManager.subscribe(ScheduleManager.heartbeatTopic, this, config.getProperty(ComponentConfig.PROPERTY_SCHEDULER));
         addInboundTypeChecker(SystemHeartbeat.class);
@@ -87,36 +132,182 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
 
         systemTopics.add(Logger.generateTopic(this));
         Logger.setupDebug(this);
+        if (config.hasProperty(ComponentConfig.PROPERTY_LOG_LEVEL)) {
+            Logger.setLevel(this, Logger.parseLevel(config.getProperty(ComponentConfig.PROPERTY_LOG_LEVEL)));
+        }
+        addInboundTypeChecker(LogLevel.class);
 
         systemEventTopic = generateSystemTopic();
         systemTopics.add(systemEventTopic);
         publish(systemEventTopic, systemEventTopic);
         addOutboundTypeChecker(systemEventTopic, SystemEvent.class);
         addInboundTypeChecker(SystemEvent.class);
+
+        boolean traceLatency = Boolean.parseBoolean(config.getProperty(ComponentConfig.PROPERTY_TRACE_LATENCY, "false"));
+        if (Boolean.parseBoolean(config.getProperty(ComponentConfig.PROPERTY_METRICS, "false"))) {
+            metrics = createMetrics();
+            receivedCounter = metrics.counter(MetricsRegistry.RECEIVED);
+            publishedCounter = metrics.counter(MetricsRegistry.PUBLISHED);
+            droppedCounter = metrics.counter(MetricsRegistry.DROPPED);
+            handleDataTimer = metrics.timer(MetricsRegistry.HANDLE_DATA, MetricsRegistry.HANDLE_DATA_SAMPLE_RATE);
+            actTimer = metrics.timer(MetricsRegistry.ACT);
+        } else {
+            metrics = null;
+            receivedCounter = null;
+            publishedCounter = null;
+            droppedCounter = null;
+            handleDataTimer = null;
+            actTimer = null;
+        }
+
+        if (traceLatency || metrics != null) {
+            metricsTopic = generateMetricsTopic();
+            systemTopics.add(metricsTopic);
+            publish(metricsTopic, metricsTopic);
+            addOutboundTypeChecker(metricsTopic, LatencyMetrics.class);
+            addOutboundTypeChecker(metricsTopic, ComponentMetrics.class);
+        }
+        if (traceLatency) {
+            outboundManager.setTraceEnabled(true);
+            inboundManager.enableLatencyRecording();
+        }
+    }
+
+    private MetricsRegistry createMetrics() {
+        MetricsRegistry result = new MetricsRegistry();
+        result.gauge(MetricsRegistry.INBOUND_QUEUE, new MetricsRegistry.Gauge() {
+            public long getValue() {
+                return inboundManager.getQueueDepth();
+            }
+        });
+        result.gauge(MetricsRegistry.OUTBOUND_QUEUE, new MetricsRegistry.Gauge() {
+            public long getValue() {
+                return outboundManager.getQueueDepth();
+            }
+        });
+        result.gauge(MetricsRegistry.OUTBOUND_DROPPED, new MetricsRegistry.Gauge() {
+            public long getValue() {
+                long total = 0;
+                for (long dropped : outboundManager.getDroppedCounts().values()) {
+                    total += dropped;
+                }
+                return total;
+            }
+        });
+        return result;
     }
 
     public final void react(GenericData data) {
         if (data instanceof SystemHeartbeat) {
-            if (this.act()) {
+            if (actInterval > 0 || invokeAct()) {
                 // beat --
-                publishData(heartbeatTopic, new ComponentHeartbeat(localMachinePattern, System.currentTimeMillis()));
+                long timestamp = System.currentTimeMillis();
+                heartbeatCoalescer.beat(timestamp);
+                publishData(heartbeatTopic, new ComponentHeartbeat(localMachinePattern, timestamp, heartbeatCoalescer.drainProcessed()));
             }
         } else if (data instanceof SystemEvent) {
             handleSystemEvents((SystemEvent) data);
+        } else if (data instanceof LogLevel) {
+            if (((LogLevel) data).appliesTo(this.getClass().getName())) {
+                Logger.setLevel(this, ((LogLevel) data).getLevel());
+            }
         } else {
+            if (receivedCounter != null) {
+                receivedCounter.increment();
+            }
             if (checkConsistency(INBOUND_GROUP, data)) {
-                handleData(data);
+                if (handleDataTimer != null) {
+                    long start = handleDataTimer.start();
+                    handleData(data);
+                    handleDataTimer.stop(start);
+                } else {
+                    handleData(data);
+                }
+                heartbeatCoalescer.messageProcessed();
                 // beat --
-                publishData(heartbeatTopic, new ComponentHeartbeat(localMachinePattern, System.currentTimeMillis()));
+                long timestamp = System.currentTimeMillis();
+                if (heartbeatCoalescer.tryBeat(timestamp)) {
+                    publishData(heartbeatTopic, new ComponentHeartbeat(localMachinePattern, timestamp, heartbeatCoalescer.drainProcessed()));
+                }
             }
         }
     }
 
     public void setupComponentConfig(ComponentConfig config) {
         setupComponent(config);
+        consistencyManager.freeze();
+        if (actInterval > 0) {
+            getLocalScheduler().scheduleWithFixedDelay(actTask, actInterval, actInterval, TimeUnit.MILLISECONDS);
+        }
+        if (metricsTopic != null) {
+            long metricsInterval = Long.parseLong(config.getProperty(ComponentConfig.PROPERTY_METRICS_INTERVAL, "1000"));
+            getLocalScheduler().scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    publishMetrics();
+                }
+            }, metricsInterval, metricsInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /*
+     * Announces the component as ready, once all the components of the platform are set up.
+     */
+    public void systemWake() {
         publishData(systemEventTopic, new SystemEvent(1, SystemEvent.SYSTEM_WAKE, this.getClass().getName()));
     }
 
+    /*
+     * Wake-on-data: requests an act() invocation as soon as possible, without waiting for the next tick.
+     * Several requests issued before act() runs are coalesced into a single invocation.
+     */
+    protected final void wakeUp() {
+        if (wakePending.compareAndSet(false, true)) {
+            try {
+                getLocalScheduler().execute(actTask);
+            } catch (RejectedExecutionException e) {
+                //-- component closed
+            }
+        }
+    }
+
+    private boolean invokeAct() {
+        // act() may be triggered by the heartbeat, the local scheduler or a wake up, but never concurrently
+        synchronized (actLock) {
+            if (actTimer != null) {
+                long start = actTimer.start();
+                boolean result = act();
+                actTimer.stop(start);
+                return result;
+            }
+            return act();
+        }
+    }
+
+    private synchronized ScheduledExecutorService getLocalScheduler() {
+        if (localScheduler == null) {
+            localScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, localMachinePattern + " Scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return localScheduler;
+    }
+
+    private void publishMetrics() {
+        if (metrics != null) {
+            publishData(metricsTopic, metrics.snapshot(localMachinePattern, System.currentTimeMillis()));
+        }
+        LatencyRecorder recorder = inboundManager.getLatencyRecorder();
+        if (recorder != null) {
+            for (LatencyMetrics metrics : recorder.drainMetrics(localMachinePattern, System.currentTimeMillis())) {
+                publishData(metricsTopic, metrics);
+            }
+        }
+    }
+
     protected abstract void setupComponent(ComponentConfig config);
 
     protected abstract void handleData(GenericData data);
@@ -125,7 +316,18 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
     }
 
     private boolean checkConsistency(String group, GenericData data) {
-        return consistencyManager.check(group, data, true);
+        boolean result = consistencyManager.check(group, data, true);
+        if (!result && droppedCounter != null) {
+            droppedCounter.increment();
+        }
+        return result;
+    }
+
+    /*
+     * The metrics of the component, null unless enabled by the metrics property. Custom metrics may be added to it.
+     */
+    protected MetricsRegistry getMetrics() {
+        return metrics;
     }
 
     private void addTypeChecker(String group, Class<? extends GenericData> type) {
@@ -143,7 +345,9 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
     public void publish(String externalTopic, String internalTopic) {
         mapInternalTopic(externalTopic, internalTopic);
         TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
-        tc.addTopic(externalTopic, localMachinePattern);
+        tc.addTopicAsync(externalTopic, localMachinePattern);
+        // pipelined, the encoding is cached before the first publication
+        tc.getEncodingAsync(externalTopic, localMachinePattern);
     }
 
     public void subscribe(String topic, String host, ReactiveListener listener) {
@@ -154,7 +358,11 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
         if (checkConsistency(internalTopic, data)) {
             String externalTopic = getExternalTopic(internalTopic);
             if (externalTopic != null) {
-                outboundManager.publishData(externalTopic, data);
+                boolean systemTopic = systemTopics.contains(internalTopic);
+                outboundManager.publishData(externalTopic, data, systemTopic);
+                if (publishedCounter != null && !systemTopic) {
+                    publishedCounter.increment();
+                }
             } else {
                 // Nobody subscribed to this information ...
                 // Did you consider not publishing it ?
@@ -190,6 +398,10 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
         return this.getClass().getName() + ".system";
     }
 
+    protected String generateMetricsTopic() {
+        return this.getClass().getName() + ".metrics";
+    }
+
     public void close() {
         publishData(systemEventTopic, new SystemEvent(2, SystemEvent.SYSTEM_SHUTDOWN, this.getClass().getName()));
         try {
@@ -198,6 +410,13 @@ public abstract class AbstractComponent implements ActiveListener, Publisher, Cl
             //-- ignore
         }
 
+        synchronized (this) {
+            if (localScheduler != null) {
+                localScheduler.shutdownNow();
+            }
+        }
+
+        Logger.removeTarget(this);
         inboundManager.close();
         outboundManager.close();
     }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component.base;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the data driven heartbeats of a component to at most one per interval,
+ * while counting the messages processed between two beats.
+ *
+ * @version 1, 10/18/26
+ */
+public class HeartbeatCoalescer {
+    private final long interval;
+    private final AtomicLong processed = new AtomicLong(0);
+    private final AtomicLong lastBeat = new AtomicLong(0);
+
+    public HeartbeatCoalescer(long interval) {
+        this.interval = interval;
+    }
+
+    public void messageProcessed() {
+        processed.incrementAndGet();
+    }
+
+    /*
+     * Returns true if a data driven beat is due; only one of the concurrent callers wins the beat.
+     */
+    public boolean tryBeat(long timestamp) {
+        long last = lastBeat.get();
+        return timestamp - last >= interval && lastBeat.compareAndSet(last, timestamp);
+    }
+
+    /*
+     * Scheduled (liveness) beats are always emitted, they only restart the interval.
+     */
+    public void beat(long timestamp) {
+        lastBeat.set(timestamp);
+    }
+
+    public long drainProcessed() {
+        return processed.getAndSet(0);
+    }
+}
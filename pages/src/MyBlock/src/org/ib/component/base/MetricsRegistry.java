@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component.base;
+
+import org.ib.data.ComponentMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named counters, timers and gauges of a component. The counters and timers are updated with a few atomic operations,
+ * the gauges are only read when a snapshot is taken.
+ *
+ * @version 1, 10/18/26
+ */
+public class MetricsRegistry {
+    public static final String RECEIVED = "received";
+    public static final String PUBLISHED = "published";
+    public static final String DROPPED = "dropped";
+    public static final String HANDLE_DATA = "handleData";
+    public static final String ACT = "act";
+    public static final String INBOUND_QUEUE = "inboundQueue";
+    public static final String OUTBOUND_QUEUE = "outboundQueue";
+    public static final String OUTBOUND_DROPPED = "outboundDropped";
+
+    // one of every HANDLE_DATA_SAMPLE_RATE messages is timed
+    public static final int HANDLE_DATA_SAMPLE_RATE = 16;
+
+    public static class Counter {
+        private final AtomicLong value = new AtomicLong();
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        public long getValue() {
+            return value.get();
+        }
+    }
+
+    /*
+     * Times one of every sampleRate calls, the count and the total are extrapolated from the timed calls.
+     * Reading the clock costs more than the rest of the metrics of a message.
+     */
+    public static class Timer {
+        // System.nanoTime() may return any value, including 0
+        public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+        private final int sampleRate;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+        // racy on purpose, a lost update only shifts the sampling
+        private int calls = 0;
+
+        private Timer(int sampleRate) {
+            this.sampleRate = Math.max(1, sampleRate);
+        }
+
+        public void record(long nanos) {
+            count.addAndGet(sampleRate);
+            total.addAndGet(nanos * sampleRate);
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos)) {
+                current = max.get();
+            }
+        }
+
+        /*
+         * The start time of a measurement, to be passed to stop(), or NOT_SAMPLED when the call is not sampled.
+         */
+        public long start() {
+            if (++calls % sampleRate != 0) {
+                return NOT_SAMPLED;
+            }
+            return System.nanoTime();
+        }
+
+        public void stop(long start) {
+            if (start != NOT_SAMPLED) {
+                record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    public interface Gauge {
+        long getValue();
+    }
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<String, Gauge>();
+
+    public Counter counter(String name) {
+        Counter result = counters.get(name);
+        if (result == null) {
+            result = new Counter();
+            Counter previous = counters.putIfAbsent(name, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+        return result;
+    }
+
+    public Timer timer(String name) {
+        return timer(name, 1);
+    }
+
+    public Timer timer(String name, int sampleRate) {
+        Timer result = timers.get(name);
+        if (result == null) {
+            result = new Timer(sampleRate);
+            Timer previous = timers.putIfAbsent(name, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+        return result;
+    }
+
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /*
+     * Takes a snapshot of all the metrics, and starts a new interval for the timers.
+     */
+    public ComponentMetrics snapshot(String sourceID, long timestamp) {
+        ComponentMetrics result = new ComponentMetrics(timestamp, sourceID);
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            result.getCounters().put(entry.getKey(), entry.getValue().getValue());
+        }
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            Timer timer = entry.getValue();
+            result.getTimers().put(entry.getKey() + ".count", timer.count.getAndSet(0));
+            result.getTimers().put(entry.getKey() + ".total", TimeUnit.NANOSECONDS.toMicros(timer.total.getAndSet(0)));
+            result.getTimers().put(entry.getKey() + ".max", TimeUnit.NANOSECONDS.toMicros(timer.max.getAndSet(0)));
+        }
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            result.getGauges().put(entry.getKey(), entry.getValue().getValue());
+        }
+        return result;
+    }
+}
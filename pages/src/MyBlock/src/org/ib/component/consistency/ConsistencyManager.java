@@ -31,6 +31,8 @@ package org.ib.component.consistency;
 import org.ib.data.GenericData;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -41,6 +43,84 @@ public class ConsistencyManager {
 
     private final Map<String, List<ConsistencyChecker>> checkers = new HashMap<String, List<ConsistencyChecker>>();
 
+    /*
+     * Immutable snapshot of the checkers, rebuilt after each change.
+     * The results are memoized per (group, data class) when all the checkers are type checkers.
+     */
+    private static class CompiledCheckers {
+        private static final ConsistencyChecker[] EMPTY = new ConsistencyChecker[0];
+
+        private final Map<String, ConsistencyChecker[]> groups = new HashMap<String, ConsistencyChecker[]>();
+        private final ConsistencyChecker[] anyGroup;
+        private final boolean memoize;
+        private final ConcurrentMap<String, ConcurrentMap<Class<?>, Boolean>> results = new ConcurrentHashMap<String, ConcurrentMap<Class<?>, Boolean>>();
+
+        private CompiledCheckers(Map<String, List<ConsistencyChecker>> checkers) {
+            boolean typeCheckersOnly = true;
+            for (Map.Entry<String, List<ConsistencyChecker>> entry : checkers.entrySet()) {
+                ConsistencyChecker[] items = entry.getValue().toArray(new ConsistencyChecker[entry.getValue().size()]);
+                for (ConsistencyChecker checker : items) {
+                    typeCheckersOnly &= checker instanceof DataChecker;
+                }
+                groups.put(entry.getKey(), items);
+            }
+            ConsistencyChecker[] items = groups.get(ANY);
+            anyGroup = items == null ? EMPTY : items;
+            memoize = typeCheckersOnly;
+        }
+
+        private boolean check(String group, GenericData data, boolean returnOnFirst) {
+            if (!memoize) {
+                return evaluate(group, data, returnOnFirst);
+            }
+
+            ConcurrentMap<Class<?>, Boolean> groupResults = results.get(group);
+            if (groupResults == null) {
+                groupResults = new ConcurrentHashMap<Class<?>, Boolean>();
+                ConcurrentMap<Class<?>, Boolean> previous = results.putIfAbsent(group, groupResults);
+                if (previous != null) {
+                    groupResults = previous;
+                }
+            }
+
+            Boolean result = groupResults.get(data.getClass());
+            if (result == null) {
+                result = evaluate(group, data, true);
+                groupResults.put(data.getClass(), result);
+            }
+            return result;
+        }
+
+        private boolean evaluate(String group, GenericData data, boolean returnOnFirst) {
+            ConsistencyChecker[] items = groups.get(group);
+            if (!ANY.equals(group) && items == null && anyGroup.length == 0) {
+                return true;
+            }
+
+            boolean valid = false;
+            if (items != null) {
+                for (ConsistencyChecker checker : items) {
+                    valid |= checker.check(data);
+                    if (valid && returnOnFirst) {
+                        return valid;
+                    }
+                }
+            }
+
+            if (!ANY.equals(group)) {
+                for (ConsistencyChecker checker : anyGroup) {
+                    valid |= checker.check(data);
+                    if (valid && returnOnFirst) {
+                        return valid;
+                    }
+                }
+            }
+            return valid;
+        }
+    }
+
+    private volatile CompiledCheckers compiled = null;
+
     public ConsistencyManager() {
     }
 
@@ -52,6 +132,7 @@ public class ConsistencyManager {
                 checkers.put(group, items);
             }
             items.add(checker);
+            compiled = null;
         }
     }
 
@@ -64,36 +145,36 @@ public class ConsistencyManager {
                     checkers.remove(group);
                 }
             }
+            compiled = null;
         }
     }
 
     /*
-     * !! Data is invalid by default
+     * Builds the snapshot used by check(), once all the checkers are defined.
+     * Any later change to the checkers discards it, and it is rebuilt on the next check.
      */
-    public boolean check(String group, GenericData data, boolean returnOnFirst) {
-        synchronized (checkers) {
-            if (!ANY.equals(group) && checkers.get(group) == null && checkers.get(ANY) == null) {
-                return true;
-            }
-
-            boolean valid = false;
+    public void freeze() {
+        compile();
+    }
 
-            List<ConsistencyChecker> items = checkers.get(group);
-            if (items != null) {
-                for (ConsistencyChecker checker : items) {
-                    valid |= checker.check(data);
-                    if (valid && returnOnFirst) {
-                        return valid;
-                    }
-                }
+    private CompiledCheckers compile() {
+        synchronized (checkers) {
+            if (compiled == null) {
+                compiled = new CompiledCheckers(checkers);
             }
+            return compiled;
+        }
+    }
 
-            if (ANY.equals(group)) {
-                return valid;
-            } else {
-                return valid || check(ANY, data, returnOnFirst);
-            }
+    /*
+     * !! Data is invalid by default
+     */
+    public boolean check(String group, GenericData data, boolean returnOnFirst) {
+        CompiledCheckers current = compiled;
+        if (current == null) {
+            current = compile();
         }
+        return current.check(group, data, returnOnFirst);
     }
 
     public Set<String> getDefinedGroups() {
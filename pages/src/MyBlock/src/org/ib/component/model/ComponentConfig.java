@@ -65,6 +65,28 @@ public class ComponentConfig extends XMLProperties {
     public static final String PROPERTY_SUBSCRIBE = "subscribe";
     public static final String PROPERTY_PUBLISH = "publish";
     public static final String PROPERTY_SCHEDULER = "scheduler";
+    // optional inbound dispatch stage: worker lanes, lane capacity and lag warning threshold (ms)
+    public static final String PROPERTY_DISPATCH_WORKERS = "dispatchWorkers";
+    public static final String PROPERTY_DISPATCH_QUEUE_SIZE = "dispatchQueueSize";
+    public static final String PROPERTY_DISPATCH_LAG_WARNING = "dispatchLagWarning";
+    // capacity of the outbound queue, sent by a dedicated thread (0: the data is sent by the publishing thread)
+    public static final String PROPERTY_OUTBOUND_QUEUE_SIZE = "outboundQueueSize";
+    // policy of a full outbound queue: block, dropOldest, dropNewest or sample
+    public static final String PROPERTY_OUTBOUND_OVERFLOW = "outboundOverflow";
+    // with the sample policy, one of every outboundSampleRate overflowing messages of a topic is kept
+    public static final String PROPERTY_OUTBOUND_SAMPLE_RATE = "outboundSampleRate";
+    // when set (ms), act() is driven by a local scheduler and the system heartbeat is used only for liveness
+    public static final String PROPERTY_ACT_INTERVAL = "actInterval";
+    // minimal interval (ms) between two data driven heartbeats
+    public static final String PROPERTY_HEARTBEAT_INTERVAL = "heartbeatInterval";
+    // stamps the published data with a trace header and records the latency of the traced inbound data
+    public static final String PROPERTY_TRACE_LATENCY = "traceLatency";
+    // publishes the message counters, the handleData and act timers and the queue gauges on the .metrics topic
+    public static final String PROPERTY_METRICS = "metrics";
+    // interval (ms) between two publications on the .metrics topic
+    public static final String PROPERTY_METRICS_INTERVAL = "metricsInterval";
+    // minimum level of the log messages (DEBUG, INFORM, CRITICAL), pushed to the subscribers by a log component
+    public static final String PROPERTY_LOG_LEVEL = "logLevel";
 
     public static final Set<String> specialProperties = new HashSet<String>();
 
@@ -79,6 +101,18 @@ public class ComponentConfig extends XMLProperties {
         specialProperties.add(PROPERTY_SUBSCRIBE);
         specialProperties.add(PROPERTY_PUBLISH);
         specialProperties.add(PROPERTY_SCHEDULER);
+        specialProperties.add(PROPERTY_DISPATCH_WORKERS);
+        specialProperties.add(PROPERTY_DISPATCH_QUEUE_SIZE);
+        specialProperties.add(PROPERTY_DISPATCH_LAG_WARNING);
+        specialProperties.add(PROPERTY_OUTBOUND_QUEUE_SIZE);
+        specialProperties.add(PROPERTY_OUTBOUND_OVERFLOW);
+        specialProperties.add(PROPERTY_OUTBOUND_SAMPLE_RATE);
+        specialProperties.add(PROPERTY_ACT_INTERVAL);
+        specialProperties.add(PROPERTY_HEARTBEAT_INTERVAL);
+        specialProperties.add(PROPERTY_TRACE_LATENCY);
+        specialProperties.add(PROPERTY_METRICS);
+        specialProperties.add(PROPERTY_METRICS_INTERVAL);
+        specialProperties.add(PROPERTY_LOG_LEVEL);
     }
 
     private File configFilePath = null;
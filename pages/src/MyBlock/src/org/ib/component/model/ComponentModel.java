@@ -93,9 +93,7 @@ public class ComponentModel {
                             String host = profileNode.getAttributes().getNamedItem(ComponentConfig.PROPERTY_MACHINE_NAME).getTextContent().trim();
                             String profile = profileNode.getAttributes().getNamedItem(ComponentConfig.PROPERTY_NAME).getTextContent().trim();
 
-                            this.profileHosts.add(profile + "@" + host);
-                            this.profiles.add(profile);
-                            this.hosts.add(host);
+                            addProfile(profile, host);
 
                             parseElement((Element) profileNode,
                                     ComponentConfig.TAG_SERVICES, ComponentConfig.TAG_SERVICE, ComponentType.SERVICE,
@@ -164,6 +162,12 @@ public class ComponentModel {
         return new ComponentInfo(generateID(), name, properties);
     }
 
+    void addProfile(String profile, String host) {
+        profileHosts.add(profile + "@" + host);
+        profiles.add(profile);
+        hosts.add(host);
+    }
+
     public void addComponent(ComponentType type, String id, ComponentInfo componentInfo) {
         if (ComponentType.SCHEDULER == type || ComponentType.COMPONENT == type) {
             String hostPortPair = joinHostPort(componentInfo.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME),
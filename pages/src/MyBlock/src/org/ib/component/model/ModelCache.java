@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component.model;
+
+import org.ib.component.model.validation.ModelValidationResult;
+import org.msgpack.MessagePack;
+import org.msgpack.packer.Packer;
+import org.msgpack.unpacker.Unpacker;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A binary cache of the parsed and validated component models, keyed by the content hash of the model file.
+ * The files referenced by the component properties (relative to the model or absolute) are fingerprinted as well,
+ * any change to one of them invalidates the entry. Only the models validated without errors are cached.
+ *
+ * @version 1, 10/18/26
+ */
+public class ModelCache {
+    private static final int FORMAT_VERSION = 1;
+    private static final String PREFIX = "model-";
+    private static final String SUFFIX = ".cache";
+    // larger files are fingerprinted by their size and modification time, instead of their content
+    private static final long MAX_HASHED_SIZE = 1024 * 1024;
+
+    public static class Entry {
+        private final ComponentModel model;
+        private final ModelValidationResult validationResult;
+
+        private Entry(ComponentModel model, ModelValidationResult validationResult) {
+            this.model = model;
+            this.validationResult = validationResult;
+        }
+
+        public ComponentModel getModel() {
+            return model;
+        }
+
+        public ModelValidationResult getValidationResult() {
+            return validationResult;
+        }
+    }
+
+    private final File cacheDir;
+    private final MessagePack msgpack = new MessagePack();
+
+    public ModelCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /*
+     * Returns null when the model is not cached, or when it changed since it was cached.
+     */
+    public Entry load(File modelFile) {
+        try {
+            File cacheFile = getCacheFile(modelFile);
+            if (!cacheFile.isFile()) {
+                return null;
+            }
+
+            InputStream input = new BufferedInputStream(new FileInputStream(cacheFile));
+            try {
+                return read(msgpack.createUnpacker(input), modelFile);
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void store(File modelFile, ComponentModel model, ModelValidationResult validationResult) throws IOException {
+        if (validationResult.hasErrors()) {
+            return;
+        }
+
+        File cacheFile = getCacheFile(modelFile);
+        File tmpFile = new File(cacheDir, cacheFile.getName() + ".tmp");
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(tmpFile));
+        try {
+            write(msgpack.createPacker(output), modelFile, model, validationResult);
+        } finally {
+            output.close();
+        }
+
+        if (!tmpFile.renameTo(cacheFile)) {
+            // not atomic, on the platforms that do not replace the target
+            cacheFile.delete();
+            if (!tmpFile.renameTo(cacheFile)) {
+                tmpFile.delete();
+                throw new IOException("Unable to write the model cache: " + cacheFile);
+            }
+        }
+    }
+
+    private File getCacheFile(File modelFile) throws IOException {
+        MessageDigest digest = createDigest();
+        digest.update(Integer.toString(FORMAT_VERSION).getBytes("UTF-8"));
+        digest.update(modelFile.getAbsolutePath().getBytes("UTF-8"));
+        update(digest, modelFile);
+        return new File(cacheDir, PREFIX + toHex(digest.digest()) + SUFFIX);
+    }
+
+    private void write(Packer packer, File modelFile, ComponentModel model, ModelValidationResult validationResult) throws IOException {
+        packer.write(FORMAT_VERSION);
+
+        Map<String, String> dependencies = getDependencies(modelFile, model);
+        packer.writeMapBegin(dependencies.size());
+        for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+            packer.write(dependency.getKey());
+            packer.write(dependency.getValue());
+        }
+        packer.writeMapEnd();
+
+        writeStrings(packer, validationResult.getWarningList());
+        writeStrings(packer, model.getProfileHosts());
+
+        List<ComponentModel.ComponentType> types = new ArrayList<ComponentModel.ComponentType>();
+        List<String> ids = new ArrayList<String>();
+        for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
+            for (String id : model.getAllIds(type)) {
+                types.add(type);
+                ids.add(id);
+            }
+        }
+
+        packer.writeArrayBegin(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            ComponentInfo info = model.getComponent(types.get(i), ids.get(i));
+            ComponentConfig properties = info.getProperties();
+
+            packer.writeArrayBegin(5);
+            packer.write(types.get(i).name());
+            packer.write(info.getId());
+            packer.write(info.getName());
+
+            packer.writeMapBegin(properties.getPropertyTags().size());
+            for (String tag : properties.getPropertyTags()) {
+                packer.write(tag);
+                packer.write(properties.getProperty(tag));
+            }
+            packer.writeMapEnd();
+
+            packer.writeMapBegin(properties.getListPropertyTags().size());
+            for (String tag : properties.getListPropertyTags()) {
+                packer.write(tag);
+                writeStrings(packer, properties.getPropertyList(tag));
+            }
+            packer.writeMapEnd();
+            packer.writeArrayEnd();
+        }
+        packer.writeArrayEnd();
+    }
+
+    private Entry read(Unpacker unpacker, File modelFile) throws IOException {
+        if (unpacker.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+
+        int dependencyCount = unpacker.readMapBegin();
+        for (int i = 0; i < dependencyCount; i++) {
+            String path = unpacker.readString();
+            String fingerprint = unpacker.readString();
+            if (!fingerprint.equals(fingerprint(new File(path)))) {
+                return null;
+            }
+        }
+        unpacker.readMapEnd();
+
+        ModelValidationResult validationResult = new ModelValidationResult();
+        validationResult.addWarningMessages(new LinkedHashSet<String>(readStrings(unpacker)));
+
+        ComponentModel model = new ComponentModel();
+        for (String profileHost : readStrings(unpacker)) {
+            // the machine names never contain @
+            int index = profileHost.lastIndexOf('@');
+            model.addProfile(profileHost.substring(0, index), profileHost.substring(index + 1));
+        }
+
+        int componentCount = unpacker.readArrayBegin();
+        for (int i = 0; i < componentCount; i++) {
+            unpacker.readArrayBegin();
+            ComponentModel.ComponentType type = ComponentModel.ComponentType.valueOf(unpacker.readString());
+            String id = unpacker.readString();
+            String name = unpacker.readString();
+
+            ComponentConfig properties = new ComponentConfig();
+            int propertyCount = unpacker.readMapBegin();
+            for (int j = 0; j < propertyCount; j++) {
+                String tag = unpacker.readString();
+                properties.addProperty(tag, unpacker.readString());
+            }
+            unpacker.readMapEnd();
+
+            int listPropertyCount = unpacker.readMapBegin();
+            for (int j = 0; j < listPropertyCount; j++) {
+                String tag = unpacker.readString();
+                for (String value : readStrings(unpacker)) {
+                    properties.addProperty(tag, value);
+                }
+            }
+            unpacker.readMapEnd();
+            unpacker.readArrayEnd();
+
+            model.addComponent(type, id, new ComponentInfo(id, name, properties));
+        }
+        unpacker.readArrayEnd();
+
+        return new Entry(model, validationResult);
+    }
+
+    private static void writeStrings(Packer packer, Collection<String> items) throws IOException {
+        packer.writeArrayBegin(items.size());
+        for (String item : items) {
+            packer.write(item);
+        }
+        packer.writeArrayEnd();
+    }
+
+    private static List<String> readStrings(Unpacker unpacker) throws IOException {
+        int size = unpacker.readArrayBegin();
+        List<String> result = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(unpacker.readString());
+        }
+        unpacker.readArrayEnd();
+        return result;
+    }
+
+    /*
+     * The existing files named by a property value, with their fingerprints.
+     */
+    private static Map<String, String> getDependencies(File modelFile, ComponentModel model) throws IOException {
+        File modelDir = modelFile.getAbsoluteFile().getParentFile();
+        Set<String> values = new HashSet<String>();
+        for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
+            for (String id : model.getAllIds(type)) {
+                ComponentConfig properties = model.getComponent(type, id).getProperties();
+                for (String tag : properties.getPropertyTags()) {
+                    if (!ComponentConfig.PROPERTY_FILENAME.equals(tag)) {
+                        values.add(properties.getProperty(tag));
+                    }
+                }
+                for (String tag : properties.getListPropertyTags()) {
+                    values.addAll(properties.getPropertyList(tag));
+                }
+            }
+        }
+
+        Map<String, String> result = new TreeMap<String, String>();
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                File file = new File(value);
+                if (!file.isAbsolute()) {
+                    file = new File(modelDir, value);
+                }
+                if (file.isFile()) {
+                    result.put(file.getAbsolutePath(), fingerprint(file));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String fingerprint(File file) throws IOException {
+        if (!file.isFile()) {
+            return "";
+        } else if (file.length() > MAX_HASHED_SIZE) {
+            return file.length() + ":" + file.lastModified();
+        } else {
+            MessageDigest digest = createDigest();
+            update(digest, file);
+            return toHex(digest.digest());
+        }
+    }
+
+    private static void update(MessageDigest digest, File file) throws IOException {
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, count);
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] data) {
+        StringBuilder sb = new StringBuilder(data.length * 2);
+        for (byte item : data) {
+            sb.append(String.format("%02x", item & 0xFF));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component.model;
+
+import org.ib.component.annotations.ConfigureParams;
+import org.ib.component.annotations.TestClass;
+
+import java.util.*;
+
+/**
+ * An immutable view of a ComponentModel, indexed once for the validators: the classes are loaded once per name,
+ * and the links and host:port pairs are extracted for each component.
+ * The snapshot can be shared by several threads.
+ *
+ * @version 1, 10/18/26
+ */
+public final class ModelSnapshot {
+    public static final class Entry {
+        private final ComponentInfo info;
+        private final String hostPort;
+        private final Class<?> componentClass;
+        private final ConfigureParams configureParams;
+        private final boolean testClass;
+        private final Collection<String> subscriptions;
+        private final Collection<String> publications;
+
+        private Entry(ComponentInfo info, Class<?> componentClass) {
+            this.info = info;
+            this.hostPort = info.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME)
+                    + ":" + info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
+            this.componentClass = componentClass;
+            if (componentClass != null && componentClass.isAnnotationPresent(ConfigureParams.class)) {
+                this.configureParams = componentClass.getAnnotation(ConfigureParams.class);
+            } else {
+                this.configureParams = null;
+            }
+            this.testClass = componentClass != null && componentClass.isAnnotationPresent(TestClass.class);
+            this.subscriptions = copy(info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE));
+            this.publications = copy(info.getProperties().getPropertyList(ComponentConfig.PROPERTY_PUBLISH));
+        }
+
+        private static Collection<String> copy(Collection<String> items) {
+            return items.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<String>(items));
+        }
+
+        public ComponentInfo getInfo() {
+            return info;
+        }
+
+        public String getName() {
+            return info.getName();
+        }
+
+        /*
+         * machine:port
+         */
+        public String getHostPort() {
+            return hostPort;
+        }
+
+        /*
+         * null when the class cannot be found
+         */
+        public Class<?> getComponentClass() {
+            return componentClass;
+        }
+
+        /*
+         * null when the class is not annotated
+         */
+        public ConfigureParams getConfigureParams() {
+            return configureParams;
+        }
+
+        public boolean isTestClass() {
+            return testClass;
+        }
+
+        public Collection<String> getSubscriptions() {
+            return subscriptions;
+        }
+
+        public Collection<String> getPublications() {
+            return publications;
+        }
+    }
+
+    private final Map<ComponentModel.ComponentType, List<Entry>> entries =
+            new EnumMap<ComponentModel.ComponentType, List<Entry>>(ComponentModel.ComponentType.class);
+
+    public ModelSnapshot(ComponentModel model) {
+        Map<String, Class<?>> classes = new HashMap<String, Class<?>>();
+        for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
+            List<Entry> items = new ArrayList<Entry>();
+            for (String id : model.getAllIds(type)) {
+                ComponentInfo info = model.getComponent(type, id);
+                items.add(new Entry(info, loadClass(info.getName(), classes)));
+            }
+            entries.put(type, Collections.unmodifiableList(items));
+        }
+    }
+
+    private static Class<?> loadClass(String name, Map<String, Class<?>> classes) {
+        if (classes.containsKey(name)) {
+            return classes.get(name);
+        }
+
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            clazz = null;
+        }
+        classes.put(name, clazz);
+        return clazz;
+    }
+
+    public List<Entry> getEntries(ComponentModel.ComponentType type) {
+        List<Entry> items = entries.get(type);
+        return items == null ? Collections.<Entry>emptyList() : items;
+    }
+}
@@ -29,103 +29,110 @@
 package org.ib.component.model.validation;
 
 import org.ib.component.annotations.ConfigureParams;
-import org.ib.component.annotations.TestClass;
-import org.ib.component.model.ComponentConfig;
-import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
+import org.ib.data.ComponentHeartbeat;
+import org.ib.data.DebugData;
+import org.ib.data.SystemEvent;
+import org.ib.logger.LogComponent;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/16/13
  */
-public class ComponentDataTypeValidation implements ModelValidation {
+public class ComponentDataTypeValidation implements SnapshotValidation {
     public ModelValidationResult checkModel(ComponentModel model) {
+        return checkModel(new ModelSnapshot(model));
+    }
+
+    @SuppressWarnings("unchecked")
+    public ModelValidationResult checkModel(ModelSnapshot snapshot) {
         ModelValidationResult result = new ModelValidationResult();
         Map<String, Class> externalChannels = new HashMap<String, Class>();
+        // the log level is handled by every component, regardless of the accepted input,
+        // and the metrics channel carries both the latency and the component metrics
+        Set<String> untypedChannels = new HashSet<String>();
 
-        ComponentModel.ComponentType type = ComponentModel.ComponentType.COMPONENT;
-        for (String componentID : model.getAllIds(type)) {
-            ComponentInfo info = model.getComponent(type, componentID);
-            String hostPort = info.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME)
-                    + ":" + info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
-            try {
-                Class clazz = Class.forName(info.getName());
-                if (!clazz.isAnnotationPresent(TestClass.class)) {
-                    if (clazz.isAnnotationPresent(ConfigureParams.class)) {
-                        ConfigureParams annotation = (ConfigureParams) clazz.getAnnotation(ConfigureParams.class);
-                        if (annotation.outputChannels().length > 0 && annotation.outputChannels()[0].trim().length() > 0) {
-                            if (annotation.outputChannels().length != annotation.outputDataTypes().length) {
-                                result.addErrorMessage("Class: " + info.getName() + " does not properly annotate the outputDataTypes");
-                            } else {
-                                for (String publishChannel : info.getProperties().getPropertyList(ComponentConfig.PROPERTY_PUBLISH)) {
-                                    String[] pair = publishChannel.split("@");
-                                    boolean dataTypeDetermined = false;
-                                    for (int i = 0; i < annotation.outputChannels().length; i++) {
-                                        if (annotation.outputChannels()[i].equals(pair[1])) {
-                                            externalChannels.put(pair[0] + "@" + hostPort, annotation.outputDataTypes()[i]);
-                                            dataTypeDetermined = true;
-                                            break;
-                                        }
-                                    }
-                                    if (!dataTypeDetermined) {
-                                        result.addErrorMessage("Could not determine the DataType of the channel: "
-                                                + publishChannel + " * This could be linked to an invalid internal channel linking.");
-                                    }
+        List<ModelSnapshot.Entry> entries = snapshot.getEntries(ComponentModel.ComponentType.COMPONENT);
+        for (ModelSnapshot.Entry entry : entries) {
+            if (entry.getComponentClass() != null) {
+                externalChannels.put(entry.getName() + ".system@" + entry.getHostPort(), SystemEvent.class);
+                externalChannels.put(entry.getName() + ".heartbeat@" + entry.getHostPort(), ComponentHeartbeat.class);
+                externalChannels.put(entry.getName() + ".debug@" + entry.getHostPort(), DebugData.class);
+                untypedChannels.add(entry.getName() + ".metrics@" + entry.getHostPort());
+                if (LogComponent.class.isAssignableFrom(entry.getComponentClass())) {
+                    untypedChannels.add(entry.getName() + ".level@" + entry.getHostPort());
+                }
+            }
+            ConfigureParams annotation = entry.getConfigureParams();
+            if (!entry.isTestClass() && annotation != null) {
+                if (annotation.outputChannels().length > 0 && annotation.outputChannels()[0].trim().length() > 0) {
+                    if (annotation.outputChannels().length != annotation.outputDataTypes().length) {
+                        result.addErrorMessage("Class: " + entry.getName() + " does not properly annotate the outputDataTypes");
+                    } else {
+                        for (String publishChannel : entry.getPublications()) {
+                            String[] pair = publishChannel.split("@");
+                            boolean dataTypeDetermined = false;
+                            for (int i = 0; i < annotation.outputChannels().length; i++) {
+                                if (annotation.outputChannels()[i].equals(pair[1])) {
+                                    externalChannels.put(pair[0] + "@" + entry.getHostPort(), annotation.outputDataTypes()[i]);
+                                    dataTypeDetermined = true;
+                                    break;
                                 }
                             }
+
+                            if (!dataTypeDetermined) {
+                                result.addErrorMessage("Could not determine the DataType of the channel: "
+                                        + publishChannel + " * This could be linked to an invalid internal channel linking.");
+                            }
                         }
                     }
                 }
-            } catch (ClassNotFoundException e) {
-                //-- ignore
             }
         }
 
-        for (String componentID : model.getAllIds(type)) {
-            ComponentInfo info = model.getComponent(type, componentID);
-            try {
-                Class clazz = Class.forName(info.getName());
-                if (!clazz.isAnnotationPresent(TestClass.class)) {
-                    if (clazz.isAnnotationPresent(ConfigureParams.class)) {
-                        ConfigureParams annotation = (ConfigureParams) clazz.getAnnotation(ConfigureParams.class);
-                        if (annotation.outputChannels().length > 0 && annotation.outputChannels()[0].trim().length() > 0) {
-                            if (annotation.inputDataTypes().length > 0) {
-                                for (String subscribeChannel : info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
-                                    Class channelDataType = externalChannels.get(subscribeChannel);
-                                    if (channelDataType != null) {
-                                        boolean foundCompatibleInput = false;
-
-                                        for (Class<?> inputDataType : annotation.inputDataTypes()) {
-                                            if (inputDataType.isAssignableFrom(channelDataType)) {
-                                                foundCompatibleInput = true;
-                                                break;
-                                            }
-                                        }
-
-                                        if (!foundCompatibleInput) {
-                                            result.addErrorMessage("Component " + info.getName() + " subscribe topic " + subscribeChannel
-                                                    + " does not match the accepted input. " + channelDataType + " is not compatible with "
-                                                    + Arrays.toString(annotation.inputDataTypes()));
-                                        }
-                                    } else {
-                                        result.addErrorMessage("Could not determine the DataType of the channel: " + subscribeChannel);
+        for (ModelSnapshot.Entry entry : entries) {
+            ConfigureParams annotation = entry.getConfigureParams();
+            if (!entry.isTestClass() && annotation != null) {
+                if (annotation.outputChannels().length > 0 && annotation.outputChannels()[0].trim().length() > 0) {
+                    if (annotation.inputDataTypes().length > 0) {
+                        for (String subscribeChannel : entry.getSubscriptions()) {
+                            if (untypedChannels.contains(subscribeChannel)) {
+                                continue;
+                            }
+                            Class channelDataType = externalChannels.get(subscribeChannel);
+                            if (channelDataType != null) {
+                                boolean foundCompatibleInput = false;
+                                for (Class<?> inputDataType : annotation.inputDataTypes()) {
+                                    if (inputDataType.isAssignableFrom(channelDataType)) {
+                                        foundCompatibleInput = true;
+                                        break;
                                     }
                                 }
-                            } else if (info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE).size() > 0) {
-                                result.addErrorMessage("Component " + info.getName()
-                                        + " subscribes to several topics, but id does not provide a proper inputDataType annotation.");
+                                if (!foundCompatibleInput) {
+                                    result.addErrorMessage("Component " + entry.getName() + " subscribe topic " + subscribeChannel
+                                            + " does not match the accepted input. " + channelDataType + " is not compatible with "
+                                            + Arrays.toString(annotation.inputDataTypes()));
+                                }
+                            } else {
+                                result.addErrorMessage("Could not determine the DataType of the channel: " + subscribeChannel);
                             }
                         }
+                    } else if (entry.getSubscriptions().size() > 0) {
+                        result.addErrorMessage("Component " + entry.getName()
+                                + " subscribes to several topics, but id does not provide a proper inputDataType annotation.");
                     }
                 }
-            } catch (ClassNotFoundException e) {
-                //-- ignore
             }
         }
+
         return result;
     }
 }
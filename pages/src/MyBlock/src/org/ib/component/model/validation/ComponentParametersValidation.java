@@ -29,40 +29,35 @@
 package org.ib.component.model.validation;
 
 import org.ib.component.annotations.ConfigureParams;
-import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/16/13
  */
-public class ComponentParametersValidation implements ModelValidation {
+public class ComponentParametersValidation implements SnapshotValidation {
     public ModelValidationResult checkModel(ComponentModel model) {
-        ModelValidationResult result = new ModelValidationResult();
+        return checkModel(new ModelSnapshot(model));
+    }
 
-        ComponentModel.ComponentType type = ComponentModel.ComponentType.COMPONENT;
-        for (String componentID : model.getAllIds(type)) {
-            ComponentInfo info = model.getComponent(type, componentID);
-            try {
-                Class clazz = Class.forName(info.getName());
-                if (clazz.isAnnotationPresent(ConfigureParams.class)) {
-                    ConfigureParams annotation = (ConfigureParams) clazz.getAnnotation(ConfigureParams.class);
-                    for (String param : annotation.mandatoryConfigurationParams()) {
-                        param = param.trim();
-                        if (param.length() > 0 && !info.getProperties().hasProperty(param)) {
-                            result.addErrorMessage("Mandatory configuration parameter: " + param + " is missing for component: " + info.getName());
-                        }
+    public ModelValidationResult checkModel(ModelSnapshot snapshot) {
+        ModelValidationResult result = new ModelValidationResult();
+        for (ModelSnapshot.Entry entry : snapshot.getEntries(ComponentModel.ComponentType.COMPONENT)) {
+            ConfigureParams annotation = entry.getConfigureParams();
+            if (annotation != null) {
+                for (String param : annotation.mandatoryConfigurationParams()) {
+                    param = param.trim();
+                    if (param.length() > 0 && !entry.getInfo().getProperties().hasProperty(param)) {
+                        result.addErrorMessage("Mandatory configuration parameter: " + param + " is missing for component: " + entry.getName());
                     }
-
-                    for (String param : annotation.optionalConfigurationParams()) {
-                        param = param.trim();
-                        if (param.length() > 0 && !info.getProperties().hasProperty(param)) {
-                            result.addWarningMessage("Optional configuration parameter: " + param + " is missing for component: " + info.getName());
-                        }
+                }
+                for (String param : annotation.optionalConfigurationParams()) {
+                    param = param.trim();
+                    if (param.length() > 0 && !entry.getInfo().getProperties().hasProperty(param)) {
+                        result.addWarningMessage("Optional configuration parameter: " + param + " is missing for component: " + entry.getName());
                     }
                 }
-            } catch (ClassNotFoundException e) {
-                //-- ignore
             }
         }
         return result;
@@ -30,8 +30,8 @@ package org.ib.component.model.validation;
 
 import org.ib.component.ScheduleManager;
 import org.ib.component.model.ComponentConfig;
-import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
 
 import java.lang.reflect.Constructor;
 
@@ -39,21 +39,25 @@ import java.lang.reflect.Constructor;
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/16/13
  */
-public class ComponentsValidation implements ModelValidation {
-    @SuppressWarnings("unchecked")
+public class ComponentsValidation implements SnapshotValidation {
     public ModelValidationResult checkModel(ComponentModel model) {
-        ModelValidationResult result = new ModelValidationResult();
-        for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
-            for (String componentID : model.getAllIds(type)) {
-                ComponentInfo info = model.getComponent(type, componentID);
+        return checkModel(new ModelSnapshot(model));
+    }
 
+    @SuppressWarnings("unchecked")
+    public ModelValidationResult checkModel(ModelSnapshot snapshot) {
+        ModelValidationResult result = new ModelValidationResult();
+        for (ComponentModel.ComponentType type : ComponentModel.ComponentType.values()) {
+            for (ModelSnapshot.Entry entry : snapshot.getEntries(type)) {
                 if (type == ComponentModel.ComponentType.SCHEDULER) {
-                    if (!info.getName().equals(ScheduleManager.class.getName())) {
-                        result.addErrorMessage("Invalid scheduler class: " + info.getName());
+                    if (!entry.getName().equals(ScheduleManager.class.getName())) {
+                        result.addErrorMessage("Invalid scheduler class: " + entry.getName());
                     }
+                } else if (entry.getComponentClass() == null) {
+                    result.addErrorMessage("Invalid class provided: " + entry.getName());
                 } else {
                     try {
-                        Class clazz = Class.forName(info.getName());
+                        Class<?> clazz = entry.getComponentClass();
                         Constructor constructor = null;
                         switch (type) {
                             case CLIENT:
@@ -70,12 +74,9 @@ public class ComponentsValidation implements ModelValidation {
                             constructor.setAccessible(true);
                         }
                     } catch (NoSuchMethodException e) {
-                        result.addErrorMessage("Invalid class constructor for " + info.getName());
-                    } catch (ClassNotFoundException e) {
-                        result.addErrorMessage("Invalid class provided: " + info.getName());
+                        result.addErrorMessage("Invalid class constructor for " + entry.getName());
                     }
                 }
-
             }
         }
         return result;
@@ -28,9 +28,8 @@
 
 package org.ib.component.model.validation;
 
-import org.ib.component.model.ComponentConfig;
-import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
 import org.ib.logger.LogComponent;
 
 import java.util.HashSet;
@@ -40,31 +39,28 @@ import java.util.Set;
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/16/13
  */
-public class DebugValidation implements ModelValidation {
+public class DebugValidation implements SnapshotValidation {
     public ModelValidationResult checkModel(ComponentModel model) {
+        return checkModel(new ModelSnapshot(model));
+    }
+
+    @SuppressWarnings("unchecked")
+    public ModelValidationResult checkModel(ModelSnapshot snapshot) {
         ModelValidationResult result = new ModelValidationResult();
         Set<String> debuggerSubscriptions = new HashSet<String>();
         Set<String> availableDebugChannels = new HashSet<String>();
 
         boolean loggerConfigured = false;
 
-        ComponentModel.ComponentType type = ComponentModel.ComponentType.COMPONENT;
-        for (String componentID : model.getAllIds(type)) {
-            ComponentInfo info = model.getComponent(type, componentID);
-            String hostPort = info.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME)
-                    + ":" + info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
-            try {
-                Class clazz = Class.forName(info.getName());
+        for (ModelSnapshot.Entry entry : snapshot.getEntries(ComponentModel.ComponentType.COMPONENT)) {
+            Class<?> clazz = entry.getComponentClass();
+            if (clazz != null) {
                 if (LogComponent.class.isAssignableFrom(clazz)) {
                     loggerConfigured = true;
-                    for (String publishChannel : info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
-                        debuggerSubscriptions.add(publishChannel);
-                    }
+                    debuggerSubscriptions.addAll(entry.getSubscriptions());
                 } else {
-                    availableDebugChannels.add(info.getName() + ".debug@" + hostPort);
+                    availableDebugChannels.add(entry.getName() + ".debug@" + entry.getHostPort());
                 }
-            } catch (ClassNotFoundException e) {
-                //-- ignore
             }
         }
 
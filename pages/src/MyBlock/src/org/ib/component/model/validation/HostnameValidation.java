@@ -31,6 +31,7 @@ package org.ib.component.model.validation;
 import org.ib.component.model.ComponentConfig;
 import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
 import org.ib.service.cns.CNClient;
 import org.ib.service.cns.CNService;
 import org.ib.utils.SimpleXMLParser;
@@ -51,30 +52,35 @@ import java.util.Set;
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/16/13
  */
-public class HostnameValidation implements ModelValidation {
+public class HostnameValidation implements SnapshotValidation {
     public ModelValidationResult checkModel(ComponentModel model) {
+        return checkModel(new ModelSnapshot(model));
+    }
+
+    public ModelValidationResult checkModel(ModelSnapshot snapshot) {
         ModelValidationResult result = new ModelValidationResult();
         Map<String, String> cnsModel = new HashMap<String, String>();
         Set<String> configuredServiceHostNames = new HashSet<String>();
+        // each hostname is resolved once per check
+        Map<String, Set<String>> resolvedHosts = new HashMap<String, Set<String>>();
 
-        loadCNSModel(model, configuredServiceHostNames, cnsModel, result);
+        loadCNSModel(snapshot, configuredServiceHostNames, cnsModel, result);
         if (cnsModel.isEmpty()) {
             result.addErrorMessage("No valid Computer Name list provided ...");
         } else {
-            configuredServiceHostNames = resolveHostPairs(configuredServiceHostNames, cnsModel, result);
-            validateClientsHostNames(model, configuredServiceHostNames, cnsModel, result);
-            validateComponentHostNames(model, cnsModel, result);
+            configuredServiceHostNames = resolveHostPairs(configuredServiceHostNames, cnsModel, resolvedHosts, result);
+            validateClientsHostNames(snapshot, configuredServiceHostNames, cnsModel, resolvedHosts, result);
+            validateComponentHostNames(snapshot, cnsModel, result);
         }
 
         return result;
     }
 
-    private void loadCNSModel(ComponentModel model, Set<String> configuredServiceHostNames,
+    private void loadCNSModel(ModelSnapshot snapshot, Set<String> configuredServiceHostNames,
                               Map<String, String> cnsModel, ModelValidationResult modelValidationResult) {
-        for (String componentID : model.getAllIds(ComponentModel.ComponentType.SERVICE)) {
-            ComponentInfo info = model.getComponent(ComponentModel.ComponentType.SERVICE, componentID);
-            String hostPort = info.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME) + ":"
-                    + info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
+        for (ModelSnapshot.Entry entry : snapshot.getEntries(ComponentModel.ComponentType.SERVICE)) {
+            ComponentInfo info = entry.getInfo();
+            String hostPort = entry.getHostPort();
             if (CNService.class.getName().equals(info.getName())) {
                 Map<String, String> partialModel = loadHostNames(modelValidationResult, info.getProperties());
                 if (partialModel.isEmpty()) {
@@ -117,11 +123,12 @@ public class HostnameValidation implements ModelValidation {
      *
      * @param configuredServiceHostNames - a set of host:port pairs
      * @param cnsModel                   - the computer name resolution model
+     * @param resolvedHosts              - the hostnames already resolved
      * @param modelValidationResult      - error report
      * @return a set of ip:pairs, corresponding to the configuredServiceHostNames parameter
      */
-    private Set<String> resolveHostPairs(Set<String> configuredServiceHostNames,
-                                         Map<String, String> cnsModel, ModelValidationResult modelValidationResult) {
+    private Set<String> resolveHostPairs(Set<String> configuredServiceHostNames, Map<String, String> cnsModel,
+                                         Map<String, Set<String>> resolvedHosts, ModelValidationResult modelValidationResult) {
         Set<String> result = new HashSet<String>();
         for (String item : configuredServiceHostNames) {
             String[] pair = item.split(":");
@@ -129,7 +136,7 @@ public class HostnameValidation implements ModelValidation {
             if (ip == null) {
                 modelValidationResult.addErrorMessage("Cannot resolve computer name: " + item);
             } else {
-                Set<String> realIp = getIP(ip);
+                Set<String> realIp = getIP(ip, resolvedHosts);
                 if (realIp.isEmpty()) {
                     modelValidationResult.addErrorMessage("Cannot resolve hostname: " + ip);
                 } else {
@@ -142,10 +149,10 @@ public class HostnameValidation implements ModelValidation {
         return result;
     }
 
-    private void validateClientsHostNames(ComponentModel model, Set<String> configuredServiceHostNames,
-                                          Map<String, String> cnsModel, ModelValidationResult modelValidationResult) {
-        for (String componentID : model.getAllIds(ComponentModel.ComponentType.CLIENT)) {
-            ComponentInfo info = model.getComponent(ComponentModel.ComponentType.CLIENT, componentID);
+    private void validateClientsHostNames(ModelSnapshot snapshot, Set<String> configuredServiceHostNames, Map<String, String> cnsModel,
+                                          Map<String, Set<String>> resolvedHosts, ModelValidationResult modelValidationResult) {
+        for (ModelSnapshot.Entry entry : snapshot.getEntries(ComponentModel.ComponentType.CLIENT)) {
+            ComponentInfo info = entry.getInfo();
             if (CNClient.class.getName().equals(info.getName())) {
                 String hostPort = info.getProperties().getProperty(ComponentConfig.PROPERTY_HOST)
                         + ":" + info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
@@ -158,7 +165,7 @@ public class HostnameValidation implements ModelValidation {
                     ip = info.getProperties().getProperty(ComponentConfig.PROPERTY_HOST);
                 }
 
-                Set<String> realIp = getIP(ip);
+                Set<String> realIp = getIP(ip, resolvedHosts);
                 if (realIp.isEmpty()) {
                     modelValidationResult.addErrorMessage("Cannot resolve hostname: " + ip);
                 } else {
@@ -178,11 +185,11 @@ public class HostnameValidation implements ModelValidation {
         }
     }
 
-    private void validateComponentHostNames(ComponentModel model, Map<String, String> cnsModel,
+    private void validateComponentHostNames(ModelSnapshot snapshot, Map<String, String> cnsModel,
                                             ModelValidationResult modelValidationResult) {
-        for (String componentID : model.getAllIds(ComponentModel.ComponentType.COMPONENT)) {
-            ComponentInfo info = model.getComponent(ComponentModel.ComponentType.COMPONENT, componentID);
-            for (String subscription : info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
+        for (ModelSnapshot.Entry entry : snapshot.getEntries(ComponentModel.ComponentType.COMPONENT)) {
+            ComponentInfo info = entry.getInfo();
+            for (String subscription : entry.getSubscriptions()) {
                 String[] topicHost = subscription.split("@");
                 if (topicHost.length > 1) {
                     String[] pair = topicHost[1].split(":");
@@ -205,8 +212,14 @@ public class HostnameValidation implements ModelValidation {
         return true;
     }
 
-    private Set<String> getIP(String hostname) {
-        Set<String> result = new HashSet<String>();
+    private Set<String> getIP(String hostname, Map<String, Set<String>> resolvedHosts) {
+        Set<String> result = resolvedHosts.get(hostname);
+        if (result != null) {
+            return result;
+        }
+
+        result = new HashSet<String>();
+        resolvedHosts.put(hostname, result);
         try {
             for (InetAddress item : InetAddress.getAllByName(hostname)) {
                 result.add(item.getHostAddress());
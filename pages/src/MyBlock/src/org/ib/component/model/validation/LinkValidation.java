@@ -29,10 +29,9 @@
 package org.ib.component.model.validation;
 
 import org.ib.component.annotations.ConfigureParams;
-import org.ib.component.annotations.TestClass;
-import org.ib.component.model.ComponentConfig;
-import org.ib.component.model.ComponentInfo;
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
+import org.ib.logger.LogComponent;
 
 import java.util.*;
 
@@ -40,57 +39,58 @@ import java.util.*;
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/16/13
  */
-public class LinkValidation implements ModelValidation {
+public class LinkValidation implements SnapshotValidation {
     public ModelValidationResult checkModel(ComponentModel model) {
+        return checkModel(new ModelSnapshot(model));
+    }
+
+    @SuppressWarnings("unchecked")
+    public ModelValidationResult checkModel(ModelSnapshot snapshot) {
         ModelValidationResult result = new ModelValidationResult();
         Set<String> externalChannels = new HashSet<String>();
         Set<String> systemChannels = new HashSet<String>();
-        Set<String> ignoreClazz = new HashSet<String>();
         Map<String, String> externalChannelCounter = new HashMap<String, String>();
 
-        ComponentModel.ComponentType type = ComponentModel.ComponentType.COMPONENT;
-        for (String componentID : model.getAllIds(type)) {
-            ComponentInfo info = model.getComponent(type, componentID);
-            String hostPort = info.getProperties().getProperty(ComponentConfig.PROPERTY_MACHINE_NAME)
-                    + ":" + info.getProperties().getProperty(ComponentConfig.PROPERTY_PORT);
-            try {
-                Class clazz = Class.forName(info.getName());
-                Set<String> internalChannels = new HashSet<String>();
-                if (clazz.isAnnotationPresent(TestClass.class)) {
-                    ignoreClazz.add(info.getName());
-                } else {
-                    if (clazz.isAnnotationPresent(ConfigureParams.class)) {
-                        ConfigureParams annotation = (ConfigureParams) clazz.getAnnotation(ConfigureParams.class);
+        List<ModelSnapshot.Entry> entries = snapshot.getEntries(ComponentModel.ComponentType.COMPONENT);
+        for (ModelSnapshot.Entry entry : entries) {
+            if (entry.getComponentClass() != null) {
+                String hostPort = entry.getHostPort();
+                if (!entry.isTestClass()) {
+                    Set<String> internalChannels = new HashSet<String>();
+                    ConfigureParams annotation = entry.getConfigureParams();
+                    if (annotation != null) {
                         internalChannels.addAll(Arrays.asList(annotation.outputChannels()));
                     }
 
-                    for (String publishChannel : info.getProperties().getPropertyList(ComponentConfig.PROPERTY_PUBLISH)) {
+                    for (String publishChannel : entry.getPublications()) {
                         String[] pair = publishChannel.split("@");
-                        if (!internalChannels.contains(pair[1]) && !ignoreClazz.contains(info.getName())) {
+                        if (!internalChannels.contains(pair[1])) {
                             result.addErrorMessage("Invalid internal channel binding: " + publishChannel
-                                    + " * Component: " + info.getName());
+                                    + " * Component: " + entry.getName());
                         }
                         externalChannels.add(pair[0] + "@" + hostPort);
-                        externalChannelCounter.put(pair[0] + "@" + hostPort, publishChannel + " * Component: " + info.getName());
+                        externalChannelCounter.put(pair[0] + "@" + hostPort, publishChannel + " * Component: " + entry.getName());
                     }
                 }
-                systemChannels.add(info.getName() + ".debug@" + hostPort);
-                systemChannels.add(info.getName() + ".system@" + hostPort);
-                systemChannels.add(info.getName() + ".heartbeat@" + hostPort);
-            } catch (ClassNotFoundException e) {
-                //-- ignore
+
+                systemChannels.add(entry.getName() + ".debug@" + hostPort);
+                systemChannels.add(entry.getName() + ".system@" + hostPort);
+                systemChannels.add(entry.getName() + ".heartbeat@" + hostPort);
+                systemChannels.add(entry.getName() + ".metrics@" + hostPort);
+                if (LogComponent.class.isAssignableFrom(entry.getComponentClass())) {
+                    systemChannels.add(entry.getName() + ".level@" + hostPort);
+                }
             }
         }
 
-        for (String componentID : model.getAllIds(type)) {
-            ComponentInfo info = model.getComponent(type, componentID);
-            if (!ignoreClazz.contains(info.getName())) {
-                for (String publishChannel : info.getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)) {
+        for (ModelSnapshot.Entry entry : entries) {
+            if (!entry.isTestClass()) {
+                for (String publishChannel : entry.getSubscriptions()) {
                     if (externalChannels.contains(publishChannel)) {
                         externalChannelCounter.remove(publishChannel);
                     } else if (!systemChannels.contains(publishChannel)) {
                         result.addErrorMessage("Invalid subscribe channel binding. No publish link for: " + publishChannel
-                                + " * Component: " + info.getName());
+                                + " * Component: " + entry.getName());
                     }
                 }
             }
@@ -99,6 +99,7 @@ public class LinkValidation implements ModelValidation {
         for (String externalChannel : externalChannelCounter.values()) {
             result.addWarningMessage("Invalid publish channel binding. No subscription link for: " + externalChannel);
         }
+
         return result;
     }
 }
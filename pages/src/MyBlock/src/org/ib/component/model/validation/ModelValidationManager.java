@@ -29,10 +29,13 @@
 package org.ib.component.model.validation;
 
 import org.ib.component.model.ComponentModel;
+import org.ib.component.model.ModelSnapshot;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.*;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -53,11 +56,42 @@ public class ModelValidationManager {
         }
     }
 
-    public ModelValidationResult checkComponentModel(ComponentModel model, boolean haltOnFirstError) {
-        ModelValidationResult result = new ModelValidationResult();
+    /*
+     * The validations run concurrently, on a single snapshot of the model.
+     * The results are merged in the order the validations were added.
+     */
+    public ModelValidationResult checkComponentModel(final ComponentModel model, boolean haltOnFirstError) {
+        List<ModelValidation> items;
         synchronized (validators) {
-            for (ModelValidation modelValidation : validators) {
-                ModelValidationResult partial = modelValidation.checkModel(model);
+            items = new ArrayList<ModelValidation>(validators);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, items.size()), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Model Validation");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        List<Future<ModelValidationResult>> partials = new ArrayList<Future<ModelValidationResult>>();
+        try {
+            final ModelSnapshot snapshot = new ModelSnapshot(model);
+            for (final ModelValidation modelValidation : items) {
+                partials.add(executor.submit(new Callable<ModelValidationResult>() {
+                    public ModelValidationResult call() {
+                        if (modelValidation instanceof SnapshotValidation) {
+                            return ((SnapshotValidation) modelValidation).checkModel(snapshot);
+                        } else {
+                            return modelValidation.checkModel(model);
+                        }
+                    }
+                }));
+            }
+
+            ModelValidationResult result = new ModelValidationResult();
+            for (Future<ModelValidationResult> future : partials) {
+                ModelValidationResult partial = getResult(future);
                 if (!partial.isValid()) {
                     result.addErrorMessages(partial.getErrorList());
                     if (partial.hasErrors() && haltOnFirstError) {
@@ -67,8 +101,27 @@ public class ModelValidationManager {
                     }
                 }
             }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ModelValidationResult getResult(Future<ModelValidationResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating the model", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            } else {
+                throw new IllegalStateException(e.getCause());
+            }
         }
-        return result;
     }
 
     public static void main(String[] args) {
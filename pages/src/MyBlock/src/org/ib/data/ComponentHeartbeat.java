@@ -37,13 +37,20 @@ package org.ib.data;
 public class ComponentHeartbeat implements Heartbeat {
     private String sourceID;
     private long timestamp;
+    // messages processed since the previous beat
+    private long messageCount;
 
     public ComponentHeartbeat() {
     }
 
     public ComponentHeartbeat(String sourceID, long timestamp) {
+        this(sourceID, timestamp, 0);
+    }
+
+    public ComponentHeartbeat(String sourceID, long timestamp, long messageCount) {
         this.sourceID = sourceID;
         this.timestamp = timestamp;
+        this.messageCount = messageCount;
     }
 
     public long getId() {
@@ -61,4 +68,12 @@ public class ComponentHeartbeat implements Heartbeat {
     public void setSourceID(String sourceID) {
         this.sourceID = sourceID;
     }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(long messageCount) {
+        this.messageCount = messageCount;
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the metrics registry of one component (machine:port). The counters are totals since the start,
+ * the timers report their count, total and maximum (in microseconds) over the last metrics interval,
+ * and the gauges their current value.
+ *
+ * @version 1, 10/18/26
+ */
+
+@TypeIdentification(typeID = 16)
+public class ComponentMetrics implements GenericData {
+    private long timestamp;
+    private String sourceID;
+    private Map<String, Long> counters = new HashMap<String, Long>();
+    private Map<String, Long> timers = new HashMap<String, Long>();
+    private Map<String, Long> gauges = new HashMap<String, Long>();
+
+    public ComponentMetrics() {
+    }
+
+    public ComponentMetrics(long timestamp, String sourceID) {
+        this.timestamp = timestamp;
+        this.sourceID = sourceID;
+    }
+
+    public long getId() {
+        return timestamp;
+    }
+
+    public void setId(long id) {
+        this.timestamp = id;
+    }
+
+    public String getSourceID() {
+        return sourceID;
+    }
+
+    public void setSourceID(String sourceID) {
+        this.sourceID = sourceID;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(Map<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    /*
+     * Three entries per timer: <name>.count, <name>.total and <name>.max.
+     */
+    public Map<String, Long> getTimers() {
+        return timers;
+    }
+
+    public void setTimers(Map<String, Long> timers) {
+        this.timers = timers;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public void setGauges(Map<String, Long> gauges) {
+        this.gauges = gauges;
+    }
+
+    public String toString() {
+        return String.format("%s: counters=%s timers=%s gauges=%s", sourceID, counters, timers, gauges);
+    }
+}
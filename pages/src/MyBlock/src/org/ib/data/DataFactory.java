@@ -29,11 +29,12 @@
 package org.ib.data;
 
 import org.msgpack.MessagePack;
+import org.msgpack.packer.BufferPacker;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -42,13 +43,42 @@ import java.util.Map;
 public class DataFactory {
     public static final byte[] EMPTY_BUFFER = new byte[0];
 
-    private final Map<Integer, Class> factoryTypes = new HashMap<Integer, Class>();
+    private static final int PACKER_BUFFER_SIZE = 8192;
+
+    /*
+     * Registers the types that the factory does not know yet, called once a message of an unknown type is read.
+     */
+    public interface MissingTypeLoader {
+        void loadMissingTypes();
+    }
+
+    private final Map<Integer, Class> factoryTypes = new ConcurrentHashMap<Integer, Class>();
     private MessagePack packer;
+    private volatile MissingTypeLoader missingTypeLoader = null;
+
+    // the annotation lookup is resolved once per class, not once per message
+    private final ClassValue<Integer> typeIdentifiers = new ClassValue<Integer>() {
+        protected Integer computeValue(Class<?> type) {
+            TypeIdentification identification = type.getAnnotation(TypeIdentification.class);
+            return identification == null ? null : identification.typeID();
+        }
+    };
+
+    // one reusable output buffer per publishing thread
+    private final ThreadLocal<BufferPacker> bufferPackers = new ThreadLocal<BufferPacker>() {
+        protected BufferPacker initialValue() {
+            return packer.createBufferPacker(PACKER_BUFFER_SIZE);
+        }
+    };
 
     public DataFactory(MessagePack packer) {
         this.packer = packer;
     }
 
+    public void setMissingTypeLoader(MissingTypeLoader missingTypeLoader) {
+        this.missingTypeLoader = missingTypeLoader;
+    }
+
     public void registerType(Class clazz) {
         synchronized (factoryTypes) {
             TypeIdentification identification = (TypeIdentification) clazz.getAnnotation(TypeIdentification.class);
@@ -68,28 +98,42 @@ public class DataFactory {
     }
 
     public byte[] writeObject(GenericData genericData) throws IOException {
-        TypeIdentification identification = genericData.getClass().getAnnotation(TypeIdentification.class);
-        if (identification != null) {
-            int typeID = identification.typeID();
+        Integer typeID = typeIdentifiers.get(genericData.getClass());
+        if (typeID != null) {
             Class another = factoryTypes.get(typeID);
 
             if (another == null || !another.equals(genericData.getClass())) {
                 throw new IllegalArgumentException("Invalid typeID provided, Generic Type is already registered: " + genericData.getClass().getName());
             } else {
-                byte[] className = packer.write(typeID);
-                byte[] dataBuffer = packer.write(genericData);
+                BufferPacker bufferPacker = bufferPackers.get();
+                bufferPacker.clear();
+                try {
+                    bufferPacker.write(typeID.intValue());
+                    bufferPacker.write(genericData);
 
-                return DataHelper.merge(className, dataBuffer);
+                    return bufferPacker.toByteArray();
+                } finally {
+                    bufferPacker.clear();
+                }
             }
         }
         return EMPTY_BUFFER;
     }
 
     public GenericData readObject(byte[] buffer) throws IOException {
-        ByteBuffer bbuffer = ByteBuffer.wrap(buffer);
+        return readObject(buffer, 0, buffer.length);
+    }
+
+    public GenericData readObject(byte[] buffer, int offset, int length) throws IOException {
+        ByteBuffer bbuffer = ByteBuffer.wrap(buffer, offset, length);
 
         int typeID = packer.read(bbuffer, Integer.class);
         Class classType = factoryTypes.get(typeID);
+        MissingTypeLoader loader = missingTypeLoader;
+        if (classType == null && loader != null) {
+            loader.loadMissingTypes();
+            classType = factoryTypes.get(typeID);
+        }
         if (classType == null) {
             throw new IllegalArgumentException("Invalid typeID provided, Generic Type is not registered!");
         } else {
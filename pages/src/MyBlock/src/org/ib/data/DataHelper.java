@@ -33,9 +33,13 @@ import org.ib.service.topic.TopicClient;
 import org.msgpack.MessagePack;
 import org.reflections.Reflections;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Modifier;
-import java.util.Set;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.*;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -45,17 +49,100 @@ public class DataHelper {
     private static final MessagePack packer = new MessagePack();
     private static final DataFactory factory = new DataFactory(packer);
 
+    public static final String TYPE_INDEX = "META-INF/agentslang/types.idx";
+
+    // the classpath scan for the types missing from the indexes runs once, on the first unknown type
+    private static boolean missingTypesScanned = false;
+
+    static {
+        factory.setMissingTypeLoader(new DataFactory.MissingTypeLoader() {
+            public void loadMissingTypes() {
+                scanMissingTypes();
+            }
+        });
+    }
+
+    /*
+     * The default wire format sends the topic key and the payload as two frames of the same message.
+     * The single frame format (topic key + payload merged) is kept for the older peers.
+     */
+    private static volatile boolean singleFrameFormat = false;
+
+    public static boolean isSingleFrameFormat() {
+        return singleFrameFormat;
+    }
+
+    public static void setSingleFrameFormat(boolean singleFrameFormat) {
+        DataHelper.singleFrameFormat = singleFrameFormat;
+    }
+
     public static void registerAllPrimitiveClasses() {
         // here register any funny type
         // Note: the Exception class cannot be registered
     }
 
     public static boolean registerAllGenericDataClasses() {
+        return registerAllGenericDataClasses(false);
+    }
+
+    /*
+     * The types are loaded from the build time indexes (META-INF/agentslang/types.idx),
+     * the full classpath scan is used only when no valid index is found, or when forced.
+     * The types of a module built without the index processor are found by the scan run on the first unknown type.
+     */
+    public static boolean registerAllGenericDataClasses(boolean forceScan) {
         registerAllPrimitiveClasses();
 
-        Reflections reflections = new Reflections("");
-        Set<Class<? extends GenericData>> subTypes = reflections.getSubTypesOf(GenericData.class);
+        Set<Class<? extends GenericData>> subTypes = forceScan ? null : loadTypeIndex();
+        if (subTypes == null || subTypes.isEmpty()) {
+            subTypes = scanGenericDataClasses();
+            synchronized (DataHelper.class) {
+                missingTypesScanned = true;
+            }
+        }
 
+        boolean result = registerTypes(subTypes);
+        if (result) {
+            factory.printTypeAssociations();
+        }
+        return result;
+    }
+
+    /*
+     * Registers the scanned types missing from the indexes, and reports the classpath roots they come from.
+     */
+    private static synchronized void scanMissingTypes() {
+        if (missingTypesScanned) {
+            return;
+        }
+        missingTypesScanned = true;
+
+        Set<Class<? extends GenericData>> indexed = loadTypeIndex();
+        Set<Class<? extends GenericData>> missing = new LinkedHashSet<Class<? extends GenericData>>();
+        Map<String, List<String>> roots = new TreeMap<String, List<String>>();
+        for (Class<? extends GenericData> item : scanGenericDataClasses()) {
+            if ((indexed == null || !indexed.contains(item)) && item.isAnnotationPresent(TypeIdentification.class)) {
+                missing.add(item);
+
+                CodeSource source = item.getProtectionDomain().getCodeSource();
+                String root = source == null || source.getLocation() == null ? "unknown" : source.getLocation().toString();
+                List<String> names = roots.get(root);
+                if (names == null) {
+                    names = new LinkedList<String>();
+                    roots.put(root, names);
+                }
+                names.add(item.getName());
+            }
+        }
+
+        for (Map.Entry<String, List<String>> root : roots.entrySet()) {
+            System.err.println("No " + TYPE_INDEX + " for the types of " + root.getKey()
+                    + " (built without the type index processor?): " + root.getValue());
+        }
+        registerTypes(missing);
+    }
+
+    private static boolean registerTypes(Set<Class<? extends GenericData>> subTypes) {
         boolean result = subTypes.size() > 0;
         for (Class<? extends GenericData> item : subTypes) {
             if (!item.isAnonymousClass() && !Modifier.isAbstract(item.getModifiers())) {
@@ -93,16 +180,81 @@ public class DataHelper {
                 }
             }
         }
-        if (result) {
-            factory.printTypeAssociations();
+        return result;
+    }
+
+    public static Set<Class<? extends GenericData>> loadTypeIndex() {
+        Set<Class<? extends GenericData>> result = new LinkedHashSet<Class<? extends GenericData>>();
+        ClassLoader classLoader = DataHelper.class.getClassLoader();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(TYPE_INDEX);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), "UTF-8"));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.length() > 0) {
+                            String className = line.substring(line.indexOf(' ') + 1).trim();
+                            result.add(Class.forName(className, false, classLoader).asSubclass(GenericData.class));
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Unable to read the type index: " + e.getMessage());
+            return null;
+        } catch (ClassNotFoundException e) {
+            System.err.println("Outdated type index, class not found: " + e.getMessage());
+            return null;
+        } catch (ClassCastException e) {
+            System.err.println("Invalid type index: " + e.getMessage());
+            return null;
         }
         return result;
     }
 
+    public static Set<Class<? extends GenericData>> scanGenericDataClasses() {
+        Reflections reflections = new Reflections("");
+        return reflections.getSubTypesOf(GenericData.class);
+    }
+
     public static DecodeResult decodeData(byte[] buffer) throws InvalidDataException {
         try {
             TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
-            return new DecodeResult(tc.getTopic(extractTopic(buffer)), factory.readObject(extractData(buffer)));
+            return new DecodeResult(tc.getTopic(extractTopic(buffer)),
+                    factory.readObject(buffer, TopicClient.ENCODING_SIZE, buffer.length - TopicClient.ENCODING_SIZE));
+        } catch (IOException e) {
+            throw new InvalidDataException(e);
+        }
+    }
+
+    public static DecodeResult decodeData(byte[] topic, byte[] payload) throws InvalidDataException {
+        try {
+            TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
+            return new DecodeResult(tc.getTopic(topic), factory.readObject(payload));
+        } catch (IOException e) {
+            throw new InvalidDataException(e);
+        }
+    }
+
+    /*
+     * Decodes the data of a single frame message, without its topic.
+     */
+    public static GenericData decodePayload(byte[] buffer, int offset) throws InvalidDataException {
+        try {
+            return factory.readObject(buffer, offset, buffer.length - offset);
+        } catch (IOException e) {
+            throw new InvalidDataException(e);
+        }
+    }
+
+    public static GenericData decodePayload(byte[] payload) throws InvalidDataException {
+        try {
+            return factory.readObject(payload);
         } catch (IOException e) {
             throw new InvalidDataException(e);
         }
@@ -117,6 +269,19 @@ public class DataHelper {
         }
     }
 
+    public static byte[] encodeTopic(String topic, String host) {
+        TopicClient tc = ClientManager.getClient(ClientManager.TOPIC);
+        return tc.getEncoding(topic, host);
+    }
+
+    public static byte[] encodePayload(GenericData data) throws InvalidDataException {
+        try {
+            return factory.writeObject(data);
+        } catch (IOException e) {
+            throw new InvalidDataException(e);
+        }
+    }
+
     public static byte[] merge(byte[] prefix, byte[] data) {
         byte[] result = new byte[prefix.length + data.length];
 
@@ -138,10 +303,6 @@ public class DataHelper {
         return extract(data, 0, TopicClient.ENCODING_SIZE);
     }
 
-    private static byte[] extractData(byte[] data) {
-        return extract(data, TopicClient.ENCODING_SIZE, data.length - TopicClient.ENCODING_SIZE);
-    }
-
     public static class DecodeResult {
         String topic;
         GenericData data;
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.data;
+
+/**
+ * End to end latency of one traced link (topic@host) over the last metrics interval, in microseconds.
+ *
+ * @version 1, 10/18/26
+ */
+
+@TypeIdentification(typeID = 14)
+public class LatencyMetrics implements GenericData {
+    private long timestamp;
+    private String sourceID;
+    private String link;
+    private String origin;
+    private long count;
+    private long p50;
+    private long p99;
+    private long p999;
+    private long max;
+
+    public LatencyMetrics() {
+    }
+
+    public LatencyMetrics(long timestamp, String sourceID, String link, String origin,
+                          long count, long p50, long p99, long p999, long max) {
+        this.timestamp = timestamp;
+        this.sourceID = sourceID;
+        this.link = link;
+        this.origin = origin;
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long getId() {
+        return timestamp;
+    }
+
+    public void setId(long id) {
+        this.timestamp = id;
+    }
+
+    public String getSourceID() {
+        return sourceID;
+    }
+
+    public void setSourceID(String sourceID) {
+        this.sourceID = sourceID;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public void setLink(String link) {
+        this.link = link;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public void setP999(long p999) {
+        this.p999 = p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public void setMax(long max) {
+        this.max = max;
+    }
+
+    public String toString() {
+        return String.format("%s <- %s: n=%d p50=%dus p99=%dus p999=%dus max=%dus", link, origin, count, p50, p99, p999, max);
+    }
+}
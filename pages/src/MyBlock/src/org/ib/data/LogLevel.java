@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.data;
+
+/**
+ * The minimum level of the log messages, pushed by a log component to its subscribers.
+ * A null target applies to all the subscribers, otherwise only to the components of the target class.
+ *
+ * @version 1, 10/18/26
+ */
+
+@TypeIdentification(typeID = 15)
+public class LogLevel implements GenericData {
+    private long id;
+    private int level;
+    private String target;
+
+    public LogLevel() {
+    }
+
+    public LogLevel(long id, int level, String target) {
+        this.id = id;
+        this.level = level;
+        this.target = target;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public boolean appliesTo(String className) {
+        return target == null || target.equals(className);
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+}
@@ -51,7 +51,9 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -74,6 +76,9 @@ public class ComponentViewer extends JFrame {
 
     private ColorHighlighter colorHighlighter = new ColorHighlighter();
 
+    private final Map<String, String> nodeLabels = new HashMap<String, String>();
+    private final Map<String, Long> lastBeats = new HashMap<String, Long>();
+
     public ComponentViewer() {
         this(null);
     }
@@ -223,6 +228,7 @@ public class ComponentViewer extends JFrame {
             if (graph.getNode(node.getId()) == null) {
                 graph.addNode(node.getId());
                 graph.getNode(node.getId()).setAttribute("ui.label", node.getName());
+                nodeLabels.put(node.getId(), node.getName());
             }
         }
     }
@@ -252,6 +258,21 @@ public class ComponentViewer extends JFrame {
         }
     }
 
+    /*
+     * The heartbeats carry the number of messages processed since the previous beat.
+     */
+    public synchronized void updateMessageRate(String nodeID, long timestamp, long messageCount) {
+        nodeID = componentModel.convertHostPortToUUID(nodeID);
+        if (nodeID != null) {
+            Long lastBeat = lastBeats.put(nodeID, timestamp);
+            Node graphNode = graph.getNode(nodeID);
+            if (lastBeat != null && timestamp > lastBeat && graphNode != null) {
+                double rate = messageCount * 1000.0 / (timestamp - lastBeat);
+                graphNode.setAttribute("ui.label", String.format("%s (%.1f msg/s)", nodeLabels.get(nodeID), rate));
+            }
+        }
+    }
+
     public void addMessage(int level, String source, String message) {
         if (validateSeverity(level) && validateAndUpdateName(source)) {
             StyledDocument doc = componentsLog.getStyledDocument();
@@ -66,7 +66,11 @@ public class MonitorComponent extends LogComponent {
         if (data instanceof DebugData) {
             super.handleData(data);
         } else if (data instanceof ComponentHeartbeat) {
-            handleActivity(((ComponentHeartbeat) data).getSourceID(), data.getId());
+            ComponentHeartbeat heartbeat = (ComponentHeartbeat) data;
+            handleActivity(heartbeat.getSourceID(), heartbeat.getId());
+            if (viewer != null && viewer.isVisible()) {
+                viewer.updateMessageRate(heartbeat.getSourceID(), heartbeat.getId(), heartbeat.getMessageCount());
+            }
         }
     }
 
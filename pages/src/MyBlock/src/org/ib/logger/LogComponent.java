@@ -33,16 +33,45 @@ import org.ib.component.base.SinkComponent;
 import org.ib.component.model.ComponentConfig;
 import org.ib.data.DebugData;
 import org.ib.data.GenericData;
+import org.ib.data.LogLevel;
 
 /**
+ * The components subscribed to the .level topic of the log component receive the configured log level at wake,
+ * and any level published later on.
+ *
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 11/22/12
  */
 
 @ConfigureParams(inputDataTypes = DebugData.class)
 public class LogComponent extends SinkComponent {
+    private final String levelTopic;
+    private long levelId = 0;
+
     public LogComponent(String outboundPort, ComponentConfig config) {
         super(outboundPort, config);
+
+        levelTopic = generateLevelTopic();
+        addOutboundTypeChecker(levelTopic, LogLevel.class);
+        publish(levelTopic, levelTopic);
+    }
+
+    public void systemWake() {
+        super.systemWake();
+        if (config.hasProperty(ComponentConfig.PROPERTY_LOG_LEVEL)) {
+            publishLogLevel(null, Logger.parseLevel(config.getProperty(ComponentConfig.PROPERTY_LOG_LEVEL)));
+        }
+    }
+
+    /*
+     * Sets the minimum log level of the subscribed components of the target class, or of all of them for a null target.
+     */
+    public synchronized void publishLogLevel(String target, int level) {
+        publishData(levelTopic, new LogLevel(++levelId, level, target));
+    }
+
+    protected String generateLevelTopic() {
+        return this.getClass().getName() + ".level";
     }
 
     protected void setupComponent(ComponentConfig config) {
@@ -33,10 +33,18 @@ import org.ib.data.DebugData;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * The messages are queued in a bounded buffer and published by a single thread, off the caller path.
+ * Each component has a minimum level (DEBUG by default), that may be pushed by a log component.
+ * The messages below every minimum level are rejected after a single volatile read.
+ * When the buffer is full, the messages are dropped and counted.
+ *
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 11/21/12
  */
@@ -45,14 +53,61 @@ public class Logger {
     public final static int INFORM = DebugData.INFORM;
     public final static int CRITICAL = DebugData.CRITICAL;
 
-    private final static Map<Publisher, String> topicMapper = new HashMap<Publisher, String>();
+    private static final int BUFFER_SIZE = 4096;
+    private static final long DROP_REPORT_INTERVAL = 10000;
+
+    private static final class LogTarget {
+        private final String topic;
+        private volatile int level = DEBUG;
+
+        private LogTarget(String topic) {
+            this.topic = topic;
+        }
+    }
+
+    private static final class LogEvent {
+        private final Publisher source;
+        private final LogTarget target;
+        private final int level;
+        private final String message;
+        private final Object[] args;
+        private final Throwable exception;
+
+        private LogEvent(Publisher source, LogTarget target, int level, String message, Object[] args, Throwable exception) {
+            this.source = source;
+            this.target = target;
+            this.level = level;
+            this.message = message;
+            this.args = args;
+            this.exception = exception;
+        }
+    }
+
+    private final static Map<Publisher, LogTarget> targets = new ConcurrentHashMap<Publisher, LogTarget>();
+    // the lowest minimum level of all the components
+    private static volatile int minimumLevel = DEBUG;
+
+    private static final BlockingQueue<LogEvent> buffer = new ArrayBlockingQueue<LogEvent>(BUFFER_SIZE);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static Thread publisher = null;
 
     public static void setupDebug(Publisher source) {
         String topic = generateTopic(source);
 
-        topicMapper.put(source, topic);
+        targets.put(source, new LogTarget(topic));
+        updateMinimumLevel();
         source.publish(topic, topic);
         source.addOutboundTypeChecker(topic, DebugData.class);
+        startPublisher();
+    }
+
+    /*
+     * Called when the source is closed, its queued messages are discarded by the publisher thread.
+     */
+    public static void removeTarget(Publisher source) {
+        if (targets.remove(source) != null) {
+            updateMinimumLevel();
+        }
     }
 
     public static String generateTopic(Publisher source) {
@@ -63,26 +118,187 @@ public class Logger {
         return source + ".debug";
     }
 
+    /*
+     * The messages of the source below the given level are ignored.
+     */
+    public static void setLevel(Publisher source, int level) {
+        LogTarget target = targets.get(source);
+        if (target != null) {
+            target.level = level;
+            updateMinimumLevel();
+        }
+    }
+
+    public static int getLevel(Publisher source) {
+        LogTarget target = targets.get(source);
+        return target == null ? CRITICAL : target.level;
+    }
+
+    /*
+     * Accepts the level names (DEBUG, INFORM, CRITICAL) or their values.
+     */
+    public static int parseLevel(String level) {
+        if ("DEBUG".equalsIgnoreCase(level)) {
+            return DEBUG;
+        } else if ("INFORM".equalsIgnoreCase(level)) {
+            return INFORM;
+        } else if ("CRITICAL".equalsIgnoreCase(level)) {
+            return CRITICAL;
+        } else {
+            return Integer.parseInt(level);
+        }
+    }
+
+    public static boolean isEnabled(Publisher source, int level) {
+        if (level < minimumLevel) {
+            return false;
+        }
+        LogTarget target = source == null ? null : targets.get(source);
+        return target == null ? level == CRITICAL : level >= target.level;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
     public static void log(Publisher source, int level, String message) {
-        log(source, level, message, null);
+        log(source, level, message, (Exception) null);
     }
 
     public static void log(Publisher source, int level, String message, Exception e) {
-        String topic = topicMapper.get(source);
-        if (topic != null) {
-            String exception = null;
-            if (e != null) {
-                StringWriter sw = new StringWriter();
-                PrintWriter pw = new PrintWriter(sw);
-                e.printStackTrace(pw);
-                exception = sw.toString();
+        if (level >= minimumLevel) {
+            enqueue(source, level, message, null, e);
+        }
+    }
+
+    /*
+     * Each {} of the format is replaced by the next argument, on the publisher thread.
+     * A last argument that is a Throwable, without a matching {}, is published as the exception.
+     * The arguments array is only allocated when the level is enabled.
+     */
+    public static void log(Publisher source, int level, String format, Object arg) {
+        if (level >= minimumLevel) {
+            enqueue(source, level, format, new Object[]{arg}, null);
+        }
+    }
+
+    public static void log(Publisher source, int level, String format, Object arg1, Object arg2) {
+        if (level >= minimumLevel) {
+            enqueue(source, level, format, new Object[]{arg1, arg2}, null);
+        }
+    }
+
+    public static void log(Publisher source, int level, String format, Object... args) {
+        if (level >= minimumLevel) {
+            enqueue(source, level, format, args, null);
+        }
+    }
+
+    private static void enqueue(Publisher source, int level, String message, Object[] args, Throwable e) {
+        // the source is null outside of a component
+        LogTarget target = source == null ? null : targets.get(source);
+        if (target != null) {
+            if (level >= target.level && !buffer.offer(new LogEvent(source, target, level, message, args, e))) {
+                dropped.incrementAndGet();
             }
-            source.publishData(topic, new DebugData(level, source.getClass().getName(), message, exception));
         } else if (level == CRITICAL) {
-            System.err.println(String.format("(CRITICAL)[%s] %s", source.getClass().getName(), message));
-            if (e != null) {
-                e.printStackTrace();
+            LogEvent event = new LogEvent(source, null, level, message, args, e);
+            System.err.println(String.format("(CRITICAL)[%s] %s", source == null ? "" : source.getClass().getName(), formatMessage(event)));
+            Throwable exception = getException(event);
+            if (exception != null) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    private static synchronized void updateMinimumLevel() {
+        int level = CRITICAL;
+        for (LogTarget target : targets.values()) {
+            level = Math.min(level, target.level);
+        }
+        minimumLevel = level;
+    }
+
+    private static synchronized void startPublisher() {
+        if (publisher == null) {
+            publisher = new Thread("Logger Publisher") {
+                public void run() {
+                    long reportedDrops = 0;
+                    long reportTime = 0;
+                    while (true) {
+                        try {
+                            publish(buffer.take());
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+
+                        // the drops are reported at most once per interval
+                        long drops = dropped.get();
+                        if (drops != reportedDrops && System.currentTimeMillis() - reportTime >= DROP_REPORT_INTERVAL) {
+                            System.err.println("Logger: " + (drops - reportedDrops) + " messages dropped, the log buffer is full");
+                            reportedDrops = drops;
+                            reportTime = System.currentTimeMillis();
+                        }
+                    }
+                }
+            };
+            publisher.setDaemon(true);
+            publisher.start();
+        }
+    }
+
+    private static void publish(LogEvent event) {
+        if (targets.get(event.source) != event.target) {
+            //-- the target was removed, the component is closed
+            return;
+        }
+
+        String exception = null;
+        Throwable e = getException(event);
+        if (e != null) {
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            exception = sw.toString();
+        }
+
+        try {
+            event.source.publishData(event.target.topic,
+                    new DebugData(event.level, event.source.getClass().getName(), formatMessage(event), exception));
+        } catch (RuntimeException ex) {
+            //-- the component is closed
+        }
+    }
+
+    private static String formatMessage(LogEvent event) {
+        if (event.args == null || event.args.length == 0) {
+            return event.message;
+        }
+
+        StringBuilder sb = new StringBuilder(event.message.length() + 16 * event.args.length);
+        int start = 0;
+        int arg = 0;
+        int index;
+        while (arg < event.args.length && (index = event.message.indexOf("{}", start)) >= 0) {
+            sb.append(event.message, start, index).append(event.args[arg++]);
+            start = index + 2;
+        }
+        sb.append(event.message, start, event.message.length());
+        return sb.toString();
+    }
+
+    private static Throwable getException(LogEvent event) {
+        if (event.exception != null) {
+            return event.exception;
+        } else if (event.args != null && event.args.length > 0 && event.args[event.args.length - 1] instanceof Throwable) {
+            int placeholders = 0;
+            for (int index = event.message.indexOf("{}"); index >= 0; index = event.message.indexOf("{}", index + 2)) {
+                placeholders++;
+            }
+            if (placeholders < event.args.length) {
+                return (Throwable) event.args[event.args.length - 1];
             }
         }
+        return null;
     }
 }
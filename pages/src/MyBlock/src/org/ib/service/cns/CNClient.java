@@ -28,18 +28,30 @@
 
 package org.ib.service.cns;
 
+import org.ib.component.annotations.ConfigureParams;
 import org.ib.service.generic.AbstractClient;
+import org.ib.service.generic.ResponseHandler;
+import org.ib.utils.XMLProperties;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * The resolved names are cached for cacheTTL milliseconds (one minute by default, 0 disables the cache).
+ * The names used by a platform are resolved in bulk, with {@link #prefetch(Collection)}, before the components start.
+ *
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/3/12
  */
+@ConfigureParams(optionalConfigurationParams = CNClient.P_CACHE_TTL)
 public class CNClient extends AbstractClient<String, String> {
-    private static final String IPV4_REGEX = "^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})$";
+    public static final String P_CACHE_TTL = "cacheTTL";
+    private static final long DEFAULT_CACHE_TTL = 60000;
     /*
        Computer Name client commands:
        +<computer>@<ip>     - adds a new ip
@@ -47,12 +59,34 @@ public class CNClient extends AbstractClient<String, String> {
        ?<computer>          - returns the ip of a computer
     */
 
-    private final Map<String, String> cache = new HashMap<String, String>();
+    private static class CacheEntry {
+        private final String ip;
+        private final long expires;
+
+        private CacheEntry(String ip, long expires) {
+            this.ip = ip;
+            this.expires = expires;
+        }
+    }
+
+    private final ConcurrentMap<String, CacheEntry> cache = new ConcurrentHashMap<String, CacheEntry>();
+    private volatile long cacheTTL = TimeUnit.MILLISECONDS.toNanos(DEFAULT_CACHE_TTL);
 
     public CNClient(String host, String port) {
         super(host, port);
     }
 
+    public void configure(XMLProperties properties) {
+        if (properties.hasProperty(P_CACHE_TTL)) {
+            setCacheTTL(Long.parseLong(properties.getProperty(P_CACHE_TTL)));
+        }
+    }
+
+    public void setCacheTTL(long millis) {
+        cacheTTL = TimeUnit.MILLISECONDS.toNanos(millis);
+        cache.clear();
+    }
+
     protected String convertData(byte[] data) {
         return new String(data);
     }
@@ -71,10 +105,12 @@ public class CNClient extends AbstractClient<String, String> {
 
     public void addComputerName(String computer, String ip) {
         request("+" + computer + "@" + ip);
+        cache.remove(computer);
     }
 
     public void removeComputerName(String computer) {
         request("-" + computer);
+        cache.remove(computer);
     }
 
     public String getIP(String computerName, boolean checkForIP) {
@@ -91,26 +127,75 @@ public class CNClient extends AbstractClient<String, String> {
     }
 
     public String resolveHost(String host) {
-        String port = "";
-        if (host.contains(":")) {
-            String[] items = host.split(":");
-            host = items[0];
-            port = ":" + items[1];
+        int index = host.indexOf(':');
+        if (index < 0) {
+            return getIP(host, true);
+        } else {
+            return getIP(host.substring(0, index), true) + host.substring(index);
+        }
+    }
+
+    /*
+     * Resolves all the names (with or without a port) that are not already cached, in a single pipelined batch.
+     */
+    public void prefetch(Collection<String> hosts) {
+        List<Future<String>> replies = new ArrayList<Future<String>>();
+        for (String host : hosts) {
+            int index = host.indexOf(':');
+            final String computerName = index < 0 ? host : host.substring(0, index);
+            if (!isIP(computerName) && fromCache(computerName) == null) {
+                replies.add(requestAsync("?" + computerName, new ResponseHandler<String, String>() {
+                    public String handleResponse(String response) {
+                        return cache(computerName, response);
+                    }
+                }));
+            }
         }
 
-        return getIP(host, true) + port;
+        for (Future<String> reply : replies) {
+            await(reply);
+        }
     }
 
-    private boolean isIP(String ip) {
-        return Pattern.compile(IPV4_REGEX).matcher(ip).matches();
+    /*
+     * Dotted quad check, the same as ^(\d{1,3})\.(\d{1,3})\.(\d{1,3})\.(\d{1,3})$ without the regex.
+     */
+    public static boolean isIP(String ip) {
+        int groups = 0;
+        int digits = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 3) {
+                    return false;
+                }
+            } else if (c == '.' && digits > 0 && groups < 3) {
+                groups++;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+        return groups == 3 && digits > 0;
     }
 
     private String cache(String item, String value) {
-        cache.put(item, value);
+        long ttl = cacheTTL;
+        if (ttl > 0) {
+            cache.put(item, new CacheEntry(value, System.nanoTime() + ttl));
+        }
         return value;
     }
 
     private String fromCache(String item) {
-        return cache.get(item);
+        CacheEntry entry = cache.get(item);
+        if (entry == null) {
+            return null;
+        } else if (entry.expires - System.nanoTime() < 0) {
+            cache.remove(item, entry);
+            return null;
+        } else {
+            return entry.ip;
+        }
     }
 }
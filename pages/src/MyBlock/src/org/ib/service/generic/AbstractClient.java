@@ -33,18 +33,64 @@ import org.ib.service.cns.CNClient;
 import org.ib.utils.XMLProperties;
 import org.zeromq.ZMQ;
 
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
+ * The requests are pipelined over a DEALER socket: each request is tagged with an id frame, which the service
+ * returns in the reply envelope. Both REP and ROUTER services are supported.
+ * There is no I/O thread, the callers waiting on a future receive the replies, and complete all the other futures.
+ *
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 11/23/12
  */
 public abstract class AbstractClient<Req, Rep> implements Closeable {
+    private static final byte[] DELIMITER = new byte[0];
+    // the socket is released at least this often (ms) by a waiting caller, for the other callers to send
+    private static final int RECEIVE_TIMEOUT = 10;
+
+    private class PendingRequest<T> {
+        private final ResponseHandler<Rep, T> handler;
+        private final RequestFuture<T> future = new RequestFuture<T>(AbstractClient.this);
+
+        private PendingRequest(ResponseHandler<Rep, T> handler) {
+            this.handler = handler;
+        }
+
+        private void complete(byte[] reply) {
+            try {
+                future.complete(handler.handleResponse(convertData(reply)));
+            } catch (RuntimeException e) {
+                future.fail(e);
+            }
+        }
+    }
+
+    private final ResponseHandler<Rep, Rep> identityHandler = new ResponseHandler<Rep, Rep>() {
+        public Rep handleResponse(Rep response) {
+            return response;
+        }
+    };
+
     private ZMQ.Context context;
     private ZMQ.Socket sender;
+    private String remoteHost;
+    private boolean running = true;
+
+    private final Map<Integer, PendingRequest<?>> pending = new ConcurrentHashMap<Integer, PendingRequest<?>>();
+    private final AtomicInteger requestCounter = new AtomicInteger();
 
     public AbstractClient(String host, String port) {
         context = ZMQ.context(1);
-        sender = context.socket(ZMQ.REQ);
-        sender.connect("tcp://" + resolveRemoteHost(host) + ":" + port);
+        sender = context.socket(ZMQ.DEALER);
+        sender.setLinger(0);
+        sender.setReceiveTimeOut(RECEIVE_TIMEOUT);
+        remoteHost = resolveRemoteHost(host);
+        sender.connect("tcp://" + remoteHost + ":" + port);
     }
 
     protected String resolveRemoteHost(String host) {
@@ -55,13 +101,104 @@ public abstract class AbstractClient<Req, Rep> implements Closeable {
     public void configure(XMLProperties properties) {
     }
 
-    protected synchronized Rep request(Req request) {
-        sender.send(convertData(request), 0);
-        byte[] data = sender.recv(0);
-        if (data != null) {
-            return convertData(data);
-        } else {
-            return null;
+    protected ZMQ.Context getContext() {
+        return context;
+    }
+
+    protected String getRemoteHost() {
+        return remoteHost;
+    }
+
+    /*
+     * Blocks until the reply is received, the concurrent callers share the pipeline.
+     */
+    protected Rep request(Req request) {
+        return await(requestAsync(request));
+    }
+
+    protected Future<Rep> requestAsync(Req request) {
+        return requestAsync(request, identityHandler);
+    }
+
+    protected <T> Future<T> requestAsync(Req request, ResponseHandler<Rep, T> handler) {
+        PendingRequest<T> pendingRequest = new PendingRequest<T>(handler);
+        byte[] data = convertData(request);
+
+        synchronized (sender) {
+            if (running) {
+                int id = requestCounter.incrementAndGet();
+                pending.put(id, pendingRequest);
+                sender.sendMore(ByteBuffer.allocate(4).putInt(id).array());
+                sender.sendMore(DELIMITER);
+                sender.send(data);
+            } else {
+                pendingRequest.future.fail(new IllegalStateException("Client closed"));
+            }
+        }
+        return pendingRequest.future;
+    }
+
+    /*
+     * A failed request (client closed, invalid reply) or an interrupted wait is logged,
+     * then reported by an IllegalStateException.
+     */
+    protected static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while waiting for the reply");
+            throw new IllegalStateException("Interrupted while waiting for the reply", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            System.err.println("Request failed: " + cause);
+            throw new IllegalStateException("Request failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /*
+     * Receives the replies until the future is done, or until the deadline (System.nanoTime()).
+     */
+    void receiveReplies(RequestFuture<?> future, long deadline) {
+        while (!future.isDone() && System.nanoTime() - deadline < 0) {
+            synchronized (sender) {
+                if (!running || future.isDone()) {
+                    return;
+                }
+
+                byte[] frame = sender.recv(0);
+                if (frame != null) {
+                    handleReply(frame);
+                }
+            }
+        }
+    }
+
+    /*
+     * Completes the requests with a reply already received, without blocking.
+     */
+    protected void receiveAvailableReplies() {
+        synchronized (sender) {
+            if (running) {
+                byte[] frame;
+                while ((frame = sender.recv(ZMQ.DONTWAIT)) != null) {
+                    handleReply(frame);
+                }
+            }
+        }
+    }
+
+    private void handleReply(byte[] frame) {
+        // reply envelope: request id, empty delimiter, then the reply itself
+        int id = frame.length == 4 ? ByteBuffer.wrap(frame).getInt() : -1;
+        byte[] reply = frame;
+        while (sender.hasReceiveMore()) {
+            reply = sender.recv(0);
+        }
+
+        PendingRequest<?> request = pending.remove(id);
+        if (request != null) {
+            request.complete(reply);
         }
     }
 
@@ -70,7 +207,14 @@ public abstract class AbstractClient<Req, Rep> implements Closeable {
     protected abstract byte[] convertData(Req data);
 
     public void close() {
-        sender.close();
+        synchronized (sender) {
+            running = false;
+            for (PendingRequest<?> request : pending.values()) {
+                request.future.fail(new IllegalStateException("Client closed"));
+            }
+            pending.clear();
+            sender.close();
+        }
         context.term();
     }
 }
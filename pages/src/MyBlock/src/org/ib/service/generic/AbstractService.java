@@ -32,6 +32,9 @@ import org.ib.component.base.Closeable;
 import org.ib.utils.XMLProperties;
 import org.zeromq.ZMQ;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 11/23/12
@@ -43,7 +46,7 @@ public abstract class AbstractService<Req, Rep> extends Thread implements Closea
 
     public AbstractService(String port) {
         context = ZMQ.context(1);
-        sender = context.socket(ZMQ.REP);
+        sender = context.socket(ZMQ.ROUTER);
         sender.bind("tcp://*:" + port);
     }
 
@@ -51,18 +54,39 @@ public abstract class AbstractService<Req, Rep> extends Thread implements Closea
     }
 
     public void run() {
+        List<byte[]> envelope = new ArrayList<byte[]>();
         while (running) {
+            // the envelope (peer identity, request id, delimiter) is returned as is, the request is the last frame
             byte[] data = sender.recv(0);
+            while (data != null && sender.hasReceiveMore()) {
+                envelope.add(data);
+                data = sender.recv(0);
+            }
             if (data != null) {
                 data = convertData(handleRequest(convertData(data)));
 
+                for (byte[] frame : envelope) {
+                    sender.sendMore(frame);
+                }
                 sender.send(data, 0);
             }
+            envelope.clear();
         }
+        closeService();
         sender.close();
         context.term();
     }
 
+    protected ZMQ.Context getContext() {
+        return context;
+    }
+
+    /*
+     * Called on the service thread, before the context is terminated.
+     */
+    protected void closeService() {
+    }
+
     protected abstract Req convertData(byte[] data);
 
     protected abstract byte[] convertData(Rep data);
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.service.generic;
+
+import java.util.concurrent.*;
+
+/**
+ * The pending reply of an asynchronous client request. Waiting on it receives the replies of the client,
+ * a request that nobody waits on is completed by the next caller waiting on the same client.
+ * A sent request cannot be cancelled.
+ *
+ * @version 1, 10/18/26
+ */
+public class RequestFuture<T> implements Future<T> {
+    private final AbstractClient<?, ?> client;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile T value;
+    private volatile Throwable failure;
+
+    RequestFuture(AbstractClient<?, ?> client) {
+        this.client = client;
+    }
+
+    public static <T> RequestFuture<T> completed(T value) {
+        RequestFuture<T> result = new RequestFuture<T>(null);
+        result.complete(value);
+        return result;
+    }
+
+    void complete(T value) {
+        this.value = value;
+        done.countDown();
+    }
+
+    void fail(Throwable failure) {
+        this.failure = failure;
+        done.countDown();
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    public boolean isCancelled() {
+        return false;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        while (!isDone()) {
+            receive(Long.MAX_VALUE);
+        }
+        return getValue();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        receive(unit.toNanos(timeout));
+        if (!isDone()) {
+            throw new TimeoutException();
+        }
+        return getValue();
+    }
+
+    private void receive(long timeout) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (client != null) {
+            client.receiveReplies(this, System.nanoTime() + Math.min(timeout, Long.MAX_VALUE / 2));
+        }
+        // closed client, or another caller is completing this future
+        done.await(Math.min(timeout, TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+    }
+
+    private T getValue() throws ExecutionException {
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return value;
+    }
+}
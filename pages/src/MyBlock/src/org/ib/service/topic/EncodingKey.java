@@ -50,7 +50,7 @@ public class EncodingKey {
         boolean ok = false;
         int i = 0;
         while (!ok && i < key.length) {
-            if (result.key[i] == 255) {
+            if ((result.key[i] & 0xFF) == 255) {
                 result.key[i] = 0;
                 i++;
             } else {
@@ -61,6 +61,27 @@ public class EncodingKey {
         return result;
     }
 
+    /*
+     * The value of the first length bytes of the encoding, the first byte being the least significant one,
+     * as incremented by createNewEncodingKey().
+     */
+    public static int toIndex(byte[] encoding, int length) {
+        int result = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            result = (result << 8) | (encoding[i] & 0xFF);
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        for (byte item : key) {
+            if (item != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
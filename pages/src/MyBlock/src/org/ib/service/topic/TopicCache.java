@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.service.topic;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The client side copy of the TopicService table, kept up to date by the events of the service.
+ * The lookups are lock free, the updates are applied in epoch order.
+ *
+ * A reply to a request is cached only when no change of its topic could have happened after it was generated:
+ * the epoch seen when the request was sent must be newer than the last reset, and than the last event of the topic.
+ *
+ * @version 1, 10/18/26
+ */
+public class TopicCache {
+    private final Map<String, EncodingKey> topicCache = new ConcurrentHashMap<String, EncodingKey>();
+    private final Map<EncodingKey, String> encodingCache = new ConcurrentHashMap<EncodingKey, String>();
+    // epoch of the last event of each topic
+    private final Map<String, Long> topicEpochs = new ConcurrentHashMap<String, Long>();
+
+    private volatile long epoch = 0;
+    private long resetEpoch = 0;
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public byte[] getEncoding(String topicHost) {
+        EncodingKey result = topicCache.get(topicHost);
+        return result == null ? null : result.key;
+    }
+
+    public String getTopic(byte[] encoding) {
+        return encodingCache.get(new EncodingKey(encoding));
+    }
+
+    public synchronized void reset(long epoch, Map<String, EncodingKey> topics) {
+        topicCache.clear();
+        encodingCache.clear();
+        topicEpochs.clear();
+        for (Map.Entry<String, EncodingKey> entry : topics.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+        this.epoch = epoch;
+        resetEpoch = epoch;
+    }
+
+    /*
+     * Returns false when an event was missed, the cache then needs a reset.
+     */
+    public synchronized boolean apply(long eventEpoch, boolean added, String topicHost, EncodingKey encoding) {
+        if (eventEpoch <= epoch) {
+            return true;
+        } else if (eventEpoch != epoch + 1) {
+            return false;
+        }
+
+        topicEpochs.put(topicHost, eventEpoch);
+        if (added) {
+            put(topicHost, encoding);
+        } else {
+            topicCache.remove(topicHost);
+            encodingCache.remove(encoding);
+        }
+        epoch = eventEpoch;
+        return true;
+    }
+
+    /*
+     * Caches the reply of a request sent at the given epoch, unless it may be outdated.
+     */
+    public synchronized void cacheReply(long requestEpoch, String topicHost, EncodingKey encoding) {
+        Long topicEpoch = topicEpochs.get(topicHost);
+        if (requestEpoch >= resetEpoch && (topicEpoch == null || topicEpoch <= requestEpoch)) {
+            put(topicHost, encoding);
+        }
+    }
+
+    public synchronized void invalidate(String topicHost) {
+        EncodingKey encoding = topicCache.remove(topicHost);
+        if (encoding != null) {
+            encodingCache.remove(encoding);
+        }
+    }
+
+    private void put(String topicHost, EncodingKey encoding) {
+        topicCache.put(topicHost, encoding);
+        // the reverse lookup is known as well, unless the topic could not be resolved
+        if (!encoding.isEmpty()) {
+            encodingCache.put(encoding, topicHost);
+        }
+    }
+}
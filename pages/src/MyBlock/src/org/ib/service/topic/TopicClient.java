@@ -29,9 +29,16 @@
 package org.ib.service.topic;
 
 import org.ib.service.generic.AbstractClient;
+import org.ib.service.generic.RequestFuture;
+import org.ib.service.generic.ResponseHandler;
+import org.zeromq.ZMQ;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.ib.data.StringUtils.byteUnwrap;
 import static org.ib.data.StringUtils.byteWrap;
@@ -43,19 +50,42 @@ import static org.ib.data.StringUtils.byteWrap;
 
 public class TopicClient extends AbstractClient<String, String> {
     public final static int ENCODING_SIZE = 3;
+    public final static char BULK = '*';
+    private static final int EVENTS_TIMEOUT = 100;
     /*
         Topic client commands:
         +<topic>@<host>  - adds a new topic
         -<topic>@<host>  - removes a topic
         !<topic>@<host>  - returns the encoding
         ?<encoding>      - returns a topic
+        ?*<topic>@<host>\n<topic>@<host>...
+                         - returns the encodings of all the topics, concatenated
+        =                - returns the snapshot of the topic table and its epoch
+
+        The cache is loaded from a snapshot, then updated by the events of the service.
+        A service without events (no snapshot) leaves the cache filled only by the replies, as before.
      */
 
-    private Map<String, EncodingKey> topicCache = new HashMap<String, EncodingKey>();
-    private Map<EncodingKey, String> encodingCache = new HashMap<EncodingKey, String>();
+    private final ResponseHandler<String, Boolean> confirmationHandler = new ResponseHandler<String, Boolean>() {
+        public Boolean handleResponse(String response) {
+            return response.toLowerCase().equals("t");
+        }
+    };
+
+    private final TopicCache cache = new TopicCache();
+    private final Thread eventsThread;
+    private volatile boolean running = true;
 
     public TopicClient(String host, String port) {
         super(host, port);
+
+        eventsThread = new Thread("TopicClient Events") {
+            public void run() {
+                receiveEvents();
+            }
+        };
+        eventsThread.setDaemon(true);
+        eventsThread.start();
     }
 
     protected String convertData(byte[] data) {
@@ -66,52 +96,185 @@ public class TopicClient extends AbstractClient<String, String> {
         return data.getBytes();
     }
 
+    public long getEpoch() {
+        return cache.getEpoch();
+    }
+
     public boolean addTopic(String topic, String host) {
-        String result = request("+" + topic + "@" + host);
-        return result.toLowerCase().equals("t");
+        Boolean result = await(addTopicAsync(topic, host));
+        return result != null && result;
+    }
+
+    /*
+     * The requests of a client are handled in order, a later lookup of the same topic will find it.
+     */
+    public Future<Boolean> addTopicAsync(String topic, String host) {
+        return requestAsync("+" + topic + "@" + host, confirmationHandler);
     }
 
     public boolean removeTopic(String topic, String host) {
+        cache.invalidate(topic + "@" + host);
         String result = request("-" + topic + "@" + host);
         return result.toLowerCase().equals("t");
     }
 
     public byte[] getEncoding(String topic, String host) {
-        String topicHost = topic + "@" + host;
-        byte[] result = fromEncodingCache(topicHost);
+        return await(getEncodingAsync(topic, host));
+    }
+
+    public Future<byte[]> getEncodingAsync(String topic, String host) {
+        final String topicHost = topic + "@" + host;
+        byte[] result = cache.getEncoding(topicHost);
         if (result == null) {
-            return cache(topicHost, byteWrap(request("!" + topicHost), TopicClient.ENCODING_SIZE));
+            // the reply of an earlier asynchronous lookup may be waiting
+            receiveAvailableReplies();
+            result = cache.getEncoding(topicHost);
+        }
+        if (result == null) {
+            final long requestEpoch = cache.getEpoch();
+            return requestAsync("!" + topicHost, new ResponseHandler<String, byte[]>() {
+                public byte[] handleResponse(String response) {
+                    byte[] encoding = byteWrap(response, TopicClient.ENCODING_SIZE);
+                    cache.cacheReply(requestEpoch, topicHost, new EncodingKey(encoding));
+                    return encoding;
+                }
+            });
         } else {
-            return result;
+            return RequestFuture.completed(result);
+        }
+    }
+
+    /*
+     * Resolves all the topics (topic@host) missing from the cache in a single request.
+     */
+    public Map<String, byte[]> getEncodings(Collection<String> topicHosts) {
+        final Map<String, byte[]> result = new HashMap<String, byte[]>();
+        final List<String> missing = new ArrayList<String>();
+        for (String topicHost : topicHosts) {
+            byte[] encoding = cache.getEncoding(topicHost);
+            if (encoding == null) {
+                missing.add(topicHost);
+            } else {
+                result.put(topicHost, encoding);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            StringBuilder request = new StringBuilder().append('?').append(BULK);
+            for (int i = 0; i < missing.size(); i++) {
+                request.append(i == 0 ? "" : "\n").append(missing.get(i));
+            }
+
+            long requestEpoch = cache.getEpoch();
+            String response = request(request.toString());
+            if (response != null && response.length() == missing.size() * ENCODING_SIZE) {
+                for (int i = 0; i < missing.size(); i++) {
+                    byte[] encoding = byteWrap(response.substring(i * ENCODING_SIZE, (i + 1) * ENCODING_SIZE), ENCODING_SIZE);
+                    cache.cacheReply(requestEpoch, missing.get(i), new EncodingKey(encoding));
+                    result.put(missing.get(i), encoding);
+                }
+            }
         }
+        return result;
     }
 
     public String getTopic(byte[] encoding) {
-        String result = fromTopicCache(encoding);
+        return await(getTopicAsync(encoding));
+    }
+
+    public Future<String> getTopicAsync(final byte[] encoding) {
+        String result = cache.getTopic(encoding);
         if (result == null) {
-            return cache(encoding, request("?" + byteUnwrap(encoding)));
+            final long requestEpoch = cache.getEpoch();
+            return requestAsync("?" + byteUnwrap(encoding), new ResponseHandler<String, String>() {
+                public String handleResponse(String response) {
+                    if (response.length() > 0) {
+                        cache.cacheReply(requestEpoch, response, new EncodingKey(encoding));
+                    }
+                    return response;
+                }
+            });
         } else {
-            return result;
+            return RequestFuture.completed(result);
         }
     }
 
-    private byte[] fromEncodingCache(String key) {
-        EncodingKey result = topicCache.get(key);
-        return result == null ? null : result.key;
-    }
+    private void receiveEvents() {
+        // the events port is announced by the snapshot, a service without events answers with an empty reply
+        String eventsPort = loadSnapshot();
+        if (eventsPort == null) {
+            return;
+        }
 
-    private String fromTopicCache(byte[] encoding) {
-        EncodingKey key = new EncodingKey(encoding);
-        return encodingCache.get(key);
+        ZMQ.Socket events = getContext().socket(ZMQ.SUB);
+        events.setLinger(0);
+        events.setReceiveTimeOut(EVENTS_TIMEOUT);
+        events.connect("tcp://" + getRemoteHost() + ":" + eventsPort);
+        events.subscribe(new byte[0]);
+        // the events published while connecting are covered by a second snapshot
+        loadSnapshot();
+
+        while (running) {
+            byte[] event = events.recv(0);
+            if (event != null && event.length > 9 + ENCODING_SIZE) {
+                ByteBuffer buffer = ByteBuffer.wrap(event);
+                long epoch = buffer.getLong();
+                boolean added = buffer.get() == '+';
+                byte[] encoding = new byte[ENCODING_SIZE];
+                buffer.get(encoding);
+                String topicHost = new String(event, 9 + ENCODING_SIZE, event.length - 9 - ENCODING_SIZE);
+
+                if (!cache.apply(epoch, added, topicHost, new EncodingKey(encoding))) {
+                    // missed events
+                    loadSnapshot();
+                }
+            }
+        }
+        events.close();
     }
 
-    private byte[] cache(String key, byte[] value) {
-        topicCache.put(key, new EncodingKey(value));
-        return value;
+    private String loadSnapshot() {
+        String snapshot = null;
+        Future<String> reply = requestAsync("=");
+        while (running && snapshot == null) {
+            try {
+                snapshot = reply.get(EVENTS_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                //-- the service is not available yet, or the client is closing
+            } catch (InterruptedException e) {
+                return null;
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+        if (snapshot == null || snapshot.length() == 0) {
+            return null;
+        }
+
+        int headerEnd = snapshot.indexOf('\n');
+        if (headerEnd < 0) {
+            return null;
+        }
+        String[] header = snapshot.substring(0, headerEnd).split(" ");
+        Map<String, EncodingKey> topics = new HashMap<String, EncodingKey>();
+        int position = headerEnd + 1;
+        while (position + ENCODING_SIZE < snapshot.length()) {
+            int lineEnd = snapshot.indexOf('\n', position + ENCODING_SIZE);
+            topics.put(snapshot.substring(position + ENCODING_SIZE, lineEnd),
+                    new EncodingKey(byteWrap(snapshot.substring(position, position + ENCODING_SIZE), ENCODING_SIZE)));
+            position = lineEnd + 1;
+        }
+        cache.reset(Long.parseLong(header[0]), topics);
+        return header[1];
     }
 
-    private String cache(byte[] key, String value) {
-        encodingCache.put(new EncodingKey(key), value);
-        return value;
+    public void close() {
+        running = false;
+        try {
+            eventsThread.join();
+        } catch (InterruptedException e) {
+            //-- ignore
+        }
+        super.close();
     }
 }
@@ -30,7 +30,10 @@ package org.ib.service.topic;
 
 import org.ib.component.annotations.ConfigureParams;
 import org.ib.service.generic.AbstractService;
+import org.ib.utils.XMLProperties;
+import org.zeromq.ZMQ;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,14 +44,22 @@ import static org.ib.data.StringUtils.byteWrap;
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 11/29/12
  */
-@ConfigureParams()
+@ConfigureParams(optionalConfigurationParams = TopicService.P_EVENTS_PORT)
 public class TopicService extends AbstractService<String, String> {
+    public static final String P_EVENTS_PORT = "eventsPort";
+
     /*
        Topic client commands:
        +<topic>@<host>  - adds a new topic
        -<topic>@<host>  - removes a topic
        !<topic>@<host>  - returns the encoding
        ?<encoding>      - returns a topic
+       ?*<topic>@<host>\n<topic>@<host>...
+                        - returns the encodings of all the topics (generated if needed), concatenated
+       =                - returns "<epoch> <events port>\n", then one "<encoding><topic>@<host>\n" per topic
+
+       Each change of the topic table increments the epoch, and is published on the events port (PUB):
+       <epoch:8 bytes><'+' or '-'><encoding><topic>@<host>
     */
 
     private Map<String, EncodingKey> topicCache = new HashMap<String, EncodingKey>();
@@ -56,10 +67,21 @@ public class TopicService extends AbstractService<String, String> {
 
     private EncodingKey lastEncodingKey = new EncodingKey(new byte[]{1, 0, 0});
 
+    private long epoch = 0;
+    // announced by the snapshot, a random port unless configured
+    private String eventsPort = null;
+    private ZMQ.Socket events = null;
+
     public TopicService(String port) {
         super(port);
     }
 
+    public void configure(XMLProperties properties) {
+        if (properties.hasProperty(P_EVENTS_PORT)) {
+            eventsPort = properties.getProperty(P_EVENTS_PORT);
+        }
+    }
+
     protected String convertData(byte[] data) {
         return new String(data);
     }
@@ -80,7 +102,13 @@ public class TopicService extends AbstractService<String, String> {
             case '!':
                 data = data.substring(1);
                 return getEncoding(data);
+            case '=':
+                return getSnapshot();
             case '?':
+                // an encoding may start with '*', but a bulk request is always longer
+                if (data.length() > TopicClient.ENCODING_SIZE + 1 && data.charAt(1) == TopicClient.BULK) {
+                    return getEncodings(data.substring(2));
+                }
                 data = data.substring(1);
                 return getTopic(data);
         }
@@ -93,6 +121,7 @@ public class TopicService extends AbstractService<String, String> {
 
             encodingCache.put(encoding, topicHost);
             topicCache.put(topicHost, encoding);
+            publishEvent('+', encoding, topicHost);
         }
         return "t";
     }
@@ -102,21 +131,75 @@ public class TopicService extends AbstractService<String, String> {
         if (encoding != null) {
             topicCache.remove(topicHost);
             encodingCache.remove(encoding);
+            publishEvent('-', encoding, topicHost);
         }
         return "t";
     }
 
     private EncodingKey generateEncoding() {
+        // after a full wrap around, the keys still in use are skipped
         EncodingKey current = lastEncodingKey;
-        lastEncodingKey = lastEncodingKey.createNewEncodingKey();
+        while (encodingCache.containsKey(current) || current.isEmpty()) {
+            current = current.createNewEncodingKey();
+        }
+        lastEncodingKey = current.createNewEncodingKey();
         return current;
     }
 
+    private void publishEvent(char operation, EncodingKey encoding, String topicHost) {
+        epoch++;
+        byte[] topicBytes = topicHost.getBytes();
+        getEvents().send(ByteBuffer.allocate(9 + TopicClient.ENCODING_SIZE + topicBytes.length)
+                .putLong(epoch).put((byte) operation).put(encoding.key).put(topicBytes).array(), 0);
+    }
+
+    private ZMQ.Socket getEvents() {
+        if (events == null) {
+            // created on the service thread, the only one using it
+            events = getContext().socket(ZMQ.PUB);
+            if (eventsPort == null) {
+                eventsPort = Integer.toString(events.bindToRandomPort("tcp://*"));
+            } else {
+                events.bind("tcp://*:" + eventsPort);
+            }
+        }
+        return events;
+    }
+
+    private String getSnapshot() {
+        getEvents();
+        StringBuilder sb = new StringBuilder();
+        sb.append(epoch).append(' ').append(eventsPort).append('\n');
+        for (Map.Entry<String, EncodingKey> entry : topicCache.entrySet()) {
+            sb.append(byteUnwrap(entry.getValue().key)).append(entry.getKey()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    protected void closeService() {
+        if (events != null) {
+            events.close();
+        }
+    }
+
     public String getTopic(String encoding) {
         String topic = encodingCache.get(new EncodingKey(byteWrap(encoding, TopicClient.ENCODING_SIZE)));
         return topic == null ? "" : topic;
     }
 
+    public String getEncodings(String topics) {
+        StringBuilder sb = new StringBuilder();
+        for (String topic : topics.split("\n")) {
+            if (topic.contains("@")) {
+                addTopic(topic);
+                sb.append(byteUnwrap(topicCache.get(topic).key));
+            } else {
+                sb.append(byteUnwrap(new byte[TopicClient.ENCODING_SIZE]));
+            }
+        }
+        return sb.toString();
+    }
+
     public String getEncoding(String topic) {
         if (topicCache.containsKey(topic)) {
             return byteUnwrap(topicCache.get(topic).key);
@@ -93,6 +93,13 @@ public class XMLProperties {
         return Collections.unmodifiableSet(properties.keySet());
     }
 
+    /*
+     * The properties with several values.
+     */
+    public Set<String> getListPropertyTags() {
+        return Collections.unmodifiableSet(listProperties.keySet());
+    }
+
     public boolean hasProperty(String name) {
         return properties.containsKey(name) || listProperties.containsKey(name);
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.ib.component.base.Publisher;
+import org.ib.component.base.ReactiveListener;
+import org.ib.data.GenericData;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class DispatchExecutorTest {
+    private static final String TOPIC = "topic";
+
+    private static class EmptyPublisher implements Publisher {
+        public void addOutboundTypeChecker(String internalTopic, Class<? extends GenericData> type) {
+        }
+
+        public void publish(String externalTopic, String internalTopic) {
+        }
+
+        public void publishData(String topic, GenericData data) {
+        }
+
+        public String getMachinePortPattern() {
+            return "machine1:1234";
+        }
+    }
+
+    /*
+     * Holds the lane until interrupted.
+     */
+    private static class BlockedListener implements ReactiveListener {
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        public void react(GenericData data) {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                //-- the lane is closed
+            }
+        }
+    }
+
+    @Test()
+    public void testCloseReleasesReceiver() throws InterruptedException {
+        final DispatchExecutor executor = new DispatchExecutor(new EmptyPublisher(), 1, 1, 0);
+        final BlockedListener listener = new BlockedListener();
+        assertTrue(executor.dispatch(TOPIC, listener, null));
+        assertTrue(listener.started.await(1, TimeUnit.SECONDS));
+        // fills the lane
+        assertTrue(executor.dispatch(TOPIC, listener, null));
+
+        final AtomicBoolean dispatched = new AtomicBoolean(true);
+        Thread receiver = new Thread() {
+            public void run() {
+                try {
+                    dispatched.set(executor.dispatch(TOPIC, listener, null));
+                } catch (InterruptedException e) {
+                    //-- ignore
+                }
+            }
+        };
+        receiver.start();
+        receiver.join(300);
+        assertTrue(receiver.isAlive());
+
+        executor.close();
+        receiver.join(1000);
+        assertFalse(receiver.isAlive());
+        assertFalse(dispatched.get());
+    }
+}
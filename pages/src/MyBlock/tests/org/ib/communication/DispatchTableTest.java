@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.ib.component.base.ReactiveListener;
+import org.ib.data.GenericData;
+import org.ib.service.topic.EncodingKey;
+import org.ib.service.topic.TopicClient;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class DispatchTableTest {
+    private static final String TOPIC = "StringData.data";
+    private static final String HOST_A = "machine1:1234";
+    private static final String HOST_B = "machine2:1234";
+
+    private static class EmptyListener implements ReactiveListener {
+        public void react(GenericData data) {
+        }
+    }
+
+    /*
+     * The encoding of a key value, the first byte being the least significant one.
+     */
+    private static byte[] encoding(int value, int payload) {
+        byte[] result = new byte[TopicClient.ENCODING_SIZE + payload];
+        for (int i = 0; i < TopicClient.ENCODING_SIZE; i++) {
+            result[i] = (byte) (value >> (8 * i));
+        }
+        return result;
+    }
+
+    @Test()
+    public void testEncodingIndex() {
+        EncodingKey key = new EncodingKey(new byte[TopicClient.ENCODING_SIZE]);
+        for (int i = 1; i <= 70000; i++) {
+            key = key.createNewEncodingKey();
+            if (i == 1 || i == 255 || i == 256 || i == 65536 || i == 70000) {
+                byte[] encoding = encoding(i, 0);
+                assertEquals(new EncodingKey(encoding), key);
+                assertEquals(i, EncodingKey.toIndex(encoding, TopicClient.ENCODING_SIZE));
+            }
+        }
+        assertEquals(0xFFFFFF, EncodingKey.toIndex(new byte[]{-1, -1, -1, 5}, TopicClient.ENCODING_SIZE));
+    }
+
+    @Test()
+    public void testLookup() {
+        DispatchTable table = new DispatchTable();
+        ReactiveListener listener = new EmptyListener();
+        table.add(encoding(1, 0), TOPIC, HOST_A, listener);
+        // beyond the initial size
+        table.add(encoding(1000, 0), TOPIC, HOST_B, listener);
+
+        DispatchTable.Entry entry = table.get(encoding(1, 16));
+        assertEquals(TOPIC, entry.getTopic());
+        assertEquals(TOPIC + "@" + HOST_A, entry.getTopicHost());
+        assertSame(listener, entry.getListener());
+        assertEquals(TOPIC + "@" + HOST_B, table.get(encoding(1000, 16)).getTopicHost());
+
+        assertNull(table.get(encoding(2, 16)));
+        assertNull(table.get(encoding(5000, 0)));
+        assertNull(table.get(new byte[TopicClient.ENCODING_SIZE - 1]));
+    }
+
+    @Test()
+    public void testReplaceListener() {
+        DispatchTable table = new DispatchTable();
+        ReactiveListener first = new EmptyListener();
+        ReactiveListener second = new EmptyListener();
+        table.add(encoding(1, 0), TOPIC, HOST_A, first);
+        table.add(encoding(1, 0), TOPIC, HOST_A, second);
+
+        assertSame(second, table.get(encoding(1, 0)).getListener());
+    }
+
+    @Test()
+    public void testRemove() {
+        DispatchTable table = new DispatchTable();
+        ReactiveListener listener = new EmptyListener();
+        table.add(encoding(1, 0), TOPIC, HOST_A, listener);
+        table.add(encoding(2, 0), TOPIC, HOST_B, listener);
+
+        table.remove(encoding(1, 0));
+        assertNull(table.get(encoding(1, 0)));
+        assertEquals(TOPIC + "@" + HOST_B, table.get(encoding(2, 0)).getTopicHost());
+        // unknown keys are ignored
+        table.remove(encoding(3000, 0));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.communication;
+
+import org.ib.data.GenericData;
+import org.ib.data.LanguageUtils;
+import org.ib.data.StringData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class OutboundQueueTest {
+    private static final String TOPIC = "topic";
+    private static final int CAPACITY = 4;
+
+    /*
+     * Holds the first message until released, so the queue fills up behind it.
+     */
+    private static class BlockedSender implements OutboundQueue.Sender {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<Long> sent = Collections.synchronizedList(new ArrayList<Long>());
+
+        public boolean send(String topic, GenericData data) {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                return false;
+            }
+            sent.add(data.getId());
+            return true;
+        }
+    }
+
+    private BlockedSender sender = new BlockedSender();
+    private OutboundQueue queue;
+
+    @After()
+    public void tearDown() {
+        sender.released.countDown();
+        queue.close();
+    }
+
+    private void fill(OutboundQueue.OverflowPolicy policy, int sampleRate, int count) throws InterruptedException {
+        queue = new OutboundQueue("test", CAPACITY, policy, sampleRate, sender);
+        queue.publishData(TOPIC, new StringData(0, "", LanguageUtils.IDX_NONE));
+        assertTrue(sender.started.await(1, TimeUnit.SECONDS));
+        for (int i = 1; i <= count; i++) {
+            queue.publishData(TOPIC, new StringData(i, "", LanguageUtils.IDX_NONE));
+        }
+    }
+
+    private List<Long> drain() {
+        sender.released.countDown();
+        queue.close();
+        return sender.sent;
+    }
+
+    @Test()
+    public void testDropNewest() throws InterruptedException {
+        fill(OutboundQueue.OverflowPolicy.DROP_NEWEST, 1, 10);
+        assertEquals(CAPACITY, (long) queue.getQueuedCounts().get(TOPIC));
+        assertEquals(6, (long) queue.getDroppedCounts().get(TOPIC));
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), drain());
+        assertEquals(0, (long) queue.getQueuedCounts().get(TOPIC));
+    }
+
+    @Test()
+    public void testDropOldest() throws InterruptedException {
+        fill(OutboundQueue.OverflowPolicy.DROP_OLDEST, 1, 10);
+        assertEquals(6, (long) queue.getDroppedCounts().get(TOPIC));
+        assertEquals(Arrays.asList(0L, 7L, 8L, 9L, 10L), drain());
+    }
+
+    @Test()
+    public void testSample() throws InterruptedException {
+        fill(OutboundQueue.OverflowPolicy.SAMPLE, 3, 10);
+        // the overflowing messages are 5 .. 10, messages 7 and 10 replace the oldest ones
+        assertEquals(6, (long) queue.getDroppedCounts().get(TOPIC));
+        assertEquals(Arrays.asList(0L, 3L, 4L, 7L, 10L), drain());
+    }
+
+    @Test()
+    public void testBlock() throws InterruptedException {
+        fill(OutboundQueue.OverflowPolicy.BLOCK, 1, CAPACITY);
+        Thread producer = new Thread() {
+            public void run() {
+                queue.publishData(TOPIC, new StringData(CAPACITY + 1, "", LanguageUtils.IDX_NONE));
+            }
+        };
+        producer.start();
+        producer.join(300);
+        assertTrue(producer.isAlive());
+
+        sender.released.countDown();
+        producer.join(1000);
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L), drain());
+        assertEquals(0, (long) queue.getDroppedCounts().get(TOPIC));
+    }
+
+    @Test()
+    public void testCloseStopsSender() throws InterruptedException {
+        fill(OutboundQueue.OverflowPolicy.DROP_NEWEST, 1, 2);
+        // the sender never completes by itself, it is interrupted once the close timeout expires
+        queue.close();
+        assertTrue(sender.sent.isEmpty());
+        assertEquals(1, (long) queue.getDroppedCounts().get(TOPIC));
+    }
+}
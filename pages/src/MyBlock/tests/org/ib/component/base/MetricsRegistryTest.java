@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component.base;
+
+import org.ib.data.ComponentMetrics;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class MetricsRegistryTest {
+    private static final String TIMER = "timer";
+    private static final String GAUGE = "gauge";
+
+    private MetricsRegistry registry = new MetricsRegistry();
+
+    @Test()
+    public void testSamplingExtrapolation() {
+        MetricsRegistry.Timer timer = registry.timer(TIMER, 4);
+        int sampled = 0;
+        for (int i = 0; i < 16; i++) {
+            long start = timer.start();
+            if (start != MetricsRegistry.Timer.NOT_SAMPLED) {
+                sampled++;
+            }
+            timer.stop(start);
+        }
+        assertEquals(4, sampled);
+
+        timer.record(TimeUnit.MICROSECONDS.toNanos(10));
+        ComponentMetrics snapshot = registry.snapshot("source", 0);
+        // 4 timed calls and one recorded, each standing for 4 calls
+        assertEquals(20, (long) snapshot.getTimers().get(TIMER + ".count"));
+        assertTrue(snapshot.getTimers().get(TIMER + ".total") >= 40);
+        assertTrue(snapshot.getTimers().get(TIMER + ".max") >= 10);
+    }
+
+    @Test()
+    public void testSnapshotResetsTimers() {
+        MetricsRegistry.Timer timer = registry.timer(TIMER);
+        timer.record(TimeUnit.MICROSECONDS.toNanos(5));
+        timer.record(TimeUnit.MICROSECONDS.toNanos(7));
+        registry.counter(MetricsRegistry.RECEIVED).add(3);
+
+        ComponentMetrics first = registry.snapshot("source", 1);
+        assertEquals(2, (long) first.getTimers().get(TIMER + ".count"));
+        assertEquals(12, (long) first.getTimers().get(TIMER + ".total"));
+        assertEquals(7, (long) first.getTimers().get(TIMER + ".max"));
+
+        ComponentMetrics second = registry.snapshot("source", 2);
+        assertEquals(0, (long) second.getTimers().get(TIMER + ".count"));
+        assertEquals(0, (long) second.getTimers().get(TIMER + ".total"));
+        assertEquals(0, (long) second.getTimers().get(TIMER + ".max"));
+        // the counters are totals since the start
+        assertEquals(3, (long) second.getCounters().get(MetricsRegistry.RECEIVED));
+    }
+
+    @Test()
+    public void testGauges() {
+        final AtomicLong value = new AtomicLong(5);
+        registry.gauge(GAUGE, new MetricsRegistry.Gauge() {
+            public long getValue() {
+                return value.get();
+            }
+        });
+        assertEquals(5, (long) registry.snapshot("source", 1).getGauges().get(GAUGE));
+
+        value.set(9);
+        ComponentMetrics snapshot = registry.snapshot("source", 2);
+        assertEquals("source", snapshot.getSourceID());
+        assertEquals(2, snapshot.getId());
+        assertEquals(9, (long) snapshot.getGauges().get(GAUGE));
+    }
+}
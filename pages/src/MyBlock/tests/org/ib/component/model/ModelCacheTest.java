@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.component.model;
+
+import org.ib.component.model.validation.ModelValidationResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class ModelCacheTest {
+    private static final String CNS_CONFIG = "<dns>\n    <machine>machine1@127.0.0.1</machine>\n</dns>\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File modelFile;
+    private File cnsFile;
+    private ModelCache cache;
+    private ModelValidationResult validationResult;
+
+    @Before()
+    public void setup() throws IOException {
+        modelFile = folder.newFile("model.xml");
+        cnsFile = folder.newFile("cnsService.xml");
+        write(modelFile, createModel("StringData.data@machine1:1300"));
+        write(cnsFile, CNS_CONFIG);
+
+        cache = new ModelCache(folder.newFolder("cache"));
+        validationResult = new ModelValidationResult();
+        validationResult.addWarningMessage("warning");
+    }
+
+    @Test()
+    public void testRoundTrip() throws IOException {
+        ComponentModel model = new ComponentModel(modelFile);
+        assertNull(cache.load(modelFile));
+        cache.store(modelFile, model, validationResult);
+
+        ModelCache.Entry entry = cache.load(modelFile);
+        assertNotNull(entry);
+        assertEquals(validationResult.getWarningList(), entry.getValidationResult().getWarningList());
+
+        ComponentModel cached = entry.getModel();
+        assertEquals(model.getProfiles(), cached.getProfiles());
+        assertEquals(model.getHosts(), cached.getHosts());
+        assertEquals(model.getProfileHosts(), cached.getProfileHosts());
+        for (ComponentModel.ComponentType type : model.getAvailableTypes()) {
+            assertEquals(new ArrayList<String>(model.getAllIds(type)), new ArrayList<String>(cached.getAllIds(type)));
+            for (String id : model.getAllIds(type)) {
+                ComponentInfo expected = model.getComponent(type, id);
+                ComponentInfo actual = cached.getComponent(type, id);
+                assertEquals(expected.getName(), actual.getName());
+                assertEquals(expected.getProperties().getPropertyTags(), actual.getProperties().getPropertyTags());
+                assertEquals(expected.getProperties().getListPropertyTags(), actual.getProperties().getListPropertyTags());
+                for (String tag : expected.getProperties().getPropertyTags()) {
+                    assertEquals(expected.getProperties().getProperty(tag), actual.getProperties().getProperty(tag));
+                }
+                for (String tag : expected.getProperties().getListPropertyTags()) {
+                    assertEquals(new ArrayList<String>(expected.getProperties().getPropertyList(tag)),
+                            new ArrayList<String>(actual.getProperties().getPropertyList(tag)));
+                }
+            }
+        }
+        assertEquals(model.convertHostPortToUUID("machine1:1300"), cached.convertHostPortToUUID("machine1:1300"));
+
+        String sinkId = cached.getAllIds(ComponentModel.ComponentType.COMPONENT).toArray(new String[2])[1];
+        assertEquals(Arrays.asList("StringData.data@machine1:1300", "StringData.debug@machine1:1300"),
+                new ArrayList<String>(cached.getComponent(ComponentModel.ComponentType.COMPONENT, sinkId)
+                        .getProperties().getPropertyList(ComponentConfig.PROPERTY_SUBSCRIBE)));
+    }
+
+    @Test()
+    public void testModelChanged() throws IOException {
+        cache.store(modelFile, new ComponentModel(modelFile), validationResult);
+        assertNotNull(cache.load(modelFile));
+
+        write(modelFile, createModel("StringData.data@machine1:1301"));
+        assertNull(cache.load(modelFile));
+    }
+
+    @Test()
+    public void testConfigFileChanged() throws IOException {
+        cache.store(modelFile, new ComponentModel(modelFile), validationResult);
+
+        write(cnsFile, CNS_CONFIG.replace("127.0.0.1", "127.0.0.2"));
+        assertNull(cache.load(modelFile));
+
+        // the files are compared by content
+        write(cnsFile, CNS_CONFIG);
+        assertNotNull(cache.load(modelFile));
+
+        assertTrue(cnsFile.delete());
+        assertNull(cache.load(modelFile));
+    }
+
+    @Test()
+    public void testInvalidModelNotCached() throws IOException {
+        ModelValidationResult errors = new ModelValidationResult();
+        errors.addErrorMessage("error");
+
+        cache.store(modelFile, new ComponentModel(modelFile), errors);
+        assertNull(cache.load(modelFile));
+    }
+
+    private static String createModel(String subscription) {
+        return "<project>\n" +
+                "    <profile name=\"test\" hostname=\"machine1\">\n" +
+                "        <services>\n" +
+                "            <service name=\"org.ib.service.cns.CNService\">\n" +
+                "                <port>1221</port>\n" +
+                "                <config>cnsService.xml</config>\n" +
+                "            </service>\n" +
+                "        </services>\n" +
+                "        <components>\n" +
+                "            <component name=\"test.Source\">\n" +
+                "                <port>1300</port>\n" +
+                "                <publish>StringData.data@data</publish>\n" +
+                "            </component>\n" +
+                "            <component name=\"test.Sink\">\n" +
+                "                <port>1301</port>\n" +
+                "                <subscribe>" + subscription + "</subscribe>\n" +
+                "                <subscribe>StringData.debug@machine1:1300</subscribe>\n" +
+                "            </component>\n" +
+                "        </components>\n" +
+                "    </profile>\n" +
+                "</project>\n";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
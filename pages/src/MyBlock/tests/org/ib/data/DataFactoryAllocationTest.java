@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.data;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.msgpack.MessagePack;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class DataFactoryAllocationTest {
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 100000;
+
+    // the final frame of a small message, plus the field boxing and string encoding done by the msgpack templates
+    private static final long BYTES_PER_MESSAGE = 512;
+
+    private DataFactory factory;
+    private MessagePack packer;
+
+    @Before()
+    public void setup() {
+        packer = new MessagePack();
+        factory = new DataFactory(packer);
+        factory.registerType(StringData.class);
+        factory.registerType(ComponentHeartbeat.class);
+    }
+
+    @Test()
+    public void testWireFormat() throws IOException {
+        StringData data = new StringData(7, "hello", LanguageUtils.IDX_NONE);
+
+        byte[] expected = DataHelper.merge(packer.write(3), packer.write(data));
+        assertArrayEquals(expected, factory.writeObject(data));
+
+        StringData result = (StringData) factory.readObject(factory.writeObject(data));
+        assertEquals(7, result.getId());
+        assertEquals("hello", result.getData());
+    }
+
+    @Test()
+    public void testMissingTypeLoader() throws IOException {
+        final DataFactory reader = new DataFactory(new MessagePack());
+        final int[] calls = new int[1];
+        reader.setMissingTypeLoader(new DataFactory.MissingTypeLoader() {
+            public void loadMissingTypes() {
+                calls[0]++;
+                reader.registerType(StringData.class);
+            }
+        });
+
+        byte[] message = factory.writeObject(new StringData(7, "hello", LanguageUtils.IDX_NONE));
+        assertEquals("hello", ((StringData) reader.readObject(message)).getData());
+        assertEquals("hello", ((StringData) reader.readObject(message)).getData());
+        assertEquals(1, calls[0]);
+    }
+
+    @Test()
+    public void testUnannotatedType() throws IOException {
+        assertEquals(0, factory.writeObject(new GenericData() {
+            public long getId() {
+                return 0;
+            }
+
+            public void setId(long id) {
+            }
+        }).length);
+    }
+
+    @Test()
+    public void testStringDataAllocation() throws IOException {
+        StringData data = new StringData(1, "hello world", LanguageUtils.IDX_NONE);
+        long allocated = measureAllocation(data);
+        assertTrue("Allocated " + allocated + " bytes per message", allocated <= BYTES_PER_MESSAGE);
+    }
+
+    @Test()
+    public void testHeartbeatAllocation() throws IOException {
+        ComponentHeartbeat data = new ComponentHeartbeat("machine1:1234", System.currentTimeMillis());
+        long allocated = measureAllocation(data);
+        assertTrue("Allocated " + allocated + " bytes per message", allocated <= BYTES_PER_MESSAGE);
+    }
+
+    private long measureAllocation(GenericData data) throws IOException {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadID = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            factory.writeObject(data);
+        }
+
+        long start = threadMXBean.getThreadAllocatedBytes(threadID);
+        for (int i = 0; i < ITERATIONS; i++) {
+            factory.writeObject(data);
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadID) - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.ib.logger;
+
+import org.ib.component.base.Publisher;
+import org.ib.data.GenericData;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class LoggerTest {
+    private static class CountingPublisher implements Publisher {
+        private final AtomicInteger published = new AtomicInteger();
+
+        public void addOutboundTypeChecker(String internalTopic, Class<? extends GenericData> type) {
+        }
+
+        public void publish(String externalTopic, String internalTopic) {
+        }
+
+        public void publishData(String topic, GenericData data) {
+            published.incrementAndGet();
+        }
+
+        public String getMachinePortPattern() {
+            return "localhost:0";
+        }
+    }
+
+    private CountingPublisher debug = new CountingPublisher();
+    private CountingPublisher critical = new CountingPublisher();
+
+    @After()
+    public void tearDown() {
+        Logger.removeTarget(debug);
+        Logger.removeTarget(critical);
+    }
+
+    @Test()
+    public void testRemoveTargetUpdatesMinimumLevel() {
+        Logger.setupDebug(debug);
+        Logger.setupDebug(critical);
+        Logger.setLevel(critical, Logger.CRITICAL);
+        assertTrue(Logger.isEnabled(debug, Logger.DEBUG));
+
+        Logger.removeTarget(debug);
+        assertFalse(Logger.isEnabled(debug, Logger.DEBUG));
+        assertFalse(Logger.isEnabled(critical, Logger.INFORM));
+        assertTrue(Logger.isEnabled(critical, Logger.CRITICAL));
+        assertEquals(Logger.CRITICAL, Logger.getLevel(debug));
+    }
+
+    @Test()
+    public void testRemovedTargetIsNotPublished() throws InterruptedException {
+        Logger.setupDebug(debug);
+        Logger.log(debug, Logger.DEBUG, "published");
+        waitForPublished(debug, 1);
+
+        Logger.removeTarget(debug);
+        Logger.log(debug, Logger.DEBUG, "ignored");
+        Thread.sleep(100);
+        assertEquals(1, debug.published.get());
+    }
+
+    private void waitForPublished(CountingPublisher publisher, int count) throws InterruptedException {
+        for (int i = 0; i < 100 && publisher.published.get() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, publisher.published.get());
+    }
+}
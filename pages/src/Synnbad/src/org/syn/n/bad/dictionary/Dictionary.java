@@ -54,8 +54,13 @@ public class Dictionary {
     private static final String ATT_NAME = "name";
     private static final String ATT_PREFIX = "prefix";
     private static final String TAG_CONFIG = "config";
+    private static final String ATT_CACHE_SIZE = "cacheSize";
+    private static final String ATT_SYNONYM_SNAPSHOT = "synonymSnapshot";
     private final List<AbstractDictionaryExtension> dictionaryExtensions = new LinkedList<AbstractDictionaryExtension>();
     private AbstractDictionaryExtension defaultDictionary = null;
+    private SynsetCache cache = new SynsetCache(SynsetCache.DEFAULT_CAPACITY);
+    private SynonymIndex synonymIndex;
+    private File synonymSnapshot = null;
 
     private static Dictionary instance = null;
 
@@ -104,6 +109,9 @@ public class Dictionary {
     }
 
     private void setupDictionaryExtensions(File configInput) throws DictionaryException {
+        // the files fingerprinted in the synonym snapshot
+        List<File> configFiles = new LinkedList<File>();
+        configFiles.add(configInput);
         try {
             File parentPath = configInput.getParentFile();
 
@@ -115,6 +123,20 @@ public class Dictionary {
             NodeList extensionRootList = doc.getElementsByTagName(TAG_EXTENSIONS);
             for (int i = 0; i < extensionRootList.getLength(); i++) {
                 if (extensionRootList.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                    String cacheSize = ((Element) extensionRootList.item(i)).getAttribute(ATT_CACHE_SIZE).trim();
+                    if (cacheSize.length() > 0) {
+                        try {
+                            cache = new SynsetCache(Integer.parseInt(cacheSize));
+                        } catch (NumberFormatException e) {
+                            throw new DictionaryException("Invalid cache size: " + cacheSize, e);
+                        }
+                    }
+
+                    String snapshot = ((Element) extensionRootList.item(i)).getAttribute(ATT_SYNONYM_SNAPSHOT).trim();
+                    if (snapshot.length() > 0) {
+                        synonymSnapshot = new File(parentPath, snapshot);
+                    }
+
                     NodeList extensionList = ((Element) extensionRootList.item(i)).getElementsByTagName(TAG_EXTENSION);
 
                     for (int j = 0; j < extensionList.getLength(); j++) {
@@ -134,6 +156,7 @@ public class Dictionary {
                         if (config != null) {
                             configFile = new File(parentPath, config);
                         }
+                        configFiles.add(configFile);
                         setupExtension(name, configFile, prefix);
                     }
                 }
@@ -145,6 +168,29 @@ public class Dictionary {
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
+
+        boolean restored = false;
+        try {
+            synonymIndex = new SynonymIndex(SynonymIndex.fingerprint(configFiles));
+            if (synonymSnapshot != null && synonymSnapshot.isFile()) {
+                restored = synonymIndex.load(synonymSnapshot);
+                if (!restored) {
+                    System.err.println("The synonym snapshot was built from another dictionary configuration, discarded: " + synonymSnapshot);
+                }
+            }
+        } catch (IOException e) {
+            throw new DictionaryException("Unable to load the synonym snapshot: " + synonymSnapshot, e);
+        }
+
+        if (!restored) {
+            // nothing to restore, the resources are opened now to report the setup errors
+            for (AbstractDictionaryExtension extension : dictionaryExtensions) {
+                extension.open();
+            }
+            if (defaultDictionary != null) {
+                defaultDictionary.open();
+            }
+        }
     }
 
     private void setupExtension(String name, File config, String prefix) throws DictionaryException {
@@ -178,24 +224,145 @@ public class Dictionary {
         }
     }
 
+    public SynsetCache getCache() {
+        return cache;
+    }
+
     public Word getWord(Locale language, String word, POS... pos) throws DictionaryException {
         Set<String> result = new HashSet<String>();
+        for (POS posItem : getRestrictions(pos)) {
+            result.addAll(getSynsetIDs(language, word, posItem));
+        }
 
-        List<POS> restrictions;
-        if (pos == null || pos.length == 0) {
-            restrictions = POS.getAllPOS();
-        } else {
-            restrictions = Arrays.asList(pos);
+        if (result.isEmpty() && defaultDictionary != null) {
+            result.addAll(getDefaultSynsetIDs(language, word));
         }
 
+        return new Word(word, result);
+    }
+
+    /**
+     * The same as intersecting the synsets of getWord() with the given ones, without copying the cached synsets.
+     */
+    public boolean hasCommonSynset(Locale language, String word, Set<String> synsetIds, POS... pos) throws DictionaryException {
+        boolean found = false;
+        for (POS posItem : getRestrictions(pos)) {
+            Set<String> items = getSynsetIDs(language, word, posItem);
+            found |= !items.isEmpty();
+            if (containsAny(synsetIds, items)) {
+                return true;
+            }
+        }
+
+        return !found && defaultDictionary != null && containsAny(synsetIds, getDefaultSynsetIDs(language, word));
+    }
+
+    /**
+     * @return the immutable synset ids of all the extensions, for the given POS
+     */
+    public Set<String> getSynsetIDs(Locale language, String word, POS pos) throws DictionaryException {
+        Set<String> result = cache.get(language, word, pos);
+        if (result == null) {
+            Set<String> synsetIds = new HashSet<String>();
+            List<POS> restrictions = Collections.singletonList(pos);
+            for (AbstractDictionaryExtension extension : dictionaryExtensions) {
+                synsetIds.addAll(extension.getSynsetIDs(language, word, restrictions));
+            }
+            result = cache.put(language, word, pos, synsetIds);
+        }
+        return result;
+    }
+
+    /**
+     * The forms matching the synsets of a synonym pattern word, computed once and kept in the synonym snapshot.
+     *
+     * @return the expansion, or null when an extension cannot list the forms of the word synsets
+     */
+    public SynonymExpansion getSynonymExpansion(Locale language, String word, POS... pos) throws DictionaryException {
+        List<POS> restrictions = getRestrictions(pos);
+        String key = SynonymIndex.getKey(language, word, restrictions);
+        SynonymExpansion result = synonymIndex.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        Set<String> synsetIds = getWord(language, word, pos).getSynsetIds();
+        Set<String> candidates = new HashSet<String>();
+        boolean fallback = !synsetIds.isEmpty();
+        for (String synsetId : synsetIds) {
+            Set<String> forms = getSynsetForms(synsetId);
+            if (forms == null) {
+                return null;
+            }
+            candidates.addAll(forms);
+            fallback &= defaultDictionary != null && synsetId.startsWith(defaultDictionary.getDictionaryPrefix() + "#");
+        }
+
+        // the forms of each POS resolved to the pattern synsets, as matched by hasCommonSynset()
+        Map<POS, Set<String>> forms = new EnumMap<POS, Set<String>>(POS.class);
+        for (POS posItem : POS.values()) {
+            Set<String> items = new HashSet<String>();
+            for (String candidate : candidates) {
+                if (hasCommonSynset(language, candidate, synsetIds, posItem)) {
+                    items.add(candidate);
+                }
+            }
+            forms.put(posItem, items);
+        }
+
+        result = new SynonymExpansion(forms, fallback);
+        synonymIndex.put(key, result);
+        return result;
+    }
+
+    /**
+     * @return the candidate forms of a synset, or null when no extension can list them
+     */
+    public Set<String> getSynsetForms(String synsetId) throws DictionaryException {
         for (AbstractDictionaryExtension extension : dictionaryExtensions) {
-            result.addAll(extension.getSynsetIDs(language, word, restrictions));
+            Set<String> result = extension.getSynsetForms(synsetId);
+            if (result != null) {
+                return result;
+            }
+        }
+        return defaultDictionary == null ? null : defaultDictionary.getSynsetForms(synsetId);
+    }
+
+    /**
+     * Writes the synonym expansions to the synonymSnapshot file of the configuration, when they changed.
+     */
+    public void saveSynonymSnapshot() throws DictionaryException {
+        if (synonymSnapshot != null && synonymIndex.isModified()) {
+            try {
+                synonymIndex.save(synonymSnapshot);
+            } catch (IOException e) {
+                throw new DictionaryException("Unable to save the synonym snapshot: " + synonymSnapshot, e);
+            }
         }
+    }
 
-        if (result.isEmpty() && defaultDictionary != null) {
-            result.addAll(defaultDictionary.getSynsetIDs(language, word, restrictions));
+    private Set<String> getDefaultSynsetIDs(Locale language, String word) throws DictionaryException {
+        Set<String> result = cache.get(language, word, null);
+        if (result == null) {
+            result = cache.put(language, word, null, defaultDictionary.getSynsetIDs(language, word, POS.getAllPOS()));
         }
+        return result;
+    }
 
-        return new Word(word, result);
+    private static List<POS> getRestrictions(POS... pos) {
+        if (pos == null || pos.length == 0) {
+            return POS.getAllPOS();
+        } else {
+            return Arrays.asList(pos);
+        }
+    }
+
+    private static boolean containsAny(Set<String> synsetIds, Set<String> items) {
+        for (String item : items) {
+            if (synsetIds.contains(item)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
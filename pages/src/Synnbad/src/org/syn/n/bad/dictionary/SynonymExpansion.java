@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary;
+
+import java.util.*;
+
+/**
+ * The word forms that match a synonym pattern, for each POS: a token matches the pattern when it is one of
+ * the forms of its POS restrictions. The forms are kept in open addressing tables, the match is a lookup
+ * with no dictionary access.
+ * <p/>
+ * The forms are generated from the lemmas of the pattern synsets, so the tokens that the dictionary could reduce
+ * to these lemmas in other ways (capitalized, hyphenated) are not covered: see isExact().
+ *
+ * @version 1, 10/18/26
+ */
+public final class SynonymExpansion {
+    private static final String[] EMPTY = new String[0];
+    private static final POS[] ALL_POS = POS.values();
+
+    private final String[][] tables = new String[ALL_POS.length][];
+    private final boolean fallback;
+
+    /**
+     * @param forms    the forms of each POS
+     * @param fallback true when the pattern synsets come from the default dictionary, the token must then
+     *                 be a form of all its POS restrictions (it has synsets in none of them)
+     */
+    SynonymExpansion(Map<POS, Set<String>> forms, boolean fallback) {
+        for (POS pos : ALL_POS) {
+            Set<String> items = forms.get(pos);
+            tables[pos.ordinal()] = items == null || items.isEmpty() ? EMPTY : createTable(items);
+        }
+        this.fallback = fallback;
+    }
+
+    private static String[] createTable(Set<String> items) {
+        int capacity = Integer.highestOneBit(items.size() * 2 - 1) << 1;
+        String[] table = new String[capacity];
+        for (String item : items) {
+            int index = spread(item.hashCode()) & (capacity - 1);
+            while (table[index] != null) {
+                index = (index + 1) & (capacity - 1);
+            }
+            table[index] = item;
+        }
+        return table;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean contains(String[] table, String token) {
+        if (table.length == 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int index = spread(token.hashCode()) & mask;
+        String item;
+        while ((item = table[index]) != null) {
+            if (item.equals(token)) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @param restrictions the POS of the token, all of them when empty
+     */
+    public boolean contains(String token, POS... restrictions) {
+        if (restrictions == null || restrictions.length == 0) {
+            restrictions = ALL_POS;
+        }
+        for (POS pos : restrictions) {
+            boolean found = contains(tables[pos.ordinal()], token);
+            if (found && !fallback) {
+                return true;
+            } else if (!found && fallback) {
+                return false;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * True when contains() gives the same result as the dictionary for this token.
+     * The dictionary lookups ignore the case and split the hyphenated words, while the forms are lowercase words.
+     */
+    public boolean isExact(String token) {
+        if (fallback) {
+            return true;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isUpperCase(c) || c == '-' || c == ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isFallback() {
+        return fallback;
+    }
+
+    Set<String> getForms(POS pos) {
+        Set<String> result = new HashSet<String>();
+        for (String item : tables[pos.ordinal()]) {
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
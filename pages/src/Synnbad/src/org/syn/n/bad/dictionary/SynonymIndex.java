@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The synonym expansions computed by a Dictionary, by pattern word and POS restrictions.
+ * The snapshot file keeps them across restarts, so the patterns found in it do not open the dictionary resources.
+ * Its header holds the fingerprint of the dictionary configuration files, a snapshot built from another
+ * configuration is discarded.
+ *
+ * @version 1, 10/18/26
+ */
+class SynonymIndex {
+    private static final int MAGIC = 0x53594e58;
+    private static final int VERSION = 2;
+
+    private final ConcurrentMap<String, SynonymExpansion> expansions = new ConcurrentHashMap<String, SynonymExpansion>();
+    private volatile boolean modified = false;
+    private final String fingerprint;
+
+    SynonymIndex(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /*
+     * The SHA-1 of the content of the files, the missing files and the directories are fingerprinted by their name.
+     */
+    static String fingerprint(List<File> files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[8192];
+        for (File file : files) {
+            if (!file.isFile()) {
+                digest.update(file.getName().getBytes("UTF-8"));
+            } else {
+                InputStream input = new FileInputStream(file);
+                try {
+                    int count;
+                    while ((count = input.read(buffer)) > 0) {
+                        digest.update(buffer, 0, count);
+                    }
+                } finally {
+                    input.close();
+                }
+            }
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (byte item : digest.digest()) {
+            result.append(String.format("%02x", item));
+        }
+        return result.toString();
+    }
+
+    static String getKey(Locale language, String word, List<POS> restrictions) {
+        StringBuilder result = new StringBuilder();
+        result.append(language == null ? "" : language.toString()).append('|').append(word).append('|');
+        for (POS pos : restrictions) {
+            result.append(pos.getPosLabel());
+        }
+        return result.toString();
+    }
+
+    SynonymExpansion get(String key) {
+        return expansions.get(key);
+    }
+
+    void put(String key, SynonymExpansion expansion) {
+        expansions.put(key, expansion);
+        modified = true;
+    }
+
+    int size() {
+        return expansions.size();
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /*
+     * Returns false, without loading anything, when the snapshot was written by another version
+     * or built from another dictionary configuration.
+     */
+    boolean load(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Invalid synonym snapshot: " + file);
+            }
+            if (input.readInt() != VERSION || !input.readUTF().equals(fingerprint)) {
+                return false;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = input.readUTF();
+                boolean fallback = input.readBoolean();
+                Map<POS, Set<String>> forms = new EnumMap<POS, Set<String>>(POS.class);
+                for (POS pos : POS.values()) {
+                    int size = input.readInt();
+                    Set<String> items = new HashSet<String>();
+                    for (int j = 0; j < size; j++) {
+                        items.add(input.readUTF());
+                    }
+                    forms.put(pos, items);
+                }
+                expansions.put(key, new SynonymExpansion(forms, fallback));
+            }
+            return true;
+        } finally {
+            input.close();
+        }
+    }
+
+    /*
+     * Writes a temporary file next to the snapshot, then replaces it.
+     */
+    synchronized void save(File file) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        Map<String, SynonymExpansion> items = new TreeMap<String, SynonymExpansion>(expansions);
+        modified = false;
+        try {
+            write(tempFile, fingerprint, items);
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Unable to replace the synonym snapshot: " + file);
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Unable to write the synonym snapshot: " + file);
+            }
+        } catch (IOException e) {
+            modified = true;
+            throw e;
+        }
+    }
+
+    private static void write(File file, String fingerprint, Map<String, SynonymExpansion> items) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(fingerprint);
+            output.writeInt(items.size());
+            for (Map.Entry<String, SynonymExpansion> entry : items.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeBoolean(entry.getValue().isFallback());
+                for (POS pos : POS.values()) {
+                    Set<String> forms = entry.getValue().getForms(pos);
+                    output.writeInt(forms.size());
+                    for (String form : forms) {
+                        output.writeUTF(form);
+                    }
+                }
+            }
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded (language, word, POS) to synset ids cache, shared by all the extensions of a Dictionary.
+ * The cached sets are immutable. When the cache is full, the entries are evicted in insertion order,
+ * except the ones used since their last eviction check, which get a second chance.
+ *
+ * @version 1, 10/18/26
+ */
+public class SynsetCache {
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    private final int capacity;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+    private final Queue<Key> evictionOrder = new ConcurrentLinkedQueue<Key>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of entries, 0 disables the cache
+     */
+    public SynsetCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param pos the POS of the synsets, or null for the POS independent ones
+     * @return the cached synset ids, or null when they are not cached
+     */
+    public Set<String> get(Locale language, String word, POS pos) {
+        Entry entry = entries.get(new Key(language, word, pos));
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.incrementAndGet();
+        return entry.synsetIds;
+    }
+
+    /**
+     * @return the cached copy of the synset ids, or the one cached concurrently by another thread
+     */
+    public Set<String> put(Locale language, String word, POS pos, Set<String> synsetIds) {
+        Set<String> value = synsetIds.isEmpty() ? Collections.<String>emptySet() : Collections.unmodifiableSet(new HashSet<String>(synsetIds));
+        if (capacity == 0) {
+            return value;
+        }
+
+        Key key = new Key(language, word, pos);
+        Entry entry = new Entry(value);
+        Entry previous = entries.putIfAbsent(key, entry);
+        if (previous != null) {
+            return previous.synsetIds;
+        }
+        evictionOrder.offer(key);
+        if (entries.size() > capacity) {
+            evict();
+        }
+        return value;
+    }
+
+    private void evict() {
+        while (entries.size() > capacity) {
+            Key key = evictionOrder.poll();
+            if (key == null) {
+                return;
+            }
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    evictionOrder.offer(key);
+                } else if (entries.remove(key, entry)) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /*
+     * Drops all the entries, the statistics are kept.
+     */
+    public void clear() {
+        entries.clear();
+        evictionOrder.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public String toString() {
+        return "SynsetCache{" +
+                "size=" + size() +
+                ", capacity=" + capacity +
+                ", hits=" + hits.get() +
+                ", misses=" + misses.get() +
+                ", evictions=" + evictions.get() +
+                '}';
+    }
+
+    private static final class Entry {
+        private final Set<String> synsetIds;
+        private volatile boolean referenced = false;
+
+        private Entry(Set<String> synsetIds) {
+            this.synsetIds = synsetIds;
+        }
+    }
+
+    private static final class Key {
+        private final Locale language;
+        private final String word;
+        private final POS pos;
+        private final int hash;
+
+        private Key(Locale language, String word, POS pos) {
+            this.language = language;
+            this.word = word;
+            this.pos = pos;
+            int result = language == null ? 0 : language.hashCode();
+            result = 31 * result + word.hashCode();
+            result = 31 * result + (pos == null ? 0 : pos.hashCode());
+            this.hash = result;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && word.equals(key.word) && pos == key.pos
+                    && (language == null ? key.language == null : language.equals(key.language));
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -64,5 +64,26 @@ public abstract class AbstractDictionaryExtension {
         }
     }
 
+    /**
+     * Loads the resources that the extension opens on demand. The Dictionary calls it at setup,
+     * unless the synonym patterns are restored from a snapshot.
+     */
+    public void open() throws DictionaryException {
+    }
+
+    public String getDictionaryPrefix() {
+        return dictionaryPrefix;
+    }
+
+    /**
+     * The word forms this extension resolves to one of its synsets: the lemmas of the synset and their inflections.
+     * The forms are only candidates, the synonym expansion keeps the ones that the dictionary resolves to the synset.
+     *
+     * @return the forms, or null when the extension cannot list them
+     */
+    public Set<String> getSynsetForms(String synsetID) throws DictionaryException {
+        return null;
+    }
+
     public abstract Set<String> getSynsetIDs(Locale language, String word, List<POS> restrictions) throws DictionaryException;
 }
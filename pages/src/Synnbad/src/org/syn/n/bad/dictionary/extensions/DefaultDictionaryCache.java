@@ -33,24 +33,54 @@ import org.syn.n.bad.dictionary.POS;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * The fallback of the words unknown to the other extensions: each word gets its own synset id.
+ *
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 3/20/13
  */
 public class DefaultDictionaryCache extends AbstractDictionaryExtension {
-    private final Map<String, Integer> cacheDictionary = new HashMap<String, Integer>();
+    private final ConcurrentMap<String, Integer> cacheDictionary = new ConcurrentHashMap<String, Integer>();
+    private final ConcurrentMap<Integer, String> words = new ConcurrentHashMap<Integer, String>();
+    private final AtomicInteger nextID = new AtomicInteger();
 
     public DefaultDictionaryCache(String dictionaryPrefix, File configFilePath) throws DictionaryException {
         super(dictionaryPrefix, configFilePath);
     }
 
     public Set<String> getSynsetIDs(Locale language, String word, List<POS> restrictions) throws DictionaryException {
-        Set<String> result = new HashSet<String>();
-        if (!cacheDictionary.containsKey(word)) {
-            cacheDictionary.put(word, cacheDictionary.size());
+        Integer id = cacheDictionary.get(word);
+        if (id == null) {
+            id = nextID.getAndIncrement();
+            Integer previous = cacheDictionary.putIfAbsent(word, id);
+            if (previous != null) {
+                id = previous;
+            } else {
+                words.put(id, word);
+            }
         }
-        result.add(generateID(null, cacheDictionary.get(word)));
+
+        Set<String> result = new HashSet<String>();
+        result.add(generateID(null, id));
         return result;
     }
+
+    public Set<String> getSynsetForms(String synsetID) throws DictionaryException {
+        String prefix = getDictionaryPrefix() + "#";
+        if (synsetID.startsWith(prefix)) {
+            try {
+                String word = words.get(Integer.valueOf(synsetID.substring(prefix.length())));
+                if (word != null) {
+                    return Collections.singleton(word);
+                }
+            } catch (NumberFormatException e) {
+                //-- not an id of this dictionary
+            }
+        }
+        return null;
+    }
 }
@@ -29,12 +29,24 @@
 package org.syn.n.bad.dictionary.extensions;
 
 import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.Exc;
 import net.sf.extjwnl.data.IndexWord;
+import net.sf.extjwnl.data.Synset;
+import net.sf.extjwnl.data.Word;
+import net.sf.extjwnl.dictionary.morph.*;
 import org.syn.n.bad.dictionary.DictionaryException;
 import org.syn.n.bad.dictionary.POS;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -43,6 +55,17 @@ import java.util.*;
  */
 public class JWNLDictionaryExtension extends AbstractDictionaryExtension {
     private static final Map<POS, net.sf.extjwnl.data.POS> wnPOSMapping = new HashMap<POS, net.sf.extjwnl.data.POS>();
+    private static final String TAG_DICTIONARY = "dictionary";
+    private static final String TAG_PARAM = "param";
+    private static final String ATT_NAME = "name";
+    private static final String ATT_VALUE = "value";
+    private static final String PARAM_MORPHOLOGICAL_PROCESSOR = "morphological_processor";
+    private static final String PARAM_OPERATIONS = "operations";
+    private static final String PARAM_DELIMITERS = "delimiters";
+    // the params of the delegating operations that list other operations
+    private static final Set<String> OPERATION_LISTS = new HashSet<String>(Arrays.asList(PARAM_OPERATIONS, "token_operations", "phrase_operations"));
+    // the word delimiters that the synonym expansions handle, see SynonymExpansion.isExact()
+    private static final Set<String> exactDelimiters = new HashSet<String>(Arrays.asList(" ", "-"));
 
     static {
         wnPOSMapping.put(POS.ADJECTIVE, net.sf.extjwnl.data.POS.ADJECTIVE);
@@ -51,38 +74,268 @@ public class JWNLDictionaryExtension extends AbstractDictionaryExtension {
         wnPOSMapping.put(POS.VERB, net.sf.extjwnl.data.POS.VERB);
     }
 
-    private net.sf.extjwnl.dictionary.Dictionary wnDictionary;
+    private final File configFilePath;
+    private net.sf.extjwnl.dictionary.Dictionary wnDictionary = null;
+    /*
+     * The detach suffix rules of the morphological processor configuration, as (inflection suffix, lemma suffix) pairs,
+     * used backwards to inflect the lemmas of a synset. Null when the processor may reduce a word in other ways,
+     * the synset forms are then not listed.
+     */
+    private Map<POS, String[][]> suffixRules = null;
+    // the irregular inflections of each lemma, read from the exception lists
+    private final Map<POS, Map<String, List<String>>> irregularForms = new HashMap<POS, Map<String, List<String>>>();
 
     public JWNLDictionaryExtension(String dictionaryPrefix, File configFilePath) throws DictionaryException {
         super(dictionaryPrefix, configFilePath);
+        if (configFilePath == null || !configFilePath.isFile()) {
+            throw new DictionaryException("Invalid JWNL configuration: " + configFilePath);
+        }
+        this.configFilePath = configFilePath;
+    }
+
+    public void open() throws DictionaryException {
+        getDictionary();
+    }
+
+    private synchronized net.sf.extjwnl.dictionary.Dictionary getDictionary() throws DictionaryException {
+        if (wnDictionary == null) {
+            try {
+                FileInputStream inputStream = new FileInputStream(configFilePath);
+                try {
+                    wnDictionary = net.sf.extjwnl.dictionary.Dictionary.getInstance(inputStream);
+                } finally {
+                    inputStream.close();
+                }
+            } catch (JWNLException e) {
+                throw new DictionaryException(e);
+            } catch (IOException e) {
+                throw new DictionaryException(e);
+            }
+
+            try {
+                suffixRules = readSuffixRules(configFilePath);
+            } catch (DictionaryException e) {
+                System.err.println("The synonym patterns of " + configFilePath + " are matched with the dictionary lookups, "
+                        + "the detach suffix rules cannot be read: " + e.getMessage());
+            }
+        }
+        return wnDictionary;
+    }
+
+    public Set<String> getSynsetIDs(Locale language, String word, List<POS> restrictions) throws DictionaryException {
+        Set<String> result = new HashSet<String>();
+        net.sf.extjwnl.dictionary.Dictionary dictionary = getDictionary();
+        for (POS posItem : restrictions) {
+            try {
+                IndexWord indexWord = dictionary.lookupIndexWord(wnPOSMapping.get(posItem), word);
+                if (indexWord != null) {
+                    for (long synsetOffset : indexWord.getSynsetOffsets()) {
+                        result.add(generateID(posItem, synsetOffset));
+                    }
+                }
+            } catch (JWNLException e) {
+                //-- ignore
+            }
+        }
+
+        return result;
+    }
+
+    public Set<String> getSynsetForms(String synsetID) throws DictionaryException {
+        // prefix~pos#offset
+        String prefix = getDictionaryPrefix() + "~";
+        int offsetIndex = synsetID.indexOf('#');
+        if (!synsetID.startsWith(prefix) || offsetIndex != prefix.length() + 1) {
+            return null;
+        }
+        POS pos = null;
+        for (POS item : POS.values()) {
+            if (item.getPosLabel() == synsetID.charAt(prefix.length())) {
+                pos = item;
+            }
+        }
+        if (pos == null) {
+            return null;
+        }
+
+        net.sf.extjwnl.dictionary.Dictionary dictionary = getDictionary();
+        String[][] rules;
+        synchronized (this) {
+            rules = suffixRules == null ? null : suffixRules.get(pos);
+        }
+        if (rules == null) {
+            return null;
+        }
+
         try {
-            FileInputStream inputStream = new FileInputStream(configFilePath);
-            wnDictionary = net.sf.extjwnl.dictionary.Dictionary.getInstance(inputStream);
-            inputStream.close();
+            Synset synset = dictionary.getSynsetAt(wnPOSMapping.get(pos), Long.parseLong(synsetID.substring(offsetIndex + 1)));
+            if (synset == null) {
+                return null;
+            }
+
+            Set<String> result = new HashSet<String>();
+            for (Word word : synset.getWords()) {
+                String lemma = word.getLemma().toLowerCase(Locale.ENGLISH);
+                if (lemma.indexOf(' ') < 0) {
+                    addInflections(result, lemma, rules);
+                    // a detached suffix may leave an irregular form (controlleds, controlled, control)
+                    List<String> irregular = getIrregularForms(pos).get(lemma);
+                    if (irregular != null) {
+                        for (String form : irregular) {
+                            addInflections(result, form, rules);
+                        }
+                    }
+                }
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            return null;
         } catch (JWNLException e) {
             throw new DictionaryException(e);
-        } catch (java.io.IOException e) {
+        }
+    }
+
+    private static void addInflections(Set<String> result, String form, String[][] rules) {
+        result.add(form);
+        for (String[] rule : rules) {
+            if (form.endsWith(rule[1])) {
+                result.add(form.substring(0, form.length() - rule[1].length()) + rule[0]);
+            }
+        }
+    }
+
+    /*
+     * Collects the rules of all the DetachSuffixesOperation of the morphological processor, from the JWNL configuration.
+     * The synset forms cannot be listed when the processor uses other operations, detaches the suffixes more than once,
+     * or splits the words on other delimiters.
+     */
+    private static Map<POS, String[][]> readSuffixRules(File configFile) throws DictionaryException {
+        Map<POS, Set<List<String>>> rules = new HashMap<POS, Set<List<String>>>();
+        for (POS pos : wnPOSMapping.keySet()) {
+            rules.put(pos, new LinkedHashSet<List<String>>());
+        }
+
+        try {
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(configFile);
+            NodeList dictionaryList = doc.getElementsByTagName(TAG_DICTIONARY);
+            for (int i = 0; i < dictionaryList.getLength(); i++) {
+                for (Element processor : getParams((Element) dictionaryList.item(i))) {
+                    if (PARAM_MORPHOLOGICAL_PROCESSOR.equals(processor.getAttribute(ATT_NAME))) {
+                        if (!DefaultMorphologicalProcessor.class.getName().equals(processor.getAttribute(ATT_VALUE).trim())) {
+                            throw new DictionaryException("Unsupported morphological processor: " + processor.getAttribute(ATT_VALUE));
+                        }
+                        addSuffixRules(rules, getOperations(processor), false);
+                    }
+                }
+            }
+        } catch (ParserConfigurationException e) {
+            throw new DictionaryException(e);
+        } catch (SAXException e) {
+            throw new DictionaryException(e);
+        } catch (IOException e) {
             throw new DictionaryException(e);
         }
+
+        Map<POS, String[][]> result = new HashMap<POS, String[][]>();
+        for (Map.Entry<POS, Set<List<String>>> entry : rules.entrySet()) {
+            String[][] items = new String[entry.getValue().size()][];
+            int index = 0;
+            for (List<String> rule : entry.getValue()) {
+                items[index++] = rule.toArray(new String[2]);
+            }
+            result.put(entry.getKey(), items);
+        }
+        return result;
     }
 
-    public Set<String> getSynsetIDs(Locale language, String word, List<POS> restrictions) throws DictionaryException {
-        Set<String> result = new HashSet<String>();
-        if (wnDictionary != null) {
-            for (POS posItem : restrictions) {
-                try {
-                    IndexWord indexWord = wnDictionary.lookupIndexWord(wnPOSMapping.get(posItem), word);
-                    if (indexWord != null) {
-                        for (long synsetOffset : indexWord.getSynsetOffsets()) {
-                            result.add(generateID(posItem, synsetOffset));
+    private static void addSuffixRules(Map<POS, Set<List<String>>> rules, List<Element> operations, boolean detached)
+            throws DictionaryException {
+        for (Element operation : operations) {
+            String type = operation.getAttribute(ATT_VALUE).trim();
+            boolean detach = DetachSuffixesOperation.class.getName().equals(type);
+            if (detach && !detached) {
+                for (Map.Entry<POS, Set<List<String>>> entry : rules.entrySet()) {
+                    String suffixes = getParamValue(operation, entry.getKey().name().toLowerCase(Locale.ENGLISH));
+                    if (suffixes != null) {
+                        // |inflection=lemma|...
+                        for (String item : suffixes.split("\\|")) {
+                            int index = item.indexOf('=');
+                            if (index >= 0) {
+                                entry.getValue().add(Arrays.asList(item.substring(0, index), item.substring(index + 1)));
+                            }
+                        }
+                    }
+                }
+            } else if (TokenizerOperation.class.getName().equals(type) && !detached) {
+                for (Element param : getParams(operation)) {
+                    if (PARAM_DELIMITERS.equals(param.getAttribute(ATT_NAME))) {
+                        for (Element delimiter : getParams(param)) {
+                            if (!exactDelimiters.contains(delimiter.getAttribute(ATT_VALUE))) {
+                                throw new DictionaryException("Unsupported word delimiter: '" + delimiter.getAttribute(ATT_VALUE) + "'");
+                            }
                         }
                     }
-                } catch (JWNLException e) {
-                    //-- ignore
+                }
+            } else if (!LookupIndexWordOperation.class.getName().equals(type) && !LookupExceptionsOperation.class.getName().equals(type)) {
+                throw new DictionaryException("Unsupported morphological operation: " + (detached ? "nested " : "") + type);
+            }
+
+            for (Element param : getParams(operation)) {
+                if (OPERATION_LISTS.contains(param.getAttribute(ATT_NAME))) {
+                    addSuffixRules(rules, getParams(param), detached || detach);
                 }
             }
         }
+    }
 
+    private static List<Element> getOperations(Element processor) {
+        for (Element param : getParams(processor)) {
+            if (PARAM_OPERATIONS.equals(param.getAttribute(ATT_NAME))) {
+                return getParams(param);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static String getParamValue(Element parent, String name) {
+        for (Element param : getParams(parent)) {
+            if (name.equals(param.getAttribute(ATT_NAME))) {
+                return param.getAttribute(ATT_VALUE);
+            }
+        }
+        return null;
+    }
+
+    // the param elements directly under the parent
+    private static List<Element> getParams(Element parent) {
+        List<Element> result = new LinkedList<Element>();
+        NodeList children = parent.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i).getNodeType() == Node.ELEMENT_NODE && TAG_PARAM.equals(children.item(i).getNodeName())) {
+                result.add((Element) children.item(i));
+            }
+        }
+        return result;
+    }
+
+    private synchronized Map<String, List<String>> getIrregularForms(POS pos) throws JWNLException, DictionaryException {
+        Map<String, List<String>> result = irregularForms.get(pos);
+        if (result == null) {
+            result = new HashMap<String, List<String>>();
+            Iterator<Exc> iterator = getDictionary().getExceptionIterator(wnPOSMapping.get(pos));
+            while (iterator.hasNext()) {
+                Exc exception = iterator.next();
+                for (String lemma : exception.getExceptions()) {
+                    List<String> forms = result.get(lemma);
+                    if (forms == null) {
+                        forms = new LinkedList<String>();
+                        result.put(lemma, forms);
+                    }
+                    forms.add(exception.getLemma());
+                }
+            }
+            irregularForms.put(pos, result);
+        }
         return result;
     }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary.extensions;
+
+import org.syn.n.bad.dictionary.Dictionary;
+import org.syn.n.bad.dictionary.DictionaryException;
+import org.syn.n.bad.dictionary.POS;
+import org.syn.n.bad.pattern.token.SynMatcher;
+
+import java.io.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the file of a SnapshotDictionaryExtension, from the dictionary extensions of a configuration and the
+ * [word] patterns found in the pattern and template files. The snapshot keeps:
+ * <ul>
+ * <li>the synsets of the pattern words, for all the POS</li>
+ * <li>the candidate forms of the pattern synsets, as listed by their extension</li>
+ * <li>the synsets of these forms that belong to a pattern, since the other ones never match</li>
+ * </ul>
+ * The patterns are read as English ones, the default of the PatternMatcher. The snapshot has to be rebuilt
+ * when the patterns or the dictionary resources change.
+ * <p/>
+ * Usage: SnapshotBuilder dictionaryConfig snapshotFile (patternFile | patternDirectory)+
+ *
+ * @version 1, 10/18/26
+ */
+public class SnapshotBuilder {
+    private static final Pattern SYNONYM_PATTERN = Pattern.compile("\\[([^\\[\\]\\s<>]+)\\]");
+
+    private final Dictionary dictionary;
+    private final Locale language;
+    private final Map<String, Map<POS, Set<String>>> words = new HashMap<String, Map<POS, Set<String>>>();
+    private final Set<String> synsets = new HashSet<String>();
+
+    public SnapshotBuilder(Dictionary dictionary, Locale language) {
+        this.dictionary = dictionary;
+        this.language = language;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: SnapshotBuilder dictionaryConfig snapshotFile (patternFile | patternDirectory)+");
+            System.exit(1);
+        }
+
+        try {
+            Dictionary.setupDictionary(new File(args[0]));
+            SnapshotBuilder builder = new SnapshotBuilder(Dictionary.getInstance(), Locale.ENGLISH);
+            int patterns = 0;
+            for (int i = 2; i < args.length; i++) {
+                patterns += builder.addPatterns(new File(args[i]));
+            }
+            builder.write(new File(args[1]));
+            System.out.println("Snapshot " + args[1] + ": " + patterns + " patterns, " + builder.words.size()
+                    + " words, " + builder.synsets.size() + " synsets");
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        } catch (DictionaryException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Adds the [word] patterns of a file, or of all the files of a directory.
+     *
+     * @return the number of patterns found
+     */
+    public int addPatterns(File path) throws IOException, DictionaryException {
+        int result = 0;
+        if (path.isDirectory()) {
+            File[] files = path.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    result += addPatterns(file);
+                }
+            }
+        } else {
+            Matcher matcher = SYNONYM_PATTERN.matcher(readFile(path));
+            while (matcher.find()) {
+                addPattern(matcher.group(1));
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a [word] pattern, without its brackets, parsed as the SynMatcher does.
+     */
+    public void addPattern(String pattern) throws DictionaryException {
+        SynMatcher matcher = new SynMatcher(language, pattern, true);
+        addWord(matcher.getWord(), matcher.getWordRestrictions());
+    }
+
+    public void addWord(String word, POS... restrictions) throws DictionaryException {
+        List<POS> patternPOS = restrictions.length == 0 ? POS.getAllPOS() : Arrays.asList(restrictions);
+        for (POS pos : POS.values()) {
+            Set<String> synsetIds = dictionary.getSynsetIDs(language, word, pos);
+            addSynsets(word, pos, synsetIds);
+            if (patternPOS.contains(pos)) {
+                synsets.addAll(synsetIds);
+            }
+        }
+    }
+
+    private void addSynsets(String word, POS pos, Set<String> synsetIds) {
+        if (!synsetIds.isEmpty()) {
+            String key = word.toLowerCase(Locale.ENGLISH);
+            Map<POS, Set<String>> items = words.get(key);
+            if (items == null) {
+                items = new EnumMap<POS, Set<String>>(POS.class);
+                words.put(key, items);
+            }
+            Set<String> posItems = items.get(pos);
+            if (posItems == null) {
+                posItems = new HashSet<String>();
+                items.put(pos, posItems);
+            }
+            posItems.addAll(synsetIds);
+        }
+    }
+
+    /**
+     * Resolves the forms of the pattern synsets and writes the snapshot.
+     *
+     * @throws DictionaryException when an extension cannot list the forms of a pattern synset
+     */
+    public void write(File file) throws IOException, DictionaryException {
+        Map<String, Set<String>> synsetForms = new HashMap<String, Set<String>>();
+        for (String synsetId : synsets) {
+            Set<String> forms = dictionary.getSynsetForms(synsetId);
+            if (forms == null) {
+                throw new DictionaryException("The forms of the synset " + synsetId + " cannot be listed");
+            }
+            synsetForms.put(synsetId, forms);
+
+            for (String form : forms) {
+                for (POS pos : POS.values()) {
+                    Set<String> formSynsets = new HashSet<String>(dictionary.getSynsetIDs(language, form, pos));
+                    formSynsets.retainAll(synsets);
+                    addSynsets(form, pos, formSynsets);
+                }
+            }
+        }
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        write(tempFile, words, synsetForms);
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Unable to replace the dictionary snapshot: " + file);
+        }
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Unable to write the dictionary snapshot: " + file);
+        }
+    }
+
+    /*
+     * The synsets of the words without forms (the other POS of the pattern words) are written with a 0 forms offset.
+     */
+    static void write(File file, Map<String, Map<POS, Set<String>>> words, Map<String, Set<String>> synsetForms) throws IOException {
+        final List<byte[]> keys = new ArrayList<byte[]>();
+        final List<Set<String>> values = new ArrayList<Set<String>>();
+        Set<String> synsetIds = new TreeSet<String>(synsetForms.keySet());
+        for (Map.Entry<String, Map<POS, Set<String>>> word : words.entrySet()) {
+            for (Map.Entry<POS, Set<String>> item : word.getValue().entrySet()) {
+                keys.add(SnapshotDictionaryExtension.getKey(word.getKey(), item.getKey()));
+                values.add(item.getValue());
+                synsetIds.addAll(item.getValue());
+            }
+        }
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer first, Integer second) {
+                return compareBytes(keys.get(first), keys.get(second));
+            }
+        });
+
+        Map<String, Integer> synsetIndexes = new HashMap<String, Integer>();
+        for (String synsetId : synsetIds) {
+            synsetIndexes.put(synsetId, synsetIndexes.size());
+        }
+
+        int dataOffset = SnapshotDictionaryExtension.HEADER_SIZE + (keys.size() + synsetIds.size()) * 8;
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream dataOutput = new DataOutputStream(data);
+        int[] wordTable = new int[keys.size() * 2];
+        int[] synsetTable = new int[synsetIds.size() * 2];
+
+        for (int i = 0; i < order.length; i++) {
+            wordTable[i * 2] = dataOffset + dataOutput.size();
+            writeBytes(dataOutput, keys.get(order[i]));
+            wordTable[i * 2 + 1] = dataOffset + dataOutput.size();
+            Set<String> items = values.get(order[i]);
+            dataOutput.writeShort(checkLength(items.size()));
+            for (String item : items) {
+                dataOutput.writeInt(synsetIndexes.get(item));
+            }
+        }
+
+        int index = 0;
+        for (String synsetId : synsetIds) {
+            synsetTable[index * 2] = dataOffset + dataOutput.size();
+            writeBytes(dataOutput, synsetId.getBytes(SnapshotDictionaryExtension.UTF8));
+            Set<String> forms = synsetForms.get(synsetId);
+            if (forms != null) {
+                synsetTable[index * 2 + 1] = dataOffset + dataOutput.size();
+                dataOutput.writeShort(checkLength(forms.size()));
+                for (String form : new TreeSet<String>(forms)) {
+                    writeBytes(dataOutput, form.getBytes(SnapshotDictionaryExtension.UTF8));
+                }
+            }
+            index++;
+        }
+        dataOutput.flush();
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(SnapshotDictionaryExtension.MAGIC);
+            output.writeInt(SnapshotDictionaryExtension.VERSION);
+            output.writeInt(keys.size());
+            output.writeInt(synsetIds.size());
+            for (int item : wordTable) {
+                output.writeInt(item);
+            }
+            for (int item : synsetTable) {
+                output.writeInt(item);
+            }
+            data.writeTo(output);
+        } finally {
+            output.close();
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeShort(checkLength(bytes.length));
+        output.write(bytes);
+    }
+
+    private static int checkLength(int length) throws IOException {
+        if (length > 0xffff) {
+            throw new IOException("Snapshot item too large: " + length);
+        }
+        return length;
+    }
+
+    private static int compareBytes(byte[] first, byte[] second) {
+        for (int i = 0; i < first.length && i < second.length; i++) {
+            int comparison = (first[i] & 0xff) - (second[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return first.length - second.length;
+    }
+
+    private static String readFile(File file) throws IOException {
+        StringBuilder result = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), SnapshotDictionaryExtension.UTF8);
+        try {
+            char[] buffer = new char[4096];
+            int length;
+            while ((length = reader.read(buffer)) > 0) {
+                result.append(buffer, 0, length);
+            }
+        } finally {
+            reader.close();
+        }
+        return result.toString();
+    }
+}
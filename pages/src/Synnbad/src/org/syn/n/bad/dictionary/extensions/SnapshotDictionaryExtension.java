@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary.extensions;
+
+import org.syn.n.bad.dictionary.DictionaryException;
+import org.syn.n.bad.dictionary.POS;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * Serves the synsets of the words written by the SnapshotBuilder, from a memory-mapped file, instead of opening
+ * the lexical resources. The snapshot only knows the words of the synonym patterns it was built for and the forms
+ * of their synsets, with the synset ids of the extensions it was built from. The lookups are case insensitive.
+ * <p/>
+ * The file layout, big endian:
+ * <pre>
+ * magic, version, word count, synset count
+ * word table:   (key offset, synsets offset) per word, sorted by the key bytes
+ * synset table: (id offset, forms offset) per synset, sorted by id, the forms offset is 0 for the synsets
+ *               that are not the ones of a pattern
+ * data:         keys (length, word UTF-8, 0, POS label), ids and forms (length, UTF-8),
+ *               synsets (count, synset indexes), forms (count, forms)
+ * </pre>
+ *
+ * @version 1, 10/18/26
+ */
+public class SnapshotDictionaryExtension extends AbstractDictionaryExtension {
+    static final int MAGIC = 0x53594e44;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+    private final int wordCount;
+    private final int wordTable;
+    private final int synsetTable;
+    private final String[] synsetIds;
+
+    public SnapshotDictionaryExtension(String dictionaryPrefix, File configFilePath) throws DictionaryException {
+        super(dictionaryPrefix, configFilePath);
+        if (configFilePath == null || !configFilePath.isFile()) {
+            throw new DictionaryException("Invalid dictionary snapshot: " + configFilePath);
+        }
+
+        try {
+            RandomAccessFile file = new RandomAccessFile(configFilePath, "r");
+            try {
+                // the mapping stays valid after the file is closed
+                buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            } finally {
+                file.close();
+            }
+        } catch (IOException e) {
+            throw new DictionaryException(e);
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new DictionaryException("Invalid dictionary snapshot: " + configFilePath);
+        }
+        wordCount = buffer.getInt(8);
+        wordTable = HEADER_SIZE;
+        synsetTable = wordTable + wordCount * 8;
+
+        // only the synsets of the patterns, small enough to be decoded once
+        synsetIds = new String[buffer.getInt(12)];
+        for (int i = 0; i < synsetIds.length; i++) {
+            synsetIds[i] = readString(buffer.getInt(synsetTable + i * 8));
+        }
+    }
+
+    public Set<String> getSynsetIDs(Locale language, String word, List<POS> restrictions) throws DictionaryException {
+        Set<String> result = new HashSet<String>();
+        byte[] key = word.toLowerCase(Locale.ENGLISH).getBytes(UTF8);
+        for (POS posItem : restrictions) {
+            int index = findWord(key, (byte) posItem.getPosLabel());
+            if (index >= 0) {
+                int offset = buffer.getInt(wordTable + index * 8 + 4);
+                int count = buffer.getShort(offset) & 0xffff;
+                for (int i = 0; i < count; i++) {
+                    result.add(synsetIds[buffer.getInt(offset + 2 + i * 4)]);
+                }
+            }
+        }
+        return result;
+    }
+
+    public Set<String> getSynsetForms(String synsetID) throws DictionaryException {
+        int index = Arrays.binarySearch(synsetIds, synsetID);
+        int offset = index < 0 ? 0 : buffer.getInt(synsetTable + index * 8 + 4);
+        if (offset == 0) {
+            // not a synset of this snapshot, or not one of the patterns
+            return null;
+        }
+
+        Set<String> result = new HashSet<String>();
+        int count = buffer.getShort(offset) & 0xffff;
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            result.add(readString(offset));
+            offset += 2 + (buffer.getShort(offset) & 0xffff);
+        }
+        return result;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public int getSynsetCount() {
+        return synsetIds.length;
+    }
+
+    /*
+     * Binary search of the word table, comparing the unsigned key bytes in place.
+     */
+    private int findWord(byte[] word, byte posLabel) {
+        int low = 0;
+        int high = wordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareKey(buffer.getInt(wordTable + middle * 8), word, posLabel);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int offset, byte[] word, byte posLabel) {
+        int length = buffer.getShort(offset) & 0xffff;
+        offset += 2;
+        int keyLength = word.length + 2;
+        for (int i = 0; i < length && i < keyLength; i++) {
+            int item = buffer.get(offset + i) & 0xff;
+            int other = i < word.length ? word[i] & 0xff : (i == word.length ? 0 : posLabel & 0xff);
+            if (item != other) {
+                return item - other;
+            }
+        }
+        return length - keyLength;
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[buffer.getShort(offset) & 0xffff];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, UTF8);
+    }
+
+    static byte[] getKey(String word, POS pos) {
+        byte[] bytes = word.getBytes(UTF8);
+        byte[] result = Arrays.copyOf(bytes, bytes.length + 2);
+        result[bytes.length + 1] = (byte) pos.getPosLabel();
+        return result;
+    }
+}
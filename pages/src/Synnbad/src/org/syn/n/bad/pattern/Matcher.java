@@ -34,6 +34,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -41,12 +42,28 @@ import java.util.Map;
  */
 public class Matcher {
     private final List<PatternMatcher> matchers = new LinkedList<PatternMatcher>();
-    private final Map<String, String> styleLabels = new HashMap<String, String>();
+    private final Map<String, String> styleLabels = new ConcurrentHashMap<String, String>();
+    private final boolean backtracking;
+    // compiled on the first match after a change of the patterns
+    private volatile PatternAutomaton automaton = null;
+
+    public Matcher() {
+        this(false);
+    }
+
+    /**
+     * @param backtracking when true, the patterns are matched with PatternMatcher.find(), without holding a lock.
+     *                     The default is the greedy PatternMatcher.match().
+     */
+    public Matcher(boolean backtracking) {
+        this.backtracking = backtracking;
+    }
 
     public void addMatcher(PatternMatcher matcher) {
         synchronized (matchers) {
             if (matcher.isValid()) {
                 matchers.add(matcher);
+                automaton = null;
 
                 for (String label : matcher.getStyleLabels().keySet()) {
                     if (!styleLabels.containsKey(label)) {
@@ -60,20 +77,72 @@ public class Matcher {
     public void removeMatcher(PatternMatcher matcher) {
         synchronized (matchers) {
             matchers.remove(matcher);
+            automaton = null;
+        }
+    }
+
+    private PatternAutomaton getAutomaton() {
+        PatternAutomaton current = automaton;
+        if (current == null) {
+            synchronized (matchers) {
+                if (automaton == null) {
+                    automaton = new PatternAutomaton(matchers);
+                }
+                current = automaton;
+            }
         }
+        return current;
     }
 
     public MatchResult match(TextAnnotation textTokens, int from, int to) {
-        MatchResult result = new MatchResult(null, -1, null, null);
+        if (from >= to) {
+            return new MatchResult(null, -1, null, null);
+        }
+
+        if (backtracking) {
+            return match(getAutomaton(), textTokens, from, to);
+        }
+        // the greedy matchers keep their variables as state
         synchronized (matchers) {
-            int matchCount = 0;
+            return match(getAutomaton(), textTokens, from, to);
+        }
+    }
+
+    private MatchResult match(PatternAutomaton automaton, TextAnnotation textTokens, int from, int to) {
+        MatchResult result = new MatchResult(null, -1, null, null);
+        int matchCount = 0;
+
+        // the two candidate lists are merged, to keep the order of the patterns
+        int[] literalCandidates = automaton.getLiteralCandidates(textTokens.getToken(from).getText());
+        int[] otherCandidates = automaton.getOtherCandidates();
+        int i = 0;
+        int j = 0;
+        while (i < literalCandidates.length || j < otherCandidates.length) {
+            PatternMatcher matcher;
+            if (j >= otherCandidates.length || (i < literalCandidates.length && literalCandidates[i] < otherCandidates[j])) {
+                matcher = automaton.getPattern(literalCandidates[i++]);
+            } else {
+                matcher = automaton.getPattern(otherCandidates[j++]);
+            }
 
-            for (PatternMatcher matcher : matchers) {
+            int count;
+            int window;
+            Map<String, String> vars;
+            if (backtracking) {
+                PatternEngine.Match match = matcher.find(textTokens, from, to);
+                count = match.getMatchCount();
+                window = match.getMatchWindow();
+                vars = match.getVariables();
+            } else {
                 PatternMatcher.PatternMatch pm = matcher.match(textTokens, from, to);
-                if ((pm.getMatchCount() > matchCount) || (pm.getMatchCount() == matchCount && pm.getMatchWindow() < result.getMatchedTokens())) {
-                    result = new MatchResult(matcher.getId(), pm.getMatchWindow(), matcher.getMatchedVars(), setupStyles(matcher.getStyleLabels()));
-                    matchCount = pm.getMatchCount();
-                }
+                count = pm.getMatchCount();
+                window = pm.getMatchWindow();
+                vars = matcher.getMatchedVars();
+            }
+
+            if ((count > matchCount) || (count == matchCount && window < result.getMatchedTokens())) {
+                result = new MatchResult(matcher.getId(), window, vars, setupStyles(matcher.getStyleLabels()));
+                matchCount = count;
             }
         }
         return result;
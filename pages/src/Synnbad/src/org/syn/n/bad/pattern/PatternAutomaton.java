@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.pattern.token.SimpleTokenMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The patterns of a Matcher, merged by their entry edges: the token matchers that follow the start of each pattern.
+ * A pattern only matches from a position where one of its entry matchers accepts the token, so the patterns entered
+ * by literal tokens are indexed by these literals, while the patterns with a POS, synonym or consumer entry are tried
+ * at every position. The deeper edges are not merged: up to two tokens may be skipped between the tokens
+ * of a pattern, and each pattern takes its own path.
+ * <p/>
+ * The candidates are visited in the order the patterns were added, the best match selection is unchanged.
+ *
+ * @version 1, 10/18/26
+ */
+class PatternAutomaton {
+    private static final int[] NONE = new int[0];
+
+    private final PatternMatcher[] patterns;
+    private final Map<String, int[]> literalEntries = new HashMap<String, int[]>();
+    private final int[] otherEntries;
+
+    PatternAutomaton(List<PatternMatcher> matchers) {
+        patterns = matchers.toArray(new PatternMatcher[matchers.size()]);
+
+        Map<String, List<Integer>> literals = new HashMap<String, List<Integer>>();
+        List<Integer> others = new ArrayList<Integer>();
+        for (int i = 0; i < patterns.length; i++) {
+            List<String> entries = getLiteralEntries(patterns[i].getStart());
+            if (entries == null) {
+                others.add(i);
+            } else {
+                for (String entry : entries) {
+                    List<Integer> items = literals.get(entry);
+                    if (items == null) {
+                        items = new ArrayList<Integer>();
+                        literals.put(entry, items);
+                    }
+                    // a literal may enter the same pattern twice (xxx? xxx)
+                    if (items.isEmpty() || items.get(items.size() - 1) != i) {
+                        items.add(i);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : literals.entrySet()) {
+            literalEntries.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        otherEntries = toArray(others);
+    }
+
+    /*
+     * The literals of all the entry edges, or null when an entry is not a literal.
+     */
+    private static List<String> getLiteralEntries(TokenMatcher start) {
+        List<String> result = new ArrayList<String>();
+        for (TokenMatcher entry : start.getMatcherList()) {
+            if (entry instanceof SimpleTokenMatcher) {
+                result.add(((SimpleTokenMatcher) entry).getText());
+            } else {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> items) {
+        int[] result = new int[items.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = items.get(i);
+        }
+        return result;
+    }
+
+    PatternMatcher getPattern(int index) {
+        return patterns[index];
+    }
+
+    /*
+     * The patterns entered by the given token, in ascending order.
+     */
+    int[] getLiteralCandidates(String token) {
+        int[] result = literalEntries.get(token);
+        return result == null ? NONE : result;
+    }
+
+    /*
+     * The patterns that may be entered by any token, in ascending order.
+     */
+    int[] getOtherCandidates() {
+        return otherEntries;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.*;
+
+/**
+ * A compiled pattern, matched by a depth first search over the token matcher graph. The children are tried in
+ * the order of the greedy PatternMatcher, which makes the greedy path the first one explored, but a path that gets
+ * stuck in a non final matcher is backtracked, instead of failing the whole match. The (matcher, position) pairs
+ * that failed once are remembered, so each one is explored at most once per match.
+ * <p/>
+ * The engine is immutable and thread safe. The search stack, the failures and the variable captures are kept
+ * in a per thread workspace and reused, the only allocations being the ones of a successful match.
+ *
+ * @version 1, 10/18/26
+ */
+public final class PatternEngine {
+    private static final int NO_SLOT = -1;
+
+    private static final ThreadLocal<Workspace> workspaces = new ThreadLocal<Workspace>() {
+        protected Workspace initialValue() {
+            return new Workspace();
+        }
+    };
+
+    private final TokenMatcher[] matchers;
+    private final int[][] children;
+    private final boolean[] accepting;
+    private final boolean[] counted;
+    private final int[] slots;
+    private final String[] labels;
+
+    public PatternEngine(TokenMatcher start) {
+        // the start matcher gets the index 0
+        Map<TokenMatcher, Integer> indexes = new IdentityHashMap<TokenMatcher, Integer>();
+        List<TokenMatcher> order = new ArrayList<TokenMatcher>();
+        indexes.put(start, 0);
+        order.add(start);
+        for (int i = 0; i < order.size(); i++) {
+            for (TokenMatcher child : order.get(i).getMatcherList()) {
+                if (!indexes.containsKey(child)) {
+                    indexes.put(child, order.size());
+                    order.add(child);
+                }
+            }
+        }
+
+        int size = order.size();
+        matchers = order.toArray(new TokenMatcher[size]);
+        children = new int[size][];
+        accepting = new boolean[size];
+        counted = new boolean[size];
+        slots = new int[size];
+
+        List<String> labelList = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            TokenMatcher matcher = matchers[i];
+            List<TokenMatcher> next = matcher.getMatcherList();
+            children[i] = new int[next.size()];
+            int j = 0;
+            for (TokenMatcher child : next) {
+                children[i][j++] = indexes.get(child);
+            }
+
+            accepting[i] = matcher.isFinal();
+            counted[i] = matcher.getPriority() != TokenMatcher.PRIORITY_SKIP;
+            if (matcher.hasVariableLabel()) {
+                int slot = labelList.indexOf(matcher.getVariableLabel());
+                if (slot < 0) {
+                    slot = labelList.size();
+                    labelList.add(matcher.getVariableLabel());
+                }
+                slots[i] = slot;
+            } else {
+                slots[i] = NO_SLOT;
+            }
+        }
+        labels = labelList.toArray(new String[labelList.size()]);
+    }
+
+    /**
+     * Matches the pattern on the tokens [from, to), starting with the token at from.
+     *
+     * @return the first accepted path, or Match.NONE
+     */
+    public Match match(TextAnnotation tokens, int from, int to) {
+        if (from >= to) {
+            return Match.NONE;
+        }
+
+        int length = to - from;
+        Workspace workspace = workspaces.get();
+        workspace.prepare(length + 1, matchers.length, labels.length);
+        int[] path = workspace.path;
+        int[] cursors = workspace.cursors;
+        long[] failures = workspace.failures;
+
+        int depth = 0;
+        path[0] = 0;
+        cursors[0] = 0;
+        while (depth >= 0) {
+            int state = path[depth];
+            boolean advanced = false;
+            if (depth < length) {
+                int[] next = children[state];
+                while (cursors[depth] < next.length) {
+                    int child = next[cursors[depth]++];
+                    int key = (depth + 1) * matchers.length + child;
+                    if ((failures[key >>> 6] & (1L << key)) == 0 && matchers[child].match(tokens, from + depth)) {
+                        depth++;
+                        path[depth] = child;
+                        cursors[depth] = 0;
+                        advanced = true;
+                        break;
+                    }
+                }
+            }
+
+            if (!advanced) {
+                if (accepting[state]) {
+                    return accept(tokens, from, depth, workspace);
+                }
+                int key = depth * matchers.length + state;
+                failures[key >>> 6] |= 1L << key;
+                depth--;
+            }
+        }
+        return Match.NONE;
+    }
+
+    private Match accept(TextAnnotation tokens, int from, int depth, Workspace workspace) {
+        int[] path = workspace.path;
+        StringBuilder[] captures = workspace.captures;
+        for (int i = 0; i < labels.length; i++) {
+            captures[i].setLength(0);
+        }
+
+        int matchCount = 0;
+        for (int i = 1; i <= depth; i++) {
+            int state = path[i];
+            if (counted[state]) {
+                matchCount++;
+            }
+            int slot = slots[state];
+            if (slot != NO_SLOT) {
+                if (captures[slot].length() > 0) {
+                    captures[slot].append(' ');
+                }
+                captures[slot].append(tokens.getToken(from + i - 1).getText());
+            }
+        }
+
+        Map<String, String> variables = new HashMap<String, String>();
+        for (int i = 0; i < labels.length; i++) {
+            if (captures[i].length() > 0) {
+                variables.put(labels[i], captures[i].toString());
+            }
+        }
+        return new Match(matchCount, depth, variables);
+    }
+
+    /*
+     * The search state of the current thread, grown to the largest match.
+     */
+    private static final class Workspace {
+        private int[] path = new int[0];
+        private int[] cursors = new int[0];
+        private long[] failures = new long[0];
+        private StringBuilder[] captures = new StringBuilder[0];
+
+        private void prepare(int depth, int states, int slots) {
+            if (path.length < depth) {
+                path = new int[depth];
+                cursors = new int[depth];
+            }
+
+            int words = (depth * states + 63) >>> 6;
+            if (failures.length < words) {
+                failures = new long[words];
+            } else {
+                Arrays.fill(failures, 0, words, 0L);
+            }
+
+            if (captures.length < slots) {
+                StringBuilder[] items = Arrays.copyOf(captures, slots);
+                for (int i = captures.length; i < slots; i++) {
+                    items[i] = new StringBuilder();
+                }
+                captures = items;
+            }
+        }
+    }
+
+    /**
+     * The result of a match: the number of the matched (non skipped) tokens, the number of the consumed tokens
+     * and the variables, each one with its tokens separated by spaces.
+     */
+    public static final class Match {
+        public static final Match NONE = new Match(0, 0, Collections.<String, String>emptyMap());
+
+        private final int matchCount;
+        private final int matchWindow;
+        private final Map<String, String> variables;
+
+        private Match(int matchCount, int matchWindow, Map<String, String> variables) {
+            this.matchCount = matchCount;
+            this.matchWindow = matchWindow;
+            this.variables = variables.isEmpty() ? Collections.<String, String>emptyMap() : Collections.unmodifiableMap(variables);
+        }
+
+        public boolean isMatched() {
+            return matchWindow > 0;
+        }
+
+        public int getMatchCount() {
+            return matchCount;
+        }
+
+        public int getMatchWindow() {
+            return matchWindow;
+        }
+
+        public Map<String, String> getVariables() {
+            return variables;
+        }
+
+        public String toString() {
+            return "Match{" +
+                    "matchCount=" + matchCount +
+                    ", matchWindow=" + matchWindow +
+                    ", variables=" + variables +
+                    '}';
+        }
+    }
+}
@@ -46,6 +46,7 @@ public class PatternMatcher {
     private String pattern;
     private Map<String, String> matchedVars = new HashMap<String, String>();
     private TokenMatcher start;
+    private volatile PatternEngine engine = null;
 
     protected PatternMatcher(String id) {
         this.id = id;
@@ -104,6 +105,10 @@ public class PatternMatcher {
         }
     }
 
+    TokenMatcher getStart() {
+        return start;
+    }
+
     public boolean isValid() {
         return start != null && !start.getMatcherList().isEmpty();
     }
@@ -186,6 +191,22 @@ public class PatternMatcher {
         }
     }
 
+    /**
+     * Matches the pattern with a PatternEngine: the result is the same as the one of match() when the greedy path
+     * is accepted, otherwise the alternative paths are explored. Unlike match(), this method is thread safe.
+     */
+    public PatternEngine.Match find(TextAnnotation tokens, int from, int to) {
+        if (start == null) {
+            return PatternEngine.Match.NONE;
+        }
+        PatternEngine current = engine;
+        if (current == null) {
+            current = new PatternEngine(start);
+            engine = current;
+        }
+        return current.match(tokens, from, to);
+    }
+
     public String toString() {
         return pattern;
     }
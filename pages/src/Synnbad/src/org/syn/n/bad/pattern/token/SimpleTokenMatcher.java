@@ -39,6 +39,10 @@ public class SimpleTokenMatcher extends TokenMatcher {
         super(pattern, isMandatory);
     }
 
+    public String getText() {
+        return pattern;
+    }
+
     public boolean match(TextAnnotation tokens, int index) {
         return pattern.equals(tokens.getToken(index).getText());
     }
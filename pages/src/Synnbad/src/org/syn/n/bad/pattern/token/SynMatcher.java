@@ -36,6 +36,7 @@ import org.syn.n.bad.annotation.TextAnnotationConstants;
 import org.syn.n.bad.dictionary.Dictionary;
 import org.syn.n.bad.dictionary.DictionaryException;
 import org.syn.n.bad.dictionary.POS;
+import org.syn.n.bad.dictionary.SynonymExpansion;
 
 import java.util.*;
 
@@ -64,16 +65,37 @@ public class SynMatcher extends TokenMatcher {
         }
     }
 
-    private Set<String> synsets;
+    private volatile Set<String> synsets = null;
     private Locale language;
+    private String word;
+    private POS[] wordRestrictions;
+    private SynonymExpansion expansion;
 
     public SynMatcher(Locale language, String pattern, boolean isMandatory) {
         super("[" + pattern + "]", isMandatory);
         this.language = language;
         pattern = setupVariables(pattern);
         Map.Entry<String, POS[]> restrictions = setupRestrictions(pattern);
-        pattern = restrictions.getKey();
-        synsets = createSynset(language, pattern, restrictions.getValue());
+        word = restrictions.getKey();
+        wordRestrictions = restrictions.getValue();
+        expansion = createExpansion(language, word, wordRestrictions);
+        if (expansion == null) {
+            synsets = createSynset(language, word, wordRestrictions);
+        }
+    }
+
+    /**
+     * @return the pattern word, without its POS restriction and variable label
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * @return the POS restrictions of the pattern word, empty when the word is not restricted
+     */
+    public POS[] getWordRestrictions() {
+        return wordRestrictions.clone();
     }
 
     private Map.Entry<String, POS[]> setupRestrictions(String pattern) {
@@ -113,6 +135,27 @@ public class SynMatcher extends TokenMatcher {
         }
     }
 
+    private SynonymExpansion createExpansion(Locale language, String word, POS... pos) {
+        try {
+            return dictionary.getSynonymExpansion(language, word, pos);
+        } catch (DictionaryException e) {
+            //-- matched by the synsets
+            return null;
+        }
+    }
+
+    /*
+     * The synsets of the pattern word, only looked up for the tokens that the expansion does not cover.
+     */
+    private Set<String> getSynsets() {
+        Set<String> result = synsets;
+        if (result == null) {
+            result = createSynset(language, word, wordRestrictions);
+            synsets = result;
+        }
+        return result;
+    }
+
     private POS[] convert(Collection<AnnotationToken> annotationTokens) {
         List<POS> result = new LinkedList<POS>();
         if (annotationTokens != null) {
@@ -136,7 +179,7 @@ public class SynMatcher extends TokenMatcher {
     }
 
     public boolean match(TextAnnotation tokens, int index) {
-        if (synsets == null || synsets.isEmpty()) {
+        if (expansion == null && (synsets == null || synsets.isEmpty())) {
             return false;
         }
 
@@ -154,9 +197,23 @@ public class SynMatcher extends TokenMatcher {
         }
 
         String token = tokens.getToken(index).getText();
-        Set<String> tokenSynset = createSynset(language, token, restrictions);
-        tokenSynset.retainAll(synsets);
+        if (expansion != null) {
+            if (expansion.contains(token, restrictions)) {
+                return true;
+            } else if (expansion.isExact(token)) {
+                return false;
+            }
+        }
 
-        return !tokenSynset.isEmpty();
+        Set<String> wordSynsets = getSynsets();
+        if (wordSynsets.isEmpty()) {
+            return false;
+        }
+        try {
+            return dictionary.hasCommonSynset(language, token, wordSynsets, restrictions);
+        } catch (DictionaryException e) {
+            //-- ignore it
+            return false;
+        }
     }
 }
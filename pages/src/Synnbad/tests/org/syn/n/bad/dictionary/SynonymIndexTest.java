@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class SynonymIndexTest {
+    private static Map<POS, Set<String>> forms(POS pos, String... items) {
+        Map<POS, Set<String>> result = new EnumMap<POS, Set<String>>(POS.class);
+        result.put(pos, new HashSet<String>(Arrays.asList(items)));
+        return result;
+    }
+
+    @Test()
+    public void testSynonymForms() {
+        SynonymExpansion expansion = new SynonymExpansion(forms(POS.VERB, "go", "goes", "went", "travel"), false);
+
+        assertTrue(expansion.contains("went"));
+        assertTrue(expansion.contains("went", POS.VERB));
+        assertTrue(expansion.contains("went", POS.NOUN, POS.VERB));
+        assertFalse(expansion.contains("went", POS.NOUN));
+        assertFalse(expansion.contains("come"));
+
+        assertTrue(expansion.isExact("come"));
+        assertFalse(expansion.isExact("Went"));
+        assertFalse(expansion.isExact("go-between"));
+    }
+
+    @Test()
+    public void testFallbackForms() {
+        Map<POS, Set<String>> forms = forms(POS.VERB, "foo");
+        forms.put(POS.NOUN, Collections.singleton("foo"));
+        SynonymExpansion expansion = new SynonymExpansion(forms, true);
+
+        // the token must have no synsets in all its POS
+        assertTrue(expansion.contains("foo", POS.NOUN, POS.VERB));
+        assertFalse(expansion.contains("foo"));
+        assertFalse(expansion.contains("foo", POS.ADVERB));
+        assertTrue(expansion.isExact("Foo"));
+    }
+
+    @Test()
+    public void testSnapshot() throws IOException {
+        SynonymIndex index = new SynonymIndex("config");
+        String key = SynonymIndex.getKey(Locale.ENGLISH, "go", POS.getAllPOS());
+        index.put(key, new SynonymExpansion(forms(POS.VERB, "go", "goes", "went"), false));
+        assertTrue(index.isModified());
+
+        File file = File.createTempFile("synonyms", ".snapshot");
+        try {
+            index.save(file);
+            assertFalse(index.isModified());
+
+            SynonymIndex restored = new SynonymIndex("config");
+            assertTrue(restored.load(file));
+            assertEquals(1, restored.size());
+            SynonymExpansion expansion = restored.get(key);
+            assertEquals(new HashSet<String>(Arrays.asList("go", "goes", "went")), expansion.getForms(POS.VERB));
+            assertTrue(expansion.getForms(POS.NOUN).isEmpty());
+            assertFalse(expansion.isFallback());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test()
+    public void testSnapshotFingerprint() throws IOException {
+        File config = File.createTempFile("dictionary", ".xml");
+        File file = File.createTempFile("synonyms", ".snapshot");
+        try {
+            String fingerprint = SynonymIndex.fingerprint(Collections.singletonList(config));
+            assertEquals(fingerprint, SynonymIndex.fingerprint(Collections.singletonList(config)));
+
+            SynonymIndex index = new SynonymIndex(fingerprint);
+            index.put(SynonymIndex.getKey(Locale.ENGLISH, "go", POS.getAllPOS()), new SynonymExpansion(forms(POS.VERB, "go"), false));
+            index.save(file);
+
+            Writer writer = new FileWriter(config);
+            try {
+                writer.write("<extensions/>");
+            } finally {
+                writer.close();
+            }
+            String changed = SynonymIndex.fingerprint(Collections.singletonList(config));
+            assertNotEquals(fingerprint, changed);
+
+            SynonymIndex restored = new SynonymIndex(changed);
+            assertFalse(restored.load(file));
+            assertEquals(0, restored.size());
+        } finally {
+            assertTrue(config.delete());
+            assertTrue(file.delete());
+        }
+    }
+}
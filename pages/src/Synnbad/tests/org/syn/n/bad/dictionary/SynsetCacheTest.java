@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class SynsetCacheTest {
+    private static Set<String> synsets(String... ids) {
+        Set<String> result = new HashSet<String>();
+        Collections.addAll(result, ids);
+        return result;
+    }
+
+    @Test()
+    public void testHitsAndMisses() {
+        SynsetCache cache = new SynsetCache(4);
+        assertNull(cache.get(Locale.ENGLISH, "dog", POS.NOUN));
+
+        cache.put(Locale.ENGLISH, "dog", POS.NOUN, synsets("jwnl~n#1", "jwnl~n#2"));
+        assertEquals(synsets("jwnl~n#1", "jwnl~n#2"), cache.get(Locale.ENGLISH, "dog", POS.NOUN));
+        assertNull(cache.get(Locale.ENGLISH, "dog", POS.VERB));
+        assertNull(cache.get(Locale.FRENCH, "dog", POS.NOUN));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutableSynsets() {
+        SynsetCache cache = new SynsetCache(4);
+        Set<String> source = synsets("jwnl~n#1");
+        cache.put(Locale.ENGLISH, "dog", POS.NOUN, source);
+        source.add("jwnl~n#2");
+
+        Set<String> cached = cache.get(Locale.ENGLISH, "dog", POS.NOUN);
+        assertEquals(synsets("jwnl~n#1"), cached);
+        cached.add("jwnl~n#3");
+    }
+
+    @Test()
+    public void testEviction() {
+        SynsetCache cache = new SynsetCache(2);
+        cache.put(Locale.ENGLISH, "dog", POS.NOUN, synsets("jwnl~n#1"));
+        cache.put(Locale.ENGLISH, "cat", POS.NOUN, synsets("jwnl~n#2"));
+        // the used entries get a second chance
+        assertNotNull(cache.get(Locale.ENGLISH, "dog", POS.NOUN));
+
+        cache.put(Locale.ENGLISH, "bear", POS.NOUN, synsets("jwnl~n#3"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get(Locale.ENGLISH, "dog", POS.NOUN));
+        assertNull(cache.get(Locale.ENGLISH, "cat", POS.NOUN));
+        assertNotNull(cache.get(Locale.ENGLISH, "bear", POS.NOUN));
+    }
+
+    @Test()
+    public void testDisabled() {
+        SynsetCache cache = new SynsetCache(0);
+        assertEquals(synsets("jwnl~n#1"), cache.put(Locale.ENGLISH, "dog", POS.NOUN, synsets("jwnl~n#1")));
+        assertNull(cache.get(Locale.ENGLISH, "dog", POS.NOUN));
+        assertEquals(0, cache.size());
+    }
+}
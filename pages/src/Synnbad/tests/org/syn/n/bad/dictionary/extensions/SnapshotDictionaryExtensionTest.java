@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.dictionary.extensions;
+
+import org.junit.Test;
+import org.syn.n.bad.dictionary.DictionaryException;
+import org.syn.n.bad.dictionary.POS;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @version 1, 10/18/26
+ */
+public class SnapshotDictionaryExtensionTest {
+    private static Set<String> set(String... items) {
+        return new HashSet<String>(Arrays.asList(items));
+    }
+
+    private static void addWord(Map<String, Map<POS, Set<String>>> words, String word, POS pos, String... synsets) {
+        Map<POS, Set<String>> items = words.get(word);
+        if (items == null) {
+            items = new EnumMap<POS, Set<String>>(POS.class);
+            words.put(word, items);
+        }
+        items.put(pos, set(synsets));
+    }
+
+    private static File createSnapshot() throws IOException {
+        Map<String, Map<POS, Set<String>>> words = new HashMap<String, Map<POS, Set<String>>>();
+        addWord(words, "go", POS.VERB, "jwnl~v#1", "jwnl~v#2");
+        addWord(words, "go", POS.NOUN, "jwnl~n#3");
+        addWord(words, "goes", POS.VERB, "jwnl~v#1", "jwnl~v#2");
+        addWord(words, "went", POS.VERB, "jwnl~v#1");
+        addWord(words, "travel", POS.VERB, "jwnl~v#2");
+        addWord(words, "caf\u00e9", POS.NOUN, "jwnl~n#4");
+
+        Map<String, Set<String>> forms = new HashMap<String, Set<String>>();
+        forms.put("jwnl~v#1", set("go", "goes", "went"));
+        forms.put("jwnl~v#2", set("go", "goes", "travel"));
+        forms.put("jwnl~n#4", set("caf\u00e9"));
+
+        File file = File.createTempFile("dictionary", ".snapshot");
+        // a mapped file cannot be deleted on every platform
+        file.deleteOnExit();
+        SnapshotBuilder.write(file, words, forms);
+        return file;
+    }
+
+    @Test()
+    public void testSynsets() throws IOException, DictionaryException {
+        SnapshotDictionaryExtension extension = new SnapshotDictionaryExtension("jwnl", createSnapshot());
+        assertEquals(6, extension.getWordCount());
+        assertEquals(4, extension.getSynsetCount());
+
+        assertEquals(set("jwnl~v#1", "jwnl~v#2", "jwnl~n#3"), extension.getSynsetIDs(Locale.ENGLISH, "go", POS.getAllPOS()));
+        assertEquals(set("jwnl~v#1", "jwnl~v#2"), extension.getSynsetIDs(Locale.ENGLISH, "go", Collections.singletonList(POS.VERB)));
+        assertEquals(set("jwnl~v#1"), extension.getSynsetIDs(Locale.ENGLISH, "Went", POS.getAllPOS()));
+        assertEquals(set("jwnl~n#4"), extension.getSynsetIDs(Locale.ENGLISH, "caf\u00e9", POS.getAllPOS()));
+        assertTrue(extension.getSynsetIDs(Locale.ENGLISH, "went", Collections.singletonList(POS.NOUN)).isEmpty());
+        assertTrue(extension.getSynsetIDs(Locale.ENGLISH, "g", POS.getAllPOS()).isEmpty());
+        assertTrue(extension.getSynsetIDs(Locale.ENGLISH, "gone", POS.getAllPOS()).isEmpty());
+        assertTrue(extension.getSynsetIDs(Locale.ENGLISH, "", POS.getAllPOS()).isEmpty());
+    }
+
+    @Test()
+    public void testSynsetForms() throws IOException, DictionaryException {
+        SnapshotDictionaryExtension extension = new SnapshotDictionaryExtension("jwnl", createSnapshot());
+        assertEquals(set("go", "goes", "went"), extension.getSynsetForms("jwnl~v#1"));
+        assertEquals(set("caf\u00e9"), extension.getSynsetForms("jwnl~n#4"));
+        // a synset of the pattern words that is not the one of a pattern
+        assertNull(extension.getSynsetForms("jwnl~n#3"));
+        assertNull(extension.getSynsetForms("jwnl~v#5"));
+    }
+
+    @Test(expected = DictionaryException.class)
+    public void testInvalidSnapshot() throws IOException, DictionaryException {
+        File file = File.createTempFile("dictionary", ".snapshot");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write("not a snapshot");
+        writer.close();
+        new SnapshotDictionaryExtension("jwnl", file);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file is part of AgentSlang Project (http://agent.roboslang.org/).
+ *
+ * AgentSlang is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License and CECILL-B.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The CECILL-B license file should be a part of this project. If not,
+ * it could be obtained at  <http://www.cecill.info/>.
+ *
+ * The usage of this project makes mandatory the authors citation in
+ * any scientific publication or technical reports. For websites or
+ * research projects the AgentSlang website and logo needs to be linked
+ * in a visible area.
+ */
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares PatternEngine with the greedy PatternMatcher and with a plain recursive search, on the patterns of the
+ * other pattern tests and random token sequences over their vocabulary.
+ *
+ * @version 1, 10/18/26
+ */
+public class PatternEngineTest {
+    private static final String[] PATTERNS = {
+            "xxx yyy zzz", "xxx yyy", "xxx aaa zzz",
+            "xxx yyy? zzz", "xxx aaa* zzz",
+            "xxx $name1? zzz", "xxx $name2* zzz"
+    };
+    private static final String[] VOCABULARY = {"xxx", "yyy", "zzz", "aaa", "bbb"};
+    private static final int SAMPLES = 2000;
+    private static final int MAX_LENGTH = 8;
+
+    private List<PatternMatcher> patterns;
+    private List<TextAnnotation> samples;
+
+    @Before()
+    public void setup() {
+        patterns = new ArrayList<PatternMatcher>();
+        for (int i = 0; i < PATTERNS.length; i++) {
+            patterns.add(new PatternMatcher(String.valueOf(i), PATTERNS[i]));
+        }
+
+        Random random = new Random(42);
+        samples = new ArrayList<TextAnnotation>();
+        for (int i = 0; i < SAMPLES; i++) {
+            int length = 1 + random.nextInt(MAX_LENGTH);
+            TextAnnotation tokens = new TextAnnotation(length);
+            for (int j = 0; j < length; j++) {
+                tokens.addTextToken(new TextToken(VOCABULARY[random.nextInt(VOCABULARY.length)]));
+            }
+            samples.add(tokens);
+        }
+    }
+
+    @Test()
+    public void testGreedyMatchesAreKept() {
+        int matched = 0;
+        for (TextAnnotation tokens : samples) {
+            for (PatternMatcher pattern : patterns) {
+                for (int from = 0; from < tokens.size(); from++) {
+                    PatternMatcher.PatternMatch greedy = pattern.match(tokens, from, tokens.size());
+                    if (greedy.getMatchWindow() > 0) {
+                        PatternEngine.Match match = pattern.find(tokens, from, tokens.size());
+                        String message = pattern + " on " + tokens + " from " + from;
+                        assertEquals(message, greedy.getMatchCount(), match.getMatchCount());
+                        assertEquals(message, greedy.getMatchWindow(), match.getMatchWindow());
+                        assertEquals(message, pattern.getMatchedVars(), match.getVariables());
+                        matched++;
+                    }
+                }
+            }
+        }
+        assertTrue(matched > 0);
+    }
+
+    @Test()
+    public void testRecursiveSearch() {
+        int recovered = 0;
+        for (TextAnnotation tokens : samples) {
+            for (PatternMatcher pattern : patterns) {
+                for (int from = 0; from < tokens.size(); from++) {
+                    PatternEngine.Match match = pattern.find(tokens, from, tokens.size());
+                    String message = pattern + " on " + tokens + " from " + from;
+
+                    List<TokenMatcher> path = new ArrayList<TokenMatcher>();
+                    if (search(pattern.getStart(), tokens, from, tokens.size(), path)) {
+                        assertTrue(message, match.isMatched());
+                        assertEquals(message, path.size(), match.getMatchWindow());
+                        assertEquals(message, countMatched(path), match.getMatchCount());
+                        assertEquals(message, getVariables(path, tokens, from), match.getVariables());
+                        if (pattern.match(tokens, from, tokens.size()).getMatchWindow() == 0) {
+                            recovered++;
+                        }
+                    } else {
+                        assertFalse(message, match.isMatched());
+                        assertSame(message, PatternEngine.Match.NONE, match);
+                    }
+                }
+            }
+        }
+        // the greedy engine misses some of the matches
+        assertTrue(recovered > 0);
+    }
+
+    @Test()
+    public void testBacktracking() {
+        TextAnnotation tokens = new TextAnnotation(6);
+        tokens.addTextToken(new TextToken("xxx"));
+        tokens.addTextToken(new TextToken("aaa"));
+        tokens.addTextToken(new TextToken("aaa"));
+        tokens.addTextToken(new TextToken("aaa"));
+        tokens.addTextToken(new TextToken("yyy"));
+        tokens.addTextToken(new TextToken("zzz"));
+
+        Matcher greedy = new Matcher();
+        Matcher backtracking = new Matcher(true);
+        for (PatternMatcher pattern : patterns.subList(0, 3)) {
+            greedy.addMatcher(pattern);
+            backtracking.addMatcher(pattern);
+        }
+
+        assertNull(greedy.match(tokens, 0, tokens.size()).getTemplateID());
+
+        // xxx, two skipped tokens, aaa, one skipped token, zzz
+        MatchResult result = backtracking.match(tokens, 0, tokens.size());
+        assertEquals("2", result.getTemplateID());
+        assertEquals(6, result.getMatchedTokens());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutableResult() {
+        TextAnnotation tokens = new TextAnnotation(3);
+        tokens.addTextToken(new TextToken("xxx"));
+        tokens.addTextToken(new TextToken("aaa"));
+        tokens.addTextToken(new TextToken("zzz"));
+
+        PatternEngine.Match match = patterns.get(6).find(tokens, 0, tokens.size());
+        assertEquals("aaa", match.getVariables().get("name2"));
+        match.getVariables().put("name2", "bbb");
+    }
+
+    @Test()
+    public void testConcurrentMatches() throws InterruptedException {
+        final List<PatternEngine.Match> expected = new ArrayList<PatternEngine.Match>();
+        for (TextAnnotation tokens : samples) {
+            for (PatternMatcher pattern : patterns) {
+                expected.add(pattern.find(tokens, 0, tokens.size()));
+            }
+        }
+
+        final AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    int index = 0;
+                    for (TextAnnotation tokens : samples) {
+                        for (PatternMatcher pattern : patterns) {
+                            PatternEngine.Match match = pattern.find(tokens, 0, tokens.size());
+                            PatternEngine.Match reference = expected.get(index++);
+                            if (match.getMatchWindow() != reference.getMatchWindow()
+                                    || !match.getVariables().equals(reference.getVariables())) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+    }
+
+    /*
+     * The children in their order, the deepest path first, accepted when it ends in a final matcher.
+     */
+    private static boolean search(TokenMatcher matcher, TextAnnotation tokens, int index, int to, List<TokenMatcher> path) {
+        if (index < to) {
+            for (TokenMatcher child : matcher.getMatcherList()) {
+                if (child.match(tokens, index)) {
+                    path.add(child);
+                    if (search(child, tokens, index + 1, to, path)) {
+                        return true;
+                    }
+                    path.remove(path.size() - 1);
+                }
+            }
+        }
+        return matcher.isFinal();
+    }
+
+    private static int countMatched(List<TokenMatcher> path) {
+        int result = 0;
+        for (TokenMatcher matcher : path) {
+            if (matcher.getPriority() != TokenMatcher.PRIORITY_SKIP) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, String> getVariables(List<TokenMatcher> path, TextAnnotation tokens, int from) {
+        Map<String, String> result = new HashMap<String, String>();
+        for (int i = 0; i < path.size(); i++) {
+            TokenMatcher matcher = path.get(i);
+            if (matcher.hasVariableLabel()) {
+                String value = tokens.getToken(from + i).getText();
+                String previous = result.get(matcher.getVariableLabel());
+                result.put(matcher.getVariableLabel(), previous == null ? value : previous + " " + value);
+            }
+        }
+        return result;
+    }
+}